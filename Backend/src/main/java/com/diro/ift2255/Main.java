@@ -1,10 +1,22 @@
 package com.diro.ift2255;
 
 import com.diro.ift2255.config.Routes;
+import com.diro.ift2255.service.CourseCatalog;
 import io.javalin.Javalin;
 
 public class Main {
     public static void main(String[] args) {
+        if (System.getProperty("planifium.opinions.dir") == null) {
+            System.setProperty("planifium.opinions.dir", "data/opinions");
+        }
+        // Lues par le JDK a la creation du premier client http : a fixer avant tout appel.
+        if (System.getProperty("jdk.httpclient.connectionPoolSize") == null) {
+            System.setProperty("jdk.httpclient.connectionPoolSize", "32");
+        }
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", "120");
+        }
+
         Javalin app = Javalin.create(cfg -> {
             // Javalin 6.x → config HTTP ici
             cfg.http.defaultContentType = "application/json";
@@ -12,6 +24,7 @@ public class Main {
                 ;
 
         Routes.configure(app);
+        CourseCatalog.shared().startBackgroundRefresh();
 
         app.start(7000);
         System.out.println("✅ Serveur démarré sur http://localhost:7000");
@@ -19,6 +19,9 @@ public class Routes {
      */
     public static void configure(Javalin app) {
         app.get("/ping", ctx -> ctx.result("pong"));
+        app.get("/cache/stats", ctx -> ctx.json(java.util.Map.of(
+                "courseDetails", CourseService.getDetailsCacheStats()
+        )));
 
         app.get("/courses-fake", CourseController::searchCoursesFake);
         app.get("/courses", CourseController::searchCourses);
@@ -26,10 +29,12 @@ public class Routes {
 
         // Syntaxe correcte en Javalin 6
         app.get("/courses/{id}", CourseController::getCourseDetails);
+        app.get("/results/stats", ResultController::getStats);
         app.get("/results/{courseId}", ResultController::getResult);
         CourseService courseService = new CourseService();
         ProgramService programService = new ProgramService();
         app.get("/programs/{id}/courses", ProgramController::getProgramCourses);
+        app.get("/programs/{id}/plan", ProgramController::getDegreePlan);
 
         app.get(
                 "/courses-by-semester-and-program",
@@ -41,7 +46,9 @@ public class Routes {
         );
 
         app.post("/api/opinions", OpinionController::addOpinion);
+        app.post("/api/opinions/bulk", OpinionController::importOpinions);
         app.get("/api/opinions", OpinionController::getOpinions);
+        app.get("/api/opinions/summary", OpinionController::getSummary);
         app.exception(Exception.class, (e, ctx) -> {
             e.printStackTrace();
             ctx.status(500).json(java.util.Map.of(
@@ -54,8 +61,13 @@ public class Routes {
                 "/course-sets/schedule",
                 CourseSetController::createCourseSetSchedule
         );
+        app.post(
+                "/course-sets/timetables",
+                CourseSetController::generateTimetables
+        );
         app.get("/compare-courses", CourseComparisonController::compareCourses);
         app.get("/eligibility", EligibilityController::checkEligibility);
+        app.get("/eligibility/bulk", EligibilityController::checkBulkEligibility);
     }
 
 }
@@ -0,0 +1,41 @@
+package com.diro.ift2255.controller;
+
+import io.javalin.http.Context;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Classe utilitaire pour repondre aux requetes traitees de maniere asynchrone.
+ * Elle traduit les erreurs des traitements asynchrones en reponses http.
+ */
+final class AsyncResponses {
+
+    private AsyncResponses() {
+    }
+
+    /**
+     * Ecrit la reponse derreur correspondant a un traitement asynchrone echoue.
+     * Une erreur de validation produit un code 400 et toute autre erreur un code 500.
+     *
+     * @param ctx contexte de la requete http
+     * @param error erreur recue du traitement asynchrone
+     * @param internalMessage message retourne pour une erreur interne
+     * @return toujours null, pour usage dans exceptionally
+     */
+    static Void fail(Context ctx, Throwable error, String internalMessage) {
+
+        Throwable cause = error;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof IllegalArgumentException) {
+            ctx.status(400).json(Map.of("error", cause.getMessage()));
+        } else {
+            ctx.status(500).json(Map.of("error", internalMessage));
+        }
+
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.diro.ift2255.controller;
 
+import com.diro.ift2255.repository.OpinionRepository;
 import com.diro.ift2255.service.CourseComparisonService;
 import com.diro.ift2255.service.CourseService;
 import com.diro.ift2255.service.OpinionService;
@@ -22,7 +23,7 @@ public class CourseComparisonController {
     private static final CourseComparisonService service =
             new CourseComparisonService(
                     new CourseService(),
-                    new OpinionService(),
+                    new OpinionService(OpinionRepository.shared()),
                     new ResultService()   // PARAMÈTRE MANQUANT
             );
 
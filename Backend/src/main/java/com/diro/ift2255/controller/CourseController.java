@@ -1,7 +1,7 @@
 package com.diro.ift2255.controller;
 
 import com.diro.ift2255.model.Course;
-import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.Sigle;
 import com.diro.ift2255.service.CourseService;
 import com.diro.ift2255.service.ProgramService;
 import com.diro.ift2255.util.HttpClientApi;
@@ -28,6 +28,16 @@ public class CourseController {
     private static final ProgramService programService =
             new ProgramService();
 
+    /**
+     * Nombre de resultats par defaut dune recherche plein texte.
+     */
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    /**
+     * Client http utilise pour les appels directs a l api externe.
+     */
+    private static final HttpClientApi http = new HttpClientApi();
+
     /**
      * Fournit une liste de cours fictifs a des fins de test.
      *
@@ -44,16 +54,29 @@ public class CourseController {
     /**
      * Effectue une recherche de cours selon les criteres fournis
      * dans les parametres de la requete.
+     * Le parametre q declenche une recherche plein texte classee par
+     * pertinence, limitee par le parametre limit.
      *
      * @param ctx contexte de la requete http
      */
     public static void searchCourses(Context ctx) {
 
+        String query = ctx.queryParam("q");
         String siglePartial = ctx.queryParam("sigle");
         String name = ctx.queryParam("name");
         String description = ctx.queryParam("description");
 
         try {
+            if (query != null) {
+                String limitParam = ctx.queryParam("limit");
+                int limit = limitParam == null
+                        ? DEFAULT_SEARCH_LIMIT
+                        : Integer.parseInt(limitParam.trim());
+
+                ctx.json(courseService.searchCoursesRanked(query, limit));
+                return;
+            }
+
             List<Course> courses =
                     courseService.searchCoursesAdvanced(
                             siglePartial,
@@ -80,8 +103,6 @@ public class CourseController {
      */
     public static void coursesFromApiRaw(Context ctx) {
 
-        HttpClientApi http = new HttpClientApi();
-
         String url = "https://planifium-api.onrender.com/api/v1/courses"
                 + "?courses_sigle=IFT2255,IFT2015"
                 + "&response_level=min";
@@ -99,29 +120,24 @@ public class CourseController {
      */
     public static void getCourseDetails(Context ctx) {
 
-        String id = ctx.pathParam("id");
+        Sigle sigle = Sigle.tryParse(ctx.pathParam("id"));
 
-        if (id == null || !id.matches("[A-Za-z]{3,}[0-9]{0,4}")) {
+        if (sigle == null) {
             ctx.status(400).json(
                     Map.of("error", "Sigle de cours invalide (ex: IFT2255)")
             );
             return;
         }
 
-        try {
-            CourseDetails details =
-                    courseService.getCourseDetails(id.toUpperCase());
-            ctx.json(details);
-
-        } catch (IllegalArgumentException e) {
-            ctx.status(400).json(
-                    Map.of("error", e.getMessage())
-            );
-        } catch (RuntimeException e) {
-            ctx.status(500).json(
-                    Map.of("error", "Erreur interne lors de la récupération du cours")
-            );
-        }
+        ctx.future(() ->
+                courseService.getCourseDetailsAsync(sigle.getCode())
+                        .thenAccept(ctx::json)
+                        .exceptionally(e -> AsyncResponses.fail(
+                                ctx,
+                                e,
+                                "Erreur interne lors de la récupération du cours"
+                        ))
+        );
     }
 
     /**
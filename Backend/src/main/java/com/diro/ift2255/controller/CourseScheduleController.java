@@ -3,8 +3,6 @@ package com.diro.ift2255.controller;
 import com.diro.ift2255.service.CourseScheduleService;
 import io.javalin.http.Context;
 
-import java.util.Map;
-
 /**
  * Controleur responsable de la gestion des horaires de cours.
  * Il permet de recuperer l horaire dun cours pour un trimestre donne.
@@ -28,18 +26,14 @@ public class CourseScheduleController {
         String courseId = ctx.pathParam("id");
         String semester = ctx.queryParam("semester");
 
-        try {
-            ctx.json(
-                    service.getCourseSchedule(courseId, semester)
-            );
-        } catch (IllegalArgumentException e) {
-            ctx.status(400).json(
-                    Map.of("error", e.getMessage())
-            );
-        } catch (RuntimeException e) {
-            ctx.status(500).json(
-                    Map.of("error", "Erreur récupération horaire")
-            );
-        }
+        ctx.future(() ->
+                service.getCourseScheduleAsync(courseId, semester)
+                        .thenAccept(ctx::json)
+                        .exceptionally(e -> AsyncResponses.fail(
+                                ctx,
+                                e,
+                                "Erreur récupération horaire"
+                        ))
+        );
     }
 }
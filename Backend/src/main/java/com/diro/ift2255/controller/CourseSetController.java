@@ -46,4 +46,33 @@ public class CourseSetController {
             );
         }
     }
+
+    /**
+     * Genere les meilleurs horaires sans conflit pour un ensemble de cours.
+     *
+     * @param ctx contexte de la requete http
+     */
+    public static void generateTimetables(Context ctx) {
+
+        CourseSetRequest request =
+                ctx.bodyAsClass(CourseSetRequest.class);
+
+        try {
+            ctx.json(
+                    service.generateTimetables(
+                            request.getCourses(),
+                            request.getSemester(),
+                            request.getLimit()
+                    )
+            );
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(
+                    Map.of("error", e.getMessage())
+            );
+        } catch (RuntimeException e) {
+            ctx.status(500).json(
+                    Map.of("error", "Erreur génération horaires")
+            );
+        }
+    }
 }
@@ -18,6 +18,11 @@ public class CourseSetRequest {
      */
     private List<String> courses;
 
+    /**
+     * Nombre maximal dhoraires a generer, optionnel.
+     */
+    private Integer limit;
+
     /**
      * Retourne le trimestre associe a la requete.
      *
@@ -35,4 +40,13 @@ public class CourseSetRequest {
     public List<String> getCourses() {
         return courses;
     }
+
+    /**
+     * Retourne le nombre maximal dhoraires a generer.
+     *
+     * @return la limite, ou null si elle nest pas fournie
+     */
+    public Integer getLimit() {
+        return limit;
+    }
 }
@@ -1,12 +1,20 @@
 package com.diro.ift2255.controller;
 
+import com.diro.ift2255.model.Course;
 import com.diro.ift2255.model.EligibilityResult;
 import com.diro.ift2255.service.CourseService;
 import com.diro.ift2255.service.EligibilityService;
+import com.diro.ift2255.util.TranscriptFingerprint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.javalin.http.Context;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Controleur responsable de la verification de l admissibilite a un cours.
@@ -26,9 +34,16 @@ public class EligibilityController {
     private static final EligibilityService service =
             new EligibilityService(courseService);
 
+    /**
+     * Convertisseur json utilise pour ecrire les reponses en flux.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
     /**
      * Verifie l admissibilite a un cours en fonction des cours completes
-     * et du cycle detudes fourni dans la requete.
+     * et du cycle detudes fourni dans la requete. La liste des cours
+     * completes est lue une seule fois et mise sous forme canonique, ce qui
+     * permet de reutiliser les resultats deja calcules pour le meme releve.
      *
      * @param ctx contexte de la requete http
      * @return le resultat de la verification d admissibilite
@@ -50,19 +65,76 @@ public class EligibilityController {
         }
 
         int cycle = Integer.parseInt(cycleParam);
-
-        List<String> completedCourses =
-                Arrays.stream(completed.split(","))
-                        .map(String::trim)
-                        .toList();
+        boolean transitive = Boolean.parseBoolean(ctx.queryParam("transitive"));
 
         EligibilityResult result =
                 service.checkEligibility(
                         course,
-                        completedCourses,
-                        cycle
+                        TranscriptFingerprint.parse(completed),
+                        cycle,
+                        transitive
                 );
 
         ctx.json(result);
     }
+
+    /**
+     * Retourne tous les cours auxquels un etudiant est admissible, en fonction
+     * des cours completes et du cycle detudes, eventuellement limites a un
+     * programme et a un trimestre. Le tableau json est ecrit en flux, un cours
+     * a la fois.
+     * @param ctx contexte de la requete http
+     */
+    public static void checkBulkEligibility(Context ctx) {
+
+        String completed = ctx.queryParam("completed");
+        String cycleParam = ctx.queryParam("cycle");
+
+        if (completed == null || cycleParam == null) {
+            ctx.status(400).json(
+                    Map.of("error", "Paramètres requis : completed, cycle")
+            );
+            return;
+        }
+
+        Stream<Course> courses;
+
+        try {
+            int cycle = Integer.parseInt(cycleParam.trim());
+
+            List<String> completedCourses =
+                    Arrays.stream(completed.split(","))
+                            .map(String::trim)
+                            .filter(s -> !s.isEmpty())
+                            .toList();
+
+            courses = service.eligibleCourses(
+                    completedCourses,
+                    cycle,
+                    ctx.queryParam("program"),
+                    ctx.queryParam("semester")
+            );
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+            return;
+        } catch (IllegalStateException e) {
+            ctx.status(503).json(Map.of("error", e.getMessage()));
+            return;
+        } catch (RuntimeException e) {
+            ctx.status(500).json(Map.of("error", "Erreur calcul admissibilité"));
+            return;
+        }
+
+        ctx.contentType("application/json");
+
+        try (JsonGenerator json = MAPPER.getFactory().createGenerator(ctx.outputStream())) {
+            json.writeStartArray();
+            for (Course course : (Iterable<Course>) courses::iterator) {
+                json.writeObject(course);
+            }
+            json.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
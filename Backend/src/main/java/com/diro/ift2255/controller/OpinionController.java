@@ -1,6 +1,8 @@
 package com.diro.ift2255.controller;
 
 import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.model.OpinionImportResult;
+import com.diro.ift2255.repository.OpinionRepository;
 import com.diro.ift2255.service.OpinionService;
 import io.javalin.http.Context;
 
@@ -16,7 +18,8 @@ public class OpinionController {
     /**
      * Service utilise pour la gestion des avis.
      */
-    private static final OpinionService service = new OpinionService();
+    private static final OpinionService service =
+            new OpinionService(OpinionRepository.shared());
 
     /**
      * Ajoute un avis pour un cours a partir des donnees fournies dans la requete.
@@ -36,8 +39,23 @@ public class OpinionController {
         }
     }
 
+    /**
+     * Importe un lot davis fourni sous forme de tableau json ou de ndjson.
+     * Le corps est lu en flux et le bilan de l import est retourne.
+     *
+     * @param ctx contexte de la requete http
+     */
+    public static void importOpinions(Context ctx) {
+
+        OpinionImportResult result = service.importOpinions(ctx.bodyInputStream());
+
+        ctx.status(result.getFatalError() == null ? 200 : 400).json(result);
+    }
+
     /**
      * Recupere la liste des avis associes a un cours donne.
+     * Les parametres optionnels professor et author filtrent
+     * les avis par professeur et par auteur.
      *
      * @param ctx contexte de la requete http
      * @return la liste des avis associes au cours
@@ -45,11 +63,35 @@ public class OpinionController {
     public static void getOpinions(Context ctx) {
 
         String course = ctx.queryParam("course");
+        String professor = ctx.queryParam("professor");
+        String author = ctx.queryParam("author");
 
-        List<Opinion> opinions =
-                service.getOpinions(course);
+        List<Opinion> opinions = professor == null && author == null
+                ? service.getOpinions(course)
+                : service.findOpinions(course, professor, author);
 
         ctx.json(opinions);
     }
 
+    /**
+     * Retourne le resume des avis dun cours, ou de tous les cours
+     * lorsque le parametre course est absent.
+     *
+     * @param ctx contexte de la requete http
+     */
+    public static void getSummary(Context ctx) {
+
+        String course = ctx.queryParam("course");
+
+        if (course == null) {
+            ctx.json(service.getSummaries());
+            return;
+        }
+
+        try {
+            ctx.json(service.getSummary(course));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -1,10 +1,15 @@
 package com.diro.ift2255.controller;
 
 import com.diro.ift2255.model.Course;
+import com.diro.ift2255.model.ProgramId;
+import com.diro.ift2255.model.Semester;
 import com.diro.ift2255.service.CourseService;
+import com.diro.ift2255.service.DegreePlan;
+import com.diro.ift2255.service.DegreePlanner;
 import com.diro.ift2255.service.ProgramService;
 import io.javalin.http.Context;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -22,6 +27,12 @@ public class ProgramController {
     private static final CourseService courseService =
             new CourseService();
 
+    /**
+     * Service utilise pour planifier le cheminement dans un programme.
+     */
+    private static final DegreePlanner degreePlanner =
+            new DegreePlanner();
+
     /**
      * Recupere les cours associes a un programme.
      * Un trimestre optionnel peut etre fourni pour filtrer les resultats.
@@ -31,42 +42,51 @@ public class ProgramController {
      */
     public static void getProgramCourses(Context ctx) {
 
-        String programId = ctx.pathParam("id");
+        String rawProgramId = ctx.pathParam("id");
+        ProgramId programId = rawProgramId == null
+                ? null
+                : ProgramId.tryParse(rawProgramId.trim());
 
-        if (programId == null || !programId.trim().matches("^[0-9]{6}$")) {
+        if (programId == null) {
             ctx.status(400).json(Map.of(
                     "error", "ID de programme invalide (6 chiffres requis)"
             ));
             return;
         }
 
-        String semester = ctx.queryParam("semester");
+        String rawSemester = ctx.queryParam("semester");
 
-        if (semester != null) {
-            semester = semester.trim().toUpperCase();
-            if (!semester.matches("^[AHE][0-9]{2}$")) {
-                ctx.status(400).json(Map.of(
-                        "error", "Format de trimestre invalide (ex: H25, A24, E24)"
-                ));
-                return;
-            }
+        if (rawSemester == null) {
+            ctx.future(() ->
+                    programService.getCoursesForProgramAsync(programId.getValue())
+                            .thenAccept(courses -> ctx.json(Map.of(
+                                    "programId", programId.getValue(),
+                                    "courses", courses
+                            )))
+                            .exceptionally(e -> AsyncResponses.fail(ctx, e, "Erreur interne"))
+            );
+            return;
         }
 
-        try {
-            List<Course> courses;
+        Semester semester = Semester.tryParse(rawSemester);
 
-            if (semester == null) {
-                courses = programService.getCoursesForProgram(programId);
-            } else {
-                courses = courseService.getCoursesForSemesterAndProgram(
-                        semester,
-                        programId
-                );
-            }
+        if (semester == null) {
+            ctx.status(400).json(Map.of(
+                    "error", "Format de trimestre invalide (ex: H25, A24, E24)"
+            ));
+            return;
+        }
+
+        try {
+            List<Course> courses =
+                    courseService.getCoursesForSemesterAndProgram(
+                            semester,
+                            programId
+                    );
 
             ctx.json(Map.of(
-                    "programId", programId,
-                    "semester", semester,
+                    "programId", programId.getValue(),
+                    "semester", semester.getCode(),
                     "courses", courses
             ));
 
@@ -77,4 +97,56 @@ public class ProgramController {
         }
     }
 
+    /**
+     * Propose un cheminement trimestre par trimestre pour terminer un programme.
+     * Les cours completes, le cycle, le plafond de credits et les trimestres
+     * d ete sont des parametres optionnels ; le premier trimestre est requis.
+     *
+     * @param ctx contexte de la requete http
+     */
+    public static void getDegreePlan(Context ctx) {
+
+        String rawProgramId = ctx.pathParam("id");
+        ProgramId programId = rawProgramId == null
+                ? null
+                : ProgramId.tryParse(rawProgramId.trim());
+
+        if (programId == null) {
+            ctx.status(400).json(Map.of(
+                    "error", "ID de programme invalide (6 chiffres requis)"
+            ));
+            return;
+        }
+
+        String completed = ctx.queryParam("completed");
+        String cycleParam = ctx.queryParam("cycle");
+        String maxCreditsParam = ctx.queryParam("maxCredits");
+
+        try {
+            List<String> completedCourses = completed == null
+                    ? List.of()
+                    : Arrays.stream(completed.split(","))
+                            .map(String::trim)
+                            .filter(s -> !s.isEmpty())
+                            .toList();
+
+            DegreePlan plan = degreePlanner.plan(
+                    programId.getValue(),
+                    completedCourses,
+                    cycleParam == null ? 1 : Integer.parseInt(cycleParam.trim()),
+                    ctx.queryParam("start"),
+                    maxCreditsParam == null ? null : Integer.valueOf(maxCreditsParam.trim()),
+                    Boolean.parseBoolean(ctx.queryParam("summer"))
+            );
+
+            ctx.json(plan);
+
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            ctx.status(503).json(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            ctx.status(500).json(Map.of("error", "Erreur interne"));
+        }
+    }
 }
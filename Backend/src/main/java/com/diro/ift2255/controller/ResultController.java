@@ -4,6 +4,9 @@ import com.diro.ift2255.model.AcademicResult;
 import com.diro.ift2255.service.ResultService;
 import io.javalin.http.Context;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Controleur responsable de la consultation des resultats academiques.
  * Il permet de recuperer les resultats associes a un cours donne.
@@ -36,4 +39,31 @@ public class ResultController {
             ctx.status(500).result("Erreur interne lors de la récupération des résultats.");
         }
     }
+
+    /**
+     * Retourne les statistiques des resultats academiques, globales
+     * et par departement. Les parametres optionnels department et
+     * minTrimestres filtrent les cours retenus.
+     *
+     * @param ctx contexte de la requete http
+     */
+    public static void getStats(Context ctx) {
+
+        String department = ctx.queryParam("department");
+        String minParam = ctx.queryParam("minTrimestres");
+
+        try {
+            int minTrimestres = minParam == null ? 0 : Integer.parseInt(minParam.trim());
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("overall", service.getOverallStats(department, minTrimestres));
+            body.put("departments", service.getStatsByDepartment(department, minTrimestres));
+            ctx.json(body);
+
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(500).json(Map.of("error", "Erreur interne lors du calcul des statistiques."));
+        }
+    }
 }
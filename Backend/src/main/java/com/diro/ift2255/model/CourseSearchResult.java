@@ -0,0 +1,71 @@
+package com.diro.ift2255.model;
+
+/**
+ * Classe representant un cours retourne par la recherche plein texte.
+ * Elle contient les informations de base du cours et son score de pertinence.
+ */
+public class CourseSearchResult {
+
+    /**
+     * Identifiant du cours.
+     */
+    private String id;
+
+    /**
+     * Nom du cours.
+     */
+    private String name;
+
+    /**
+     * Nombre de credits associes au cours.
+     */
+    private int credits;
+
+    /**
+     * Score de pertinence du cours pour la requete.
+     */
+    private double score;
+
+    /**
+     * Construit un resultat de recherche a partir des informations fournies.
+     *
+     * @param id identifiant du cours
+     * @param name nom du cours
+     * @param credits nombre de credits
+     * @param score score de pertinence
+     */
+    public CourseSearchResult(String id, String name, int credits, double score) {
+        this.id = id;
+        this.name = name;
+        this.credits = credits;
+        this.score = score;
+    }
+
+    /**
+     * Retourne lidentifiant du cours.
+     *
+     * @return lidentifiant
+     */
+    public String getId() { return id; }
+
+    /**
+     * Retourne le nom du cours.
+     *
+     * @return le nom
+     */
+    public String getName() { return name; }
+
+    /**
+     * Retourne le nombre de credits du cours.
+     *
+     * @return le nombre de credits
+     */
+    public int getCredits() { return credits; }
+
+    /**
+     * Retourne le score de pertinence du cours.
+     *
+     * @return le score
+     */
+    public double getScore() { return score; }
+}
@@ -0,0 +1,121 @@
+package com.diro.ift2255.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Classe representant le bilan dun import davis en lot.
+ * Elle compte les avis recus, ajoutes, deja connus et rejetes,
+ * ainsi que le nombre de rejets par cause.
+ */
+public class OpinionImportResult {
+
+    /**
+     * Nombre davis lus dans la requete.
+     */
+    private int received;
+
+    /**
+     * Nombre davis ajoutes.
+     */
+    private int inserted;
+
+    /**
+     * Nombre davis ignores car leur message etait deja enregistre.
+     */
+    private int duplicates;
+
+    /**
+     * Nombre davis rejetes par la validation.
+     */
+    private int rejected;
+
+    /**
+     * Nombre de rejets par message derreur.
+     */
+    private final Map<String, Integer> errors = new LinkedHashMap<>();
+
+    /**
+     * Erreur ayant interrompu la lecture, null si le corps a ete lu en entier.
+     */
+    private String fatalError;
+
+    /**
+     * Compte un avis lu.
+     */
+    public void recordReceived() {
+        received++;
+    }
+
+    /**
+     * Compte les avis ajoutes et ignores dun lot.
+     *
+     * @param batchSize nombre davis valides du lot
+     * @param insertedCount nombre davis ajoutes
+     */
+    public void recordBatch(int batchSize, int insertedCount) {
+        inserted += insertedCount;
+        duplicates += batchSize - insertedCount;
+    }
+
+    /**
+     * Compte un avis rejete.
+     *
+     * @param error message derreur
+     */
+    public void recordRejected(String error) {
+        rejected++;
+        errors.merge(error, 1, Integer::sum);
+    }
+
+    /**
+     * Indique que la lecture a ete interrompue.
+     *
+     * @param error description de l erreur
+     */
+    public void setFatalError(String error) {
+        this.fatalError = error;
+    }
+
+    /**
+     * Retourne le nombre davis lus.
+     *
+     * @return le nombre davis lus
+     */
+    public int getReceived() { return received; }
+
+    /**
+     * Retourne le nombre davis ajoutes.
+     *
+     * @return le nombre davis ajoutes
+     */
+    public int getInserted() { return inserted; }
+
+    /**
+     * Retourne le nombre davis deja enregistres.
+     *
+     * @return le nombre de doublons
+     */
+    public int getDuplicates() { return duplicates; }
+
+    /**
+     * Retourne le nombre davis rejetes.
+     *
+     * @return le nombre davis rejetes
+     */
+    public int getRejected() { return rejected; }
+
+    /**
+     * Retourne le nombre de rejets par message derreur.
+     *
+     * @return les rejets par cause
+     */
+    public Map<String, Integer> getErrors() { return errors; }
+
+    /**
+     * Retourne l erreur ayant interrompu la lecture.
+     *
+     * @return l erreur, ou null
+     */
+    public String getFatalError() { return fatalError; }
+}
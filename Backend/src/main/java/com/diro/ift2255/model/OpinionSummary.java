@@ -0,0 +1,116 @@
+package com.diro.ift2255.model;
+
+import com.diro.ift2255.util.WorkloadClassifier;
+
+/**
+ * Classe representant le resume des avis dun cours.
+ * Elle contient le nombre davis, la somme des charges de travail estimees
+ * et leur repartition. Une instance est immuable : chaque nouvel avis
+ * produit un nouveau resume.
+ */
+public class OpinionSummary {
+
+    /**
+     * Code du cours.
+     */
+    private final String courseCode;
+
+    /**
+     * Nombre davis.
+     */
+    private final int count;
+
+    /**
+     * Somme des charges de travail estimees.
+     */
+    private final long workloadSum;
+
+    /**
+     * Nombre davis par charge de travail ; la case i correspond a la charge i + 1.
+     */
+    private final int[] workloadHistogram;
+
+    /**
+     * Construit un resume.
+     *
+     * @param courseCode code du cours
+     * @param count nombre davis
+     * @param workloadSum somme des charges de travail
+     * @param workloadHistogram nombre davis par charge de travail
+     */
+    private OpinionSummary(String courseCode, int count, long workloadSum, int[] workloadHistogram) {
+        this.courseCode = courseCode;
+        this.count = count;
+        this.workloadSum = workloadSum;
+        this.workloadHistogram = workloadHistogram;
+    }
+
+    /**
+     * Retourne le resume dun cours sans avis.
+     *
+     * @param courseCode code du cours
+     * @return le resume vide
+     */
+    public static OpinionSummary empty(String courseCode) {
+        return new OpinionSummary(courseCode, 0, 0, new int[WorkloadClassifier.MAX_WORKLOAD]);
+    }
+
+    /**
+     * Retourne un nouveau resume incluant un avis supplementaire.
+     *
+     * @param workload charge de travail estimee de l avis
+     * @return le nouveau resume
+     */
+    public OpinionSummary with(int workload) {
+        int[] histogram = workloadHistogram.clone();
+        histogram[workload - WorkloadClassifier.MIN_WORKLOAD]++;
+        return new OpinionSummary(courseCode, count + 1, workloadSum + workload, histogram);
+    }
+
+    /**
+     * Retourne le code du cours.
+     *
+     * @return le code du cours
+     */
+    public String getCourseCode() { return courseCode; }
+
+    /**
+     * Retourne le nombre davis.
+     *
+     * @return le nombre davis
+     */
+    public int getCount() { return count; }
+
+    /**
+     * Retourne la somme des charges de travail estimees.
+     *
+     * @return la somme des charges
+     */
+    public long getWorkloadSum() { return workloadSum; }
+
+    /**
+     * Retourne le nombre davis par charge de travail, de 1 a 5.
+     *
+     * @return la repartition des charges
+     */
+    public int[] getWorkloadHistogram() { return workloadHistogram.clone(); }
+
+    /**
+     * Retourne la charge de travail moyenne.
+     *
+     * @return la moyenne, ou la charge par defaut sans avis
+     */
+    public double getAverageWorkload() {
+        return count == 0 ? WorkloadClassifier.DEFAULT_WORKLOAD : (double) workloadSum / count;
+    }
+
+    /**
+     * Retourne la charge de travail moyenne tronquee a l entier inferieur,
+     * utilisee pour la comparaison des cours.
+     *
+     * @return la charge de travail estimee
+     */
+    public int estimatedWorkload() {
+        return (int) getAverageWorkload();
+    }
+}
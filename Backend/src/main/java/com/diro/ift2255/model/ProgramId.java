@@ -0,0 +1,88 @@
+package com.diro.ift2255.model;
+
+/**
+ * Classe representant l identifiant dun programme detudes,
+ * compose de six chiffres. Une instance est toujours valide.
+ */
+public final class ProgramId {
+
+    /**
+     * Nombre de chiffres dun identifiant de programme.
+     */
+    private static final int LENGTH = 6;
+
+    /**
+     * Identifiant du programme.
+     */
+    private final String value;
+
+    private ProgramId(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Analyse un identifiant de programme.
+     *
+     * @param text identifiant a analyser
+     * @return l identifiant du programme
+     * @throws IllegalArgumentException si l identifiant est absent ou invalide
+     */
+    public static ProgramId parse(String text) {
+
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("programId requis");
+        }
+
+        ProgramId id = tryParse(text);
+        if (id == null) {
+            throw new IllegalArgumentException("Format de programme invalide");
+        }
+        return id;
+    }
+
+    /**
+     * Analyse un identifiant de programme sans lever d exception.
+     *
+     * @param text identifiant a analyser
+     * @return l identifiant, ou null si le texte nest pas forme de six chiffres
+     */
+    public static ProgramId tryParse(String text) {
+
+        if (text == null || text.length() != LENGTH) {
+            return null;
+        }
+
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+
+        return new ProgramId(text);
+    }
+
+    /**
+     * Retourne l identifiant du programme.
+     *
+     * @return l identifiant
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProgramId other && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,187 @@
+package com.diro.ift2255.model;
+
+/**
+ * Classe representant des statistiques sur les resultats academiques
+ * dun groupe de cours, par exemple un departement.
+ */
+public class ResultStats {
+
+    /**
+     * Nom du groupe de cours.
+     */
+    private String group;
+
+    /**
+     * Nombre de cours du groupe.
+     */
+    private int courses;
+
+    /**
+     * Nombre total de participants.
+     */
+    private long participants;
+
+    /**
+     * Score moyen des cours.
+     */
+    private double meanScore;
+
+    /**
+     * Score moyen pondere par le nombre de participants.
+     */
+    private double weightedMeanScore;
+
+    /**
+     * Score minimal.
+     */
+    private double minScore;
+
+    /**
+     * Premier quartile des scores.
+     */
+    private double p25Score;
+
+    /**
+     * Mediane des scores.
+     */
+    private double medianScore;
+
+    /**
+     * Troisieme quartile des scores.
+     */
+    private double p75Score;
+
+    /**
+     * Neuvieme decile des scores.
+     */
+    private double p90Score;
+
+    /**
+     * Score maximal.
+     */
+    private double maxScore;
+
+    /**
+     * Nombre moyen de trimestres dobservation.
+     */
+    private double meanTrimestres;
+
+    /**
+     * Construit les statistiques dun groupe de cours.
+     *
+     * @param group nom du groupe
+     * @param courses nombre de cours
+     * @param participants nombre total de participants
+     * @param meanScore score moyen
+     * @param weightedMeanScore score moyen pondere par les participants
+     * @param minScore score minimal
+     * @param p25Score premier quartile
+     * @param medianScore mediane
+     * @param p75Score troisieme quartile
+     * @param p90Score neuvieme decile
+     * @param maxScore score maximal
+     * @param meanTrimestres nombre moyen de trimestres
+     */
+    public ResultStats(String group, int courses, long participants,
+                       double meanScore, double weightedMeanScore,
+                       double minScore, double p25Score, double medianScore,
+                       double p75Score, double p90Score, double maxScore,
+                       double meanTrimestres) {
+        this.group = group;
+        this.courses = courses;
+        this.participants = participants;
+        this.meanScore = meanScore;
+        this.weightedMeanScore = weightedMeanScore;
+        this.minScore = minScore;
+        this.p25Score = p25Score;
+        this.medianScore = medianScore;
+        this.p75Score = p75Score;
+        this.p90Score = p90Score;
+        this.maxScore = maxScore;
+        this.meanTrimestres = meanTrimestres;
+    }
+
+    /**
+     * Retourne le nom du groupe.
+     *
+     * @return le nom du groupe
+     */
+    public String getGroup() { return group; }
+
+    /**
+     * Retourne le nombre de cours du groupe.
+     *
+     * @return le nombre de cours
+     */
+    public int getCourses() { return courses; }
+
+    /**
+     * Retourne le nombre total de participants.
+     *
+     * @return le nombre de participants
+     */
+    public long getParticipants() { return participants; }
+
+    /**
+     * Retourne le score moyen.
+     *
+     * @return le score moyen
+     */
+    public double getMeanScore() { return meanScore; }
+
+    /**
+     * Retourne le score moyen pondere par les participants.
+     *
+     * @return le score moyen pondere
+     */
+    public double getWeightedMeanScore() { return weightedMeanScore; }
+
+    /**
+     * Retourne le score minimal.
+     *
+     * @return le score minimal
+     */
+    public double getMinScore() { return minScore; }
+
+    /**
+     * Retourne le premier quartile des scores.
+     *
+     * @return le premier quartile
+     */
+    public double getP25Score() { return p25Score; }
+
+    /**
+     * Retourne la mediane des scores.
+     *
+     * @return la mediane
+     */
+    public double getMedianScore() { return medianScore; }
+
+    /**
+     * Retourne le troisieme quartile des scores.
+     *
+     * @return le troisieme quartile
+     */
+    public double getP75Score() { return p75Score; }
+
+    /**
+     * Retourne le neuvieme decile des scores.
+     *
+     * @return le neuvieme decile
+     */
+    public double getP90Score() { return p90Score; }
+
+    /**
+     * Retourne le score maximal.
+     *
+     * @return le score maximal
+     */
+    public double getMaxScore() { return maxScore; }
+
+    /**
+     * Retourne le nombre moyen de trimestres.
+     *
+     * @return le nombre moyen de trimestres
+     */
+    public double getMeanTrimestres() { return meanTrimestres; }
+}
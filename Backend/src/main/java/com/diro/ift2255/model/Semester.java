@@ -0,0 +1,148 @@
+package com.diro.ift2255.model;
+
+/**
+ * Classe representant un trimestre universitaire, par exemple H25.
+ * Elle associe une saison (A pour automne, H pour hiver, E pour ete)
+ * a une annee sur deux chiffres. Une instance est toujours valide :
+ * le texte recu est verifie une seule fois, a l entree de l application.
+ */
+public final class Semester {
+
+    /**
+     * Saison du trimestre en majuscule (A, H ou E).
+     */
+    private final char season;
+
+    /**
+     * Annee du trimestre sur deux chiffres.
+     */
+    private final int year;
+
+    /**
+     * Code normalise du trimestre, par exemple H25.
+     */
+    private final String code;
+
+    private Semester(char season, int year, String code) {
+        this.season = season;
+        this.year = year;
+        this.code = code;
+    }
+
+    /**
+     * Analyse un trimestre au format saison et annee, par exemple A24.
+     * Les espaces autour du texte et la casse sont ignores.
+     *
+     * @param text trimestre a analyser
+     * @return le trimestre
+     * @throws IllegalArgumentException si le trimestre est absent ou invalide
+     */
+    public static Semester parse(String text) {
+
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("semester requis");
+        }
+
+        Semester semester = tryParse(text);
+        if (semester == null) {
+            throw new IllegalArgumentException("Format de trimestre invalide");
+        }
+        return semester;
+    }
+
+    /**
+     * Analyse un trimestre sans lever d exception.
+     *
+     * @param text trimestre a analyser
+     * @return le trimestre, ou null si le texte est invalide
+     */
+    public static Semester tryParse(String text) {
+
+        if (text == null) {
+            return null;
+        }
+
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        if (end - start != 3) {
+            return null;
+        }
+
+        char season = Character.toUpperCase(text.charAt(start));
+        char d1 = text.charAt(start + 1);
+        char d2 = text.charAt(start + 2);
+
+        if ((season != 'A' && season != 'H' && season != 'E')
+                || d1 < '0' || d1 > '9'
+                || d2 < '0' || d2 > '9') {
+            return null;
+        }
+
+        return new Semester(
+                season,
+                (d1 - '0') * 10 + (d2 - '0'),
+                new String(new char[]{season, d1, d2})
+        );
+    }
+
+    /**
+     * Retourne la saison du trimestre.
+     *
+     * @return A, H ou E
+     */
+    public char getSeason() {
+        return season;
+    }
+
+    /**
+     * Retourne l annee du trimestre sur deux chiffres.
+     *
+     * @return l annee
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Retourne le code normalise du trimestre.
+     *
+     * @return le code, par exemple H25
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Retourne le trimestre suivant : l automne est suivi de l hiver de
+     * l annee suivante, l hiver de l ete et l ete de l automne.
+     *
+     * @return le trimestre suivant
+     */
+    public Semester next() {
+        char nextSeason = switch (season) {
+            case 'A' -> 'H';
+            case 'H' -> 'E';
+            default -> 'A';
+        };
+        int nextYear = season == 'A' ? (year + 1) % 100 : year;
+        return new Semester(nextSeason, nextYear, String.format("%c%02d", nextSeason, nextYear));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Semester other && code.equals(other.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -0,0 +1,158 @@
+package com.diro.ift2255.model;
+
+/**
+ * Classe representant le sigle dun cours, par exemple IFT2255.
+ * Un sigle est forme dau moins trois lettres suivies dau plus quatre
+ * chiffres. Une instance est toujours valide et en majuscules.
+ */
+public final class Sigle {
+
+    /**
+     * Nombre maximal de chiffres dun sigle.
+     */
+    private static final int MAX_DIGITS = 4;
+
+    /**
+     * Sigle normalise en majuscules.
+     */
+    private final String code;
+
+    private Sigle(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Analyse un sigle de cours.
+     *
+     * @param text sigle a analyser
+     * @return le sigle
+     * @throws IllegalArgumentException si le sigle est invalide
+     */
+    public static Sigle parse(String text) {
+
+        Sigle sigle = tryParse(text);
+        if (sigle == null) {
+            throw new IllegalArgumentException("Sigle de cours invalide");
+        }
+        return sigle;
+    }
+
+    /**
+     * Analyse un sigle de cours sans lever d exception.
+     *
+     * @param text sigle a analyser
+     * @return le sigle, ou null si le texte est invalide
+     */
+    public static Sigle tryParse(String text) {
+
+        if (text == null) {
+            return null;
+        }
+
+        int n = text.length();
+        int i = 0;
+        boolean lowerCase = false;
+
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                i++;
+            } else if (c >= 'a' && c <= 'z') {
+                lowerCase = true;
+                i++;
+            } else {
+                break;
+            }
+        }
+
+        if (i < 3 || n - i > MAX_DIGITS) {
+            return null;
+        }
+
+        for (; i < n; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+
+        return new Sigle(lowerCase ? text.toUpperCase() : text);
+    }
+
+    /**
+     * Normalise un identifiant de cours saisi ou lu dans une source externe.
+     * Un sigle valide, eventuellement ecrit avec une espace entre les lettres
+     * et les chiffres comme "ift 1015", devient "IFT1015". Tout autre
+     * identifiant est simplement mis en majuscules.
+     *
+     * @param text identifiant brut
+     * @return l identifiant normalise, ou null sil est vide
+     */
+    public static String normalize(String text) {
+
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+
+        String trimmed = text.trim();
+        Sigle sigle = tryParse(trimmed);
+
+        int space = trimmed.indexOf(' ');
+        if (sigle == null && space > 0 && space + 1 < trimmed.length()
+                && Character.isLetter(trimmed.charAt(space - 1))
+                && Character.isDigit(trimmed.charAt(space + 1))) {
+            sigle = tryParse(trimmed.substring(0, space) + trimmed.substring(space + 1));
+        }
+
+        return sigle != null ? sigle.getCode() : trimmed.toUpperCase();
+    }
+
+    /**
+     * Retourne le chiffre des milliers du numero qui termine un identifiant
+     * de cours, qui indique le niveau du cours.
+     *
+     * @param courseId identifiant de cours
+     * @return le chiffre du niveau, ou -1 si l identifiant ne se termine
+     *         pas par quatre chiffres
+     */
+    public static int levelOf(String courseId) {
+
+        if (courseId == null || courseId.length() < MAX_DIGITS) {
+            return -1;
+        }
+
+        int start = courseId.length() - MAX_DIGITS;
+        for (int i = start; i < courseId.length(); i++) {
+            char c = courseId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+
+        return courseId.charAt(start) - '0';
+    }
+
+    /**
+     * Retourne le sigle normalise.
+     *
+     * @return le sigle en majuscules
+     */
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Sigle other && code.equals(other.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
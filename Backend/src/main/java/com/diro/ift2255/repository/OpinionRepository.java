@@ -1,50 +1,397 @@
 package com.diro.ift2255.repository;
 
 import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.model.OpinionSummary;
+import com.diro.ift2255.util.AppendOnlyList;
+import com.diro.ift2255.util.SegmentedLog;
+import com.diro.ift2255.util.TextNormalizer;
+import com.diro.ift2255.util.WorkloadClassifier;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Classe responsable de la gestion des avis en memoire.
+ * Classe responsable de la gestion des avis.
  * Elle permet lajout et la recuperation des avis associes aux cours.
+ *
+ * Les avis sont conserves en memoire dans une liste en ajout seul,
+ * avec des index secondaires par cours, par professeur et par auteur
+ * et un resume des avis par cours, tous lisibles sans verrou.
+ * Lorsquun dossier est fourni, chaque avis est aussi ecrit dans un journal
+ * persistant, relu au demarrage, de sorte que les avis survivent
+ * aux redemarrages.
  */
 public class OpinionRepository {
 
+    /**
+     * Trace des erreurs du journal des avis.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(OpinionRepository.class);
+
+    /**
+     * Taille maximale dun segment du journal, en octets.
+     */
+    private static final long SEGMENT_BYTES =
+            Long.getLong("planifium.opinions.segmentBytes", 64L * 1024 * 1024);
+
+    /**
+     * Intervalle maximal entre deux synchronisations du journal sur le disque.
+     */
+    private static final long FSYNC_INTERVAL_MS =
+            Long.getLong("planifium.opinions.fsyncIntervalMs", 50L);
+
+    /**
+     * Outil de serialisation json des avis.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Instance partagee, ouverte a la premiere utilisation.
+     */
+    private static volatile OpinionRepository shared;
+
     /**
      * Liste des avis stockes en memoire.
      */
-    private final List<Opinion> opinions = new CopyOnWriteArrayList<>();
+    private final AppendOnlyList<Opinion> opinions = new AppendOnlyList<>();
+
+    /**
+     * Index secondaires : avis par code de cours, par professeur et par auteur.
+     */
+    private final Map<String, AppendOnlyList<Opinion>> byCourse = new ConcurrentHashMap<>();
+    private final Map<String, AppendOnlyList<Opinion>> byProfessor = new ConcurrentHashMap<>();
+    private final Map<String, AppendOnlyList<Opinion>> byAuthor = new ConcurrentHashMap<>();
+
+    /**
+     * Resumes des avis par code de cours, remplaces a chaque ajout.
+     */
+    private final Map<String, OpinionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Identifiants des messages deja enregistres.
+     */
+    private final Set<String> messageIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Journal persistant, null pour un depot uniquement en memoire.
+     */
+    private final SegmentedLog log;
+
+    /**
+     * Construit un depot uniquement en memoire.
+     */
+    public OpinionRepository() {
+        this.log = null;
+    }
+
+    /**
+     * Construit un depot persistant et recharge les avis deja enregistres.
+     *
+     * @param dir dossier du journal des avis
+     * @throws RuntimeException si le journal ne peut pas etre ouvert
+     */
+    public OpinionRepository(Path dir) {
+        try {
+            this.log = SegmentedLog.open(dir, SEGMENT_BYTES, FSYNC_INTERVAL_MS);
+
+            List<Opinion> restored = new ArrayList<>(log.size());
+            for (int i = 0; i < log.size(); i++) {
+                restored.add(MAPPER.readValue(log.read(i), Opinion.class));
+            }
+            opinions.addAll(restored);
+            restored.forEach(this::index);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Impossible douvrir le journal des avis " + dir, e);
+        }
+    }
+
+    /**
+     * Retourne le depot partage par les controleurs. Il est persistant
+     * lorsque la propriete planifium.opinions.dir est definie,
+     * et uniquement en memoire sinon.
+     *
+     * @return le depot partage
+     */
+    public static OpinionRepository shared() {
+
+        OpinionRepository repository = shared;
+        if (repository == null) {
+            synchronized (OpinionRepository.class) {
+                repository = shared;
+                if (repository == null) {
+                    String dir = System.getProperty("planifium.opinions.dir");
+                    repository = dir == null || dir.isBlank()
+                            ? new OpinionRepository()
+                            : new OpinionRepository(Path.of(dir));
+                    repository.closeOnShutdown();
+                    shared = repository;
+                }
+            }
+        }
+        return repository;
+    }
 
     /**
      * Ajoute un avis a la liste des avis.
      *
      * @param opinion avis a ajouter
+     * @throws RuntimeException si l avis ne peut pas etre enregistre
      */
     public void add(Opinion opinion) {
-        opinions.add(opinion);
+        addAll(List.of(opinion));
+    }
+
+    /**
+     * Ajoute plusieurs avis en une seule ecriture du journal.
+     *
+     * @param batch avis a ajouter
+     * @throws RuntimeException si les avis ne peuvent pas etre enregistres
+     */
+    public synchronized void addAll(List<Opinion> batch) {
+
+        if (log != null) {
+            try {
+                List<byte[]> records = new ArrayList<>(batch.size());
+                for (Opinion o : batch) {
+                    records.add(MAPPER.writeValueAsBytes(o));
+                }
+                log.appendAll(records);
+            } catch (IOException e) {
+                throw new RuntimeException("Erreur lors de l enregistrement des avis", e);
+            }
+        }
+
+        opinions.addAll(batch);
+        batch.forEach(this::index);
+    }
+
+    /**
+     * Ajoute les avis dont l identifiant de message nest pas deja connu,
+     * en une seule ecriture du journal. Les avis sans identifiant de message
+     * sont toujours ajoutes.
+     *
+     * @param batch avis a ajouter
+     * @return le nombre davis ajoutes
+     * @throws RuntimeException si les avis ne peuvent pas etre enregistres
+     */
+    public synchronized int addAllIfAbsent(List<Opinion> batch) {
+
+        List<Opinion> fresh = new ArrayList<>(batch.size());
+        Set<String> batchIds = new HashSet<>();
+
+        for (Opinion o : batch) {
+            String id = messageKey(o.getMessage_id());
+            if (id == null || (!messageIds.contains(id) && batchIds.add(id))) {
+                fresh.add(o);
+            }
+        }
+
+        if (!fresh.isEmpty()) {
+            addAll(fresh);
+        }
+        return fresh.size();
+    }
+
+    /**
+     * Indique si un message est deja enregistre.
+     *
+     * @param messageId identifiant du message
+     * @return vrai si un avis porte deja cet identifiant
+     */
+    public boolean containsMessage(String messageId) {
+        String id = messageKey(messageId);
+        return id != null && messageIds.contains(id);
+    }
+
+    /**
+     * Ajoute un avis aux index secondaires.
+     *
+     * @param opinion avis a indexer
+     */
+    private void index(Opinion opinion) {
+        String messageId = messageKey(opinion.getMessage_id());
+        if (messageId != null) {
+            messageIds.add(messageId);
+        }
+
+        String course = courseKey(opinion.getCourse_code());
+        if (course != null) {
+            int workload = WorkloadClassifier.classify(opinion.getText());
+            summaries.compute(course, (k, current) ->
+                    (current == null ? OpinionSummary.empty(k) : current).with(workload));
+        }
+        index(byCourse, courseKey(opinion.getCourse_code()), opinion);
+        index(byProfessor, professorKey(opinion.getProfessor_name()), opinion);
+        index(byAuthor, authorKey(opinion.getAuthor_id()), opinion);
+    }
+
+    /**
+     * Ajoute un avis a la liste dune cle dun index.
+     *
+     * @param index index a completer
+     * @param key cle normalisee, ou null si l avis nen a pas
+     * @param opinion avis a ajouter
+     */
+    private static void index(Map<String, AppendOnlyList<Opinion>> index, String key, Opinion opinion) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new AppendOnlyList<>()).add(opinion);
+        }
+    }
+
+    /**
+     * Retourne les avis dune cle dun index.
+     *
+     * @param index index consulte
+     * @param key cle normalisee
+     * @return une vue immuable des avis, vide si la cle est absente
+     */
+    private static List<Opinion> lookup(Map<String, AppendOnlyList<Opinion>> index, String key) {
+        if (key == null) {
+            return List.of();
+        }
+        AppendOnlyList<Opinion> list = index.get(key);
+        return list == null ? List.of() : list.snapshot();
     }
 
     /**
      * Retourne la liste complete des avis.
      *
-     * @return la liste des avis
+     * @return une vue immuable des avis presents au moment de l appel
      */
     public List<Opinion> findAll() {
-        return opinions;
+        return opinions.snapshot();
     }
 
     /**
      * Retourne la liste des avis associes a un code de cours.
      *
      * @param courseCode code du cours
-     * @return la liste des avis associes au cours
+     * @return une vue immuable des avis associes au cours
      */
     public List<Opinion> findByCourseCode(String courseCode) {
-        return opinions.stream()
-                .filter(o -> o.getCourse_code() != null
-                        && o.getCourse_code().equalsIgnoreCase(courseCode))
-                .collect(Collectors.toList());
+        return lookup(byCourse, courseKey(courseCode));
+    }
+
+    /**
+     * Retourne la liste des avis associes a un professeur.
+     * La casse et les accents du nom sont ignores.
+     *
+     * @param professorName nom du professeur
+     * @return une vue immuable des avis associes au professeur
+     */
+    public List<Opinion> findByProfessor(String professorName) {
+        return lookup(byProfessor, professorKey(professorName));
+    }
+
+    /**
+     * Retourne la liste des avis publies par un auteur.
+     *
+     * @param authorId identifiant de l auteur
+     * @return une vue immuable des avis de l auteur
+     */
+    public List<Opinion> findByAuthor(String authorId) {
+        return lookup(byAuthor, authorKey(authorId));
+    }
+
+    /**
+     * Retourne le resume des avis dun cours.
+     *
+     * @param courseCode code du cours
+     * @return le resume, vide si le cours na aucun avis
+     */
+    public OpinionSummary summary(String courseCode) {
+        String key = courseKey(courseCode);
+        OpinionSummary summary = key == null ? null : summaries.get(key);
+        return summary != null ? summary : OpinionSummary.empty(key);
+    }
+
+    /**
+     * Retourne les resumes de tous les cours ayant des avis.
+     *
+     * @return les resumes tries par code de cours
+     */
+    public List<OpinionSummary> summaries() {
+        return summaries.values().stream()
+                .sorted(Comparator.comparing(OpinionSummary::getCourseCode))
+                .toList();
+    }
+
+    /**
+     * Normalise un code de cours pour l index.
+     *
+     * @param courseCode code du cours
+     * @return la cle, ou null si le code est absent
+     */
+    public static String courseKey(String courseCode) {
+        return courseCode == null || courseCode.isBlank()
+                ? null
+                : courseCode.trim().toUpperCase();
+    }
+
+    /**
+     * Normalise un nom de professeur pour l index.
+     *
+     * @param professorName nom du professeur
+     * @return la cle, ou null si le nom est absent
+     */
+    public static String professorKey(String professorName) {
+        return professorName == null || professorName.isBlank()
+                ? null
+                : TextNormalizer.fold(professorName.trim());
+    }
+
+    /**
+     * Normalise un identifiant dauteur pour l index.
+     *
+     * @param authorId identifiant de l auteur
+     * @return la cle, ou null si l identifiant est absent
+     */
+    public static String authorKey(String authorId) {
+        return authorId == null || authorId.isBlank() ? null : authorId.trim();
+    }
+
+    /**
+     * Normalise un identifiant de message.
+     *
+     * @param messageId identifiant du message
+     * @return la cle, ou null si l identifiant est absent
+     */
+    private static String messageKey(String messageId) {
+        return messageId == null || messageId.isBlank() ? null : messageId.trim();
+    }
+
+    /**
+     * Force les ecritures en attente du journal et le ferme.
+     */
+    public void close() {
+        if (log != null) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                LOG.error("Fermeture du journal des avis impossible", e);
+            }
+        }
+    }
+
+    /**
+     * Ferme le journal a l arret de la machine virtuelle.
+     */
+    private void closeOnShutdown() {
+        if (log != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "opinions-close"));
+        }
     }
 }
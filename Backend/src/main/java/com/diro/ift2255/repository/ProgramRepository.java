@@ -0,0 +1,117 @@
+package com.diro.ift2255.repository;
+
+import com.diro.ift2255.model.Sigle;
+import com.diro.ift2255.util.CsvReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe responsable du chargement local des programmes.
+ * Elle lit le fichier programs.csv des ressources, qui associe chaque
+ * programme a ses cours, et conserve le resultat en memoire.
+ * Les programmes sont identifies par les codes du fichier, par exemple IFT,
+ * et non par les identifiants numeriques de l api externe.
+ */
+public class ProgramRepository {
+
+    /**
+     * Chemin du fichier csv dans les ressources.
+     */
+    private static final String RESOURCE = "data/programs.csv";
+
+    /**
+     * Sigles des cours par identifiant de programme, charges a la premiere utilisation.
+     */
+    private volatile Map<String, List<String>> coursesByProgram;
+
+    /**
+     * Retourne les sigles des cours dun programme.
+     *
+     * @param programId code du programme dans le fichier, par exemple IFT
+     * @return la liste des sigles, vide si le programme est inconnu
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    public List<String> findCourseIds(String programId) {
+        if (programId == null) {
+            return List.of();
+        }
+        return loadAll().getOrDefault(programId.trim().toUpperCase(), List.of());
+    }
+
+    /**
+     * Retourne les codes de tous les programmes du fichier.
+     *
+     * @return les codes dans l ordre du fichier
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    public List<String> findProgramIds() {
+        return List.copyOf(loadAll().keySet());
+    }
+
+    /**
+     * Charge les programmes une seule fois.
+     *
+     * @return les sigles des cours par programme
+     */
+    private Map<String, List<String>> loadAll() {
+
+        Map<String, List<String>> loaded = coursesByProgram;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = coursesByProgram;
+                if (loaded == null) {
+                    loaded = load();
+                    coursesByProgram = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Lit le fichier csv des programmes.
+     *
+     * @return les sigles des cours par programme
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    private Map<String, List<String>> load() {
+
+        InputStream is = ProgramRepository.class
+                .getClassLoader()
+                .getResourceAsStream(RESOURCE);
+
+        if (is == null) {
+            throw new RuntimeException("programs.csv introuvable");
+        }
+
+        try {
+            CsvReader csv = CsvReader.read(is);
+            csv.readHeader();
+
+            int program = csv.column("program_id");
+            int course = csv.column("course_sigle");
+
+            Map<String, List<String>> result = new LinkedHashMap<>();
+
+            while (csv.next()) {
+                if (csv.isEmpty(program) || csv.isEmpty(course)) continue;
+
+                result.computeIfAbsent(csv.getString(program).toUpperCase(), k -> new ArrayList<>())
+                        .add(Sigle.normalize(csv.getString(course)));
+            }
+
+            result.replaceAll((k, v) -> List.copyOf(v));
+            return Collections.unmodifiableMap(result);
+
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors du chargement du fichier CSV", e);
+        }
+    }
+}
@@ -1,72 +1,383 @@
 package com.diro.ift2255.repository;
 
 import com.diro.ift2255.model.AcademicResult;
+import com.diro.ift2255.util.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Classe responsable du chargement des resultats academiques.
- * Elle lit les donnees a partir dun fichier csv contenu dans les ressources.
+ * Elle lit les donnees a partir dun fichier csv contenu dans les ressources
+ * une seule fois, puis les conserve dans un index immuable par sigle.
+ * Lorsque le fichier est accessible sur le disque, il est recharge
+ * automatiquement des que sa date de modification change.
  */
 public class ResultRepository {
 
     /**
-     * Expression reguliere utilisee pour separer les colonnes du fichier csv.
+     * Trace des rechargements en echec ; l instantane precedent reste servi.
      */
-    private static final String CSV_SPLIT_REGEX =
-            ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+    private static final Logger LOG = LoggerFactory.getLogger(ResultRepository.class);
+
+    /**
+     * Chemin du fichier csv dans les ressources.
+     */
+    private static final String RESOURCE = "data/results.csv";
+
+    /**
+     * Intervalle minimal entre deux verifications de la date de modification,
+     * en millisecondes. Une valeur nulle ou negative desactive le rechargement.
+     */
+    private static final long RELOAD_CHECK_MS =
+            Long.getLong("planifium.results.reloadCheckMs", 5000L);
+
+    /**
+     * Instance partagee par tous les services.
+     */
+    private static final ResultRepository SHARED = new ResultRepository();
+
+    /**
+     * Fichier sur le disque, ou null si les donnees ne sont lisibles
+     * que depuis le classpath (par exemple dans un jar).
+     */
+    private final Path file;
+
+    /**
+     * Intervalle entre deux verifications du fichier, en millisecondes.
+     */
+    private final long reloadCheckMs;
+
+    /**
+     * Instantane courant, null tant que le premier chargement na pas eu lieu.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Date de modification du fichier lors du dernier chargement.
+     */
+    private volatile long loadedModified;
+
+    /**
+     * Instant a partir duquel le fichier doit etre verifie de nouveau.
+     */
+    private volatile long nextCheckAt;
+
+    /**
+     * Construit un depot lisant le fichier des ressources.
+     * Le fichier peut etre remplace par la propriete planifium.results.file.
+     */
+    public ResultRepository() {
+        this(resolveFile(), RELOAD_CHECK_MS);
+    }
+
+    /**
+     * Construit un depot lisant un fichier du disque.
+     *
+     * @param file fichier csv a lire, ou null pour les ressources
+     * @param reloadCheckMs intervalle entre deux verifications du fichier
+     */
+    public ResultRepository(Path file, long reloadCheckMs) {
+        this.file = file;
+        this.reloadCheckMs = reloadCheckMs;
+    }
+
+    /**
+     * Retourne le depot partage.
+     *
+     * @return l instance partagee
+     */
+    public static ResultRepository shared() {
+        return SHARED;
+    }
 
     /**
      * Charge lensemble des resultats academiques depuis le fichier csv.
      *
-     * @return la liste des resultats academiques
+     * @return la liste immuable des resultats academiques
      * @throws RuntimeException si une erreur survient lors du chargement
      */
     public List<AcademicResult> loadAll() {
+        return snapshot().results;
+    }
 
-        List<AcademicResult> results = new ArrayList<>();
+    /**
+     * Recherche le resultat dun cours sans tenir compte de la casse du sigle.
+     *
+     * @param sigle sigle du cours
+     * @return le resultat du cours, ou null sil est absent
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    public AcademicResult findBySigle(String sigle) {
+        if (sigle == null) {
+            return null;
+        }
+        return snapshot().index.get(sigle);
+    }
 
-        try {
-            InputStream is = getClass()
-                    .getClassLoader()
-                    .getResourceAsStream("data/results.csv");
+    /**
+     * Retourne les resultats sous forme de colonnes pour les agregations.
+     *
+     * @return la table des resultats
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    public ResultTable table() {
+        return snapshot().table;
+    }
 
-            if (is == null) {
-                throw new RuntimeException("results.csv introuvable");
-            }
+    /**
+     * Retourne l instantane courant, en le chargant ou en le rechargeant
+     * si necessaire.
+     *
+     * @return l instantane courant
+     */
+    private Snapshot snapshot() {
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+        Snapshot current = snapshot;
 
-            String line = reader.readLine();
+        if (current == null) {
+            return loadFirst();
+        }
 
-            while ((line = reader.readLine()) != null) {
+        if (file != null && reloadCheckMs > 0 && System.currentTimeMillis() >= nextCheckAt) {
+            reloadIfModified();
+        }
 
-                String[] parts = line.split(CSV_SPLIT_REGEX);
+        return snapshot;
+    }
 
-                for (int i = 0; i < parts.length; i++) {
-                    parts[i] = parts[i].replaceAll("^\"|\"$", "").trim();
-                }
+    /**
+     * Effectue le premier chargement une seule fois.
+     *
+     * @return l instantane charge
+     */
+    private synchronized Snapshot loadFirst() {
+
+        if (snapshot == null) {
+            long modified = lastModified();
+            snapshot = load();
+            loadedModified = modified;
+            nextCheckAt = System.currentTimeMillis() + reloadCheckMs;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Recharge le fichier si sa date de modification a change.
+     * En cas d erreur, l instantane precedent est conserve.
+     */
+    private synchronized void reloadIfModified() {
+
+        long now = System.currentTimeMillis();
+        if (now < nextCheckAt) {
+            return;
+        }
+        nextCheckAt = now + reloadCheckMs;
+
+        long modified = lastModified();
+        if (modified == loadedModified) {
+            return;
+        }
 
-                AcademicResult result = new AcademicResult(
-                        parts[0],
-                        parts[1],
-                        parts[2],
-                        Double.parseDouble(parts[3]),
-                        Integer.parseInt(parts[4]),
-                        Integer.parseInt(parts[5])
-                );
+        try {
+            snapshot = load();
+            loadedModified = modified;
+        } catch (RuntimeException e) {
+            LOG.warn("Rechargement de results.csv impossible", e);
+        }
+    }
+
+    /**
+     * Retourne la date de modification du fichier.
+     *
+     * @return la date en millisecondes, ou 0 si elle est inconnue
+     */
+    private long lastModified() {
+        if (file == null) {
+            return 0;
+        }
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Lit le fichier csv et construit un nouvel instantane.
+     *
+     * @return l instantane construit
+     * @throws RuntimeException si une erreur survient lors du chargement
+     */
+    private Snapshot load() {
+
+        try {
+            CsvReader csv = open();
+            csv.readHeader();
 
-                results.add(result);
+            int sigle = csv.column("sigle");
+            int nom = csv.column("nom");
+            int moyenne = csv.column("moyenne");
+            int score = csv.column("score");
+            int participants = csv.column("participants");
+            int trimestres = csv.column("trimestres");
+
+            List<AcademicResult> results = new ArrayList<>();
+
+            while (csv.next()) {
+                results.add(new AcademicResult(
+                        csv.getString(sigle),
+                        csv.getString(nom),
+                        csv.getString(moyenne),
+                        csv.getDouble(score),
+                        csv.getInt(participants),
+                        csv.getInt(trimestres)
+                ));
             }
 
-            return results;
+            return new Snapshot(Collections.unmodifiableList(results));
 
+        } catch (RuntimeException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors du chargement du fichier CSV", e);
         }
     }
+
+    /**
+     * Ouvre le fichier csv sur le disque ou dans les ressources.
+     *
+     * @return le lecteur du fichier
+     * @throws IOException si le fichier ne peut pas etre lu
+     */
+    private CsvReader open() throws IOException {
+
+        if (file != null) {
+            return CsvReader.open(file);
+        }
+
+        InputStream is = ResultRepository.class
+                .getClassLoader()
+                .getResourceAsStream(RESOURCE);
+
+        if (is == null) {
+            throw new RuntimeException("results.csv introuvable");
+        }
+
+        return CsvReader.read(is);
+    }
+
+    /**
+     * Determine le fichier a surveiller : celui de la propriete
+     * planifium.results.file, sinon la ressource si elle est sur le disque.
+     *
+     * @return le fichier, ou null si la ressource est dans une archive
+     */
+    private static Path resolveFile() {
+
+        String configured = System.getProperty("planifium.results.file");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+
+        URL url = ResultRepository.class.getClassLoader().getResource(RESOURCE);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+
+        try {
+            return Path.of(url.toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Instantane immuable des resultats, de leur index par sigle
+     * et de leur representation en colonnes.
+     */
+    private static final class Snapshot {
+
+        private final List<AcademicResult> results;
+        private final SigleIndex index;
+        private final ResultTable table;
+
+        Snapshot(List<AcademicResult> results) {
+            this.results = results;
+            this.index = new SigleIndex(results);
+            this.table = new ResultTable(results);
+        }
+    }
+
+    /**
+     * Table de hachage a adressage ouvert dont les cles sont comparees
+     * sans tenir compte de la casse. Une recherche ne cree aucun objet.
+     */
+    private static final class SigleIndex {
+
+        private final String[] keys;
+        private final AcademicResult[] values;
+        private final int mask;
+
+        SigleIndex(List<AcademicResult> results) {
+
+            int capacity = Integer.highestOneBit(Math.max(4, results.size() * 2) - 1) << 1;
+            this.keys = new String[capacity];
+            this.values = new AcademicResult[capacity];
+            this.mask = capacity - 1;
+
+            for (AcademicResult r : results) {
+                if (r.getSigle() == null) continue;
+
+                int i = hash(r.getSigle()) & mask;
+                while (keys[i] != null && !keys[i].equalsIgnoreCase(r.getSigle())) {
+                    i = (i + 1) & mask;
+                }
+                if (keys[i] == null) {
+                    keys[i] = r.getSigle();
+                    values[i] = r;
+                }
+            }
+        }
+
+        /**
+         * Retourne le premier resultat dont le sigle correspond a la cle.
+         *
+         * @param key sigle recherche
+         * @return le resultat, ou null sil est absent
+         */
+        AcademicResult get(String key) {
+
+            int i = hash(key) & mask;
+            while (keys[i] != null) {
+                if (keys[i].equalsIgnoreCase(key)) {
+                    return values[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Calcule un hachage insensible a la casse, coherent avec equalsIgnoreCase.
+         *
+         * @param s texte a hacher
+         * @return le hachage
+         */
+        private static int hash(String s) {
+            int h = 0;
+            for (int i = 0; i < s.length(); i++) {
+                h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+            }
+            return h ^ (h >>> 16);
+        }
+    }
 }
@@ -0,0 +1,252 @@
+package com.diro.ift2255.repository;
+
+import com.diro.ift2255.model.AcademicResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Representation en colonnes des resultats academiques, destinee aux
+ * agregations. Chaque colonne est un tableau primitif et le departement
+ * (prefixe alphabetique du sigle) est encode par dictionnaire.
+ *
+ * Les lignes sont triees par departement puis par score croissant :
+ * chaque departement occupe une plage contigue dont les scores sont
+ * deja tries, ce qui permet de calculer les centiles sans tri. Un ordre
+ * global par score est aussi conserve pour les statistiques de toute la table.
+ */
+public final class ResultTable {
+
+    /**
+     * Departements distincts tries, indexes par leur code.
+     */
+    private final String[] departments;
+
+    /**
+     * Debut de la plage de chaque departement ; la derniere case vaut le nombre de lignes.
+     */
+    private final int[] departmentStart;
+
+    /**
+     * Sigle de chaque ligne.
+     */
+    private final String[] sigles;
+
+    /**
+     * Code du departement de chaque ligne.
+     */
+    private final int[] department;
+
+    /**
+     * Score de chaque ligne.
+     */
+    private final double[] score;
+
+    /**
+     * Nombre de participants de chaque ligne.
+     */
+    private final int[] participants;
+
+    /**
+     * Nombre de trimestres de chaque ligne.
+     */
+    private final int[] trimestres;
+
+    /**
+     * Lignes de toute la table triees par score croissant.
+     */
+    private final int[] rowsByScore;
+
+    /**
+     * Construit la table a partir des resultats.
+     *
+     * @param results resultats academiques
+     */
+    ResultTable(List<AcademicResult> results) {
+
+        int n = results.size();
+
+        TreeSet<String> names = new TreeSet<>();
+        String[] rowDepartment = new String[n];
+        for (int i = 0; i < n; i++) {
+            rowDepartment[i] = departmentOf(results.get(i).getSigle());
+            names.add(rowDepartment[i]);
+        }
+        this.departments = names.toArray(new String[0]);
+
+        Integer[] order = new Integer[n];
+        int[] code = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            code[i] = Arrays.binarySearch(departments, rowDepartment[i]);
+        }
+        Arrays.sort(order, (a, b) -> code[a] != code[b]
+                ? Integer.compare(code[a], code[b])
+                : Double.compare(results.get(a).getScore(), results.get(b).getScore()));
+
+        this.sigles = new String[n];
+        this.department = new int[n];
+        this.score = new double[n];
+        this.participants = new int[n];
+        this.trimestres = new int[n];
+        this.departmentStart = new int[departments.length + 1];
+
+        for (int row = 0; row < n; row++) {
+            AcademicResult r = results.get(order[row]);
+            sigles[row] = r.getSigle();
+            department[row] = code[order[row]];
+            score[row] = r.getScore();
+            participants[row] = r.getParticipants();
+            trimestres[row] = r.getTrimestres();
+            departmentStart[department[row] + 1]++;
+        }
+
+        for (int d = 0; d < departments.length; d++) {
+            departmentStart[d + 1] += departmentStart[d];
+        }
+
+        this.rowsByScore = IntStream.range(0, n)
+                .boxed()
+                .sorted((a, b) -> Double.compare(score[a], score[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Retourne le departement dun sigle, soit ses lettres initiales en majuscules.
+     *
+     * @param sigle sigle du cours
+     * @return le departement, vide si le sigle ne commence pas par une lettre
+     */
+    public static String departmentOf(String sigle) {
+        if (sigle == null) {
+            return "";
+        }
+        int end = 0;
+        while (end < sigle.length() && Character.isLetter(sigle.charAt(end))) {
+            end++;
+        }
+        return sigle.substring(0, end).toUpperCase();
+    }
+
+    /**
+     * Retourne le nombre de lignes.
+     *
+     * @return le nombre de lignes
+     */
+    public int size() {
+        return score.length;
+    }
+
+    /**
+     * Retourne le nombre de departements distincts.
+     *
+     * @return le nombre de departements
+     */
+    public int departmentCount() {
+        return departments.length;
+    }
+
+    /**
+     * Retourne le nom dun departement.
+     *
+     * @param code code du departement
+     * @return le nom du departement
+     */
+    public String departmentName(int code) {
+        return departments[code];
+    }
+
+    /**
+     * Retourne le code dun departement.
+     *
+     * @param name nom du departement
+     * @return le code, ou -1 si le departement est absent
+     */
+    public int departmentCode(String name) {
+        int i = Arrays.binarySearch(departments, name.toUpperCase());
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * Retourne la premiere ligne dun departement.
+     *
+     * @param code code du departement
+     * @return la position de la premiere ligne
+     */
+    public int departmentStart(int code) {
+        return departmentStart[code];
+    }
+
+    /**
+     * Retourne la position suivant la derniere ligne dun departement.
+     *
+     * @param code code du departement
+     * @return la position de fin exclusive
+     */
+    public int departmentEnd(int code) {
+        return departmentStart[code + 1];
+    }
+
+    /**
+     * Retourne la ligne occupant un rang donne dans l ordre global des scores.
+     *
+     * @param rank rang, du score le plus faible au plus eleve
+     * @return la position de la ligne
+     */
+    public int rowByScore(int rank) {
+        return rowsByScore[rank];
+    }
+
+    /**
+     * Retourne le sigle dune ligne.
+     *
+     * @param row position de la ligne
+     * @return le sigle
+     */
+    public String sigle(int row) {
+        return sigles[row];
+    }
+
+    /**
+     * Retourne le code du departement dune ligne.
+     *
+     * @param row position de la ligne
+     * @return le code du departement
+     */
+    public int department(int row) {
+        return department[row];
+    }
+
+    /**
+     * Retourne le score dune ligne.
+     *
+     * @param row position de la ligne
+     * @return le score
+     */
+    public double score(int row) {
+        return score[row];
+    }
+
+    /**
+     * Retourne le nombre de participants dune ligne.
+     *
+     * @param row position de la ligne
+     * @return le nombre de participants
+     */
+    public int participants(int row) {
+        return participants[row];
+    }
+
+    /**
+     * Retourne le nombre de trimestres dune ligne.
+     *
+     * @param row position de la ligne
+     * @return le nombre de trimestres
+     */
+    public int trimestres(int row) {
+        return trimestres[row];
+    }
+}
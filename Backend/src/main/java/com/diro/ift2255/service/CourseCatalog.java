@@ -0,0 +1,165 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.CourseDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Classe conservant un instantane local du catalogue de cours.
+ * L instantane est recharge periodiquement en arriere-plan depuis l api externe
+ * et remplace de maniere atomique, de sorte que les lectures ne sont jamais bloquees.
+ */
+public class CourseCatalog {
+
+    /**
+     * Trace des anomalies du catalogue et des rechargements en echec.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(CourseCatalog.class);
+
+    /**
+     * Intervalle entre deux rechargements du catalogue, en minutes.
+     */
+    private static final long REFRESH_MINUTES =
+            Long.getLong("planifium.catalog.refreshMinutes", 60L);
+
+    /**
+     * Instance partagee par tous les services.
+     */
+    private static final CourseCatalog SHARED =
+            new CourseCatalog(() -> new CourseService().fetchCatalog());
+
+    /**
+     * Fonction de chargement du catalogue complet.
+     */
+    private final Supplier<List<CourseDetails>> loader;
+
+    /**
+     * Index de l instantane courant, null tant que le premier chargement na pas reussi.
+     */
+    private volatile CourseCatalogIndex index;
+
+    /**
+     * Date du dernier chargement reussi.
+     */
+    private volatile Instant loadedAt;
+
+    /**
+     * Fonctions appelees apres chaque remplacement de l instantane, avec
+     * l ancien index, null au premier chargement, et le nouvel index.
+     */
+    private final List<BiConsumer<CourseCatalogIndex, CourseCatalogIndex>> refreshListeners =
+            new CopyOnWriteArrayList<>();
+
+    /**
+     * Planificateur du rechargement en arriere-plan.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Construit un catalogue avec une fonction de chargement.
+     *
+     * @param loader fonction retournant le catalogue complet
+     */
+    public CourseCatalog(Supplier<List<CourseDetails>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Retourne le catalogue partage.
+     *
+     * @return le catalogue partage
+     */
+    public static CourseCatalog shared() {
+        return SHARED;
+    }
+
+    /**
+     * Retourne l index de l instantane courant.
+     *
+     * @return l index ou null si le catalogue nest pas encore charge
+     */
+    public CourseCatalogIndex index() {
+        return index;
+    }
+
+    /**
+     * Retourne la date du dernier chargement reussi.
+     *
+     * @return la date du chargement ou null
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Ajoute une fonction appelee apres chaque remplacement de l instantane.
+     *
+     * @param listener fonction recevant l ancien et le nouvel index
+     */
+    public void addRefreshListener(BiConsumer<CourseCatalogIndex, CourseCatalogIndex> listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * Recharge le catalogue et remplace l instantane courant.
+     * En cas dechec, l instantane precedent est conserve.
+     *
+     * @return vrai si le rechargement a reussi
+     */
+    public boolean refresh() {
+        try {
+            List<CourseDetails> courses = loader.get();
+            if (courses == null || courses.isEmpty()) {
+                return false;
+            }
+            CourseCatalogIndex built = CourseCatalogIndex.build(courses);
+            List<String> cyclic = built.prerequisites().getCyclicCourses();
+            if (!cyclic.isEmpty()) {
+                LOG.warn("Prerequis circulaires dans le catalogue : {}", cyclic);
+            }
+            CourseCatalogIndex previous = index;
+            index = built;
+            loadedAt = Instant.now();
+            for (BiConsumer<CourseCatalogIndex, CourseCatalogIndex> listener : refreshListeners) {
+                listener.accept(previous, built);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOG.error("Rechargement du catalogue impossible", e);
+            return false;
+        }
+    }
+
+    /**
+     * Demarre le rechargement periodique du catalogue en arriere-plan.
+     * Le premier chargement est lance immediatement.
+     */
+    public synchronized void startBackgroundRefresh() {
+
+        if (scheduler != null) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+                this::refresh,
+                0,
+                REFRESH_MINUTES,
+                TimeUnit.MINUTES
+        );
+    }
+}
@@ -0,0 +1,306 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.Course;
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.CourseSearchResult;
+import com.diro.ift2255.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index immuable dun instantane du catalogue de cours.
+ * Il contient un index trie des sigles pour les recherches par prefixe,
+ * des index inverses sur les jetons des noms et des descriptions,
+ * un moteur de recherche plein texte classe par pertinence
+ * et le graphe des prerequis.
+ */
+public class CourseCatalogIndex {
+
+    /**
+     * Compteur des index construits, utilise pour numeroter les instantanes.
+     */
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    /**
+     * Numero de l instantane, croissant dun index construit au suivant.
+     */
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    /**
+     * Cours du catalogue tries par sigle.
+     */
+    private final CourseDetails[] courses;
+
+    /**
+     * Sigles en majuscules dans le meme ordre que les cours.
+     */
+    private final String[] ids;
+
+    /**
+     * Index inverse des jetons des noms de cours.
+     */
+    private final TokenIndex nameIndex;
+
+    /**
+     * Index inverse des jetons des descriptions de cours.
+     */
+    private final TokenIndex descriptionIndex;
+
+    /**
+     * Moteur de recherche plein texte sur les memes cours.
+     */
+    private final CourseSearchEngine searchEngine;
+
+    /**
+     * Graphe des prerequis des memes cours.
+     */
+    private final PrerequisiteGraph prerequisites;
+
+    /**
+     * Construit l index a partir des cours deja tries.
+     *
+     * @param courses cours tries par sigle
+     */
+    private CourseCatalogIndex(CourseDetails[] courses) {
+        this.courses = courses;
+        this.ids = new String[courses.length];
+        for (int i = 0; i < courses.length; i++) {
+            ids[i] = courses[i].getId().toUpperCase();
+        }
+        this.nameIndex = TokenIndex.build(courses, true);
+        this.descriptionIndex = TokenIndex.build(courses, false);
+        this.searchEngine = new CourseSearchEngine(courses);
+        this.prerequisites = PrerequisiteGraph.build(Arrays.asList(courses));
+    }
+
+    /**
+     * Construit un index a partir dune collection de cours.
+     * Les cours sans sigle sont ignores et un seul cours est conserve par sigle.
+     *
+     * @param catalog cours du catalogue
+     * @return l index construit
+     */
+    public static CourseCatalogIndex build(Collection<CourseDetails> catalog) {
+
+        Map<String, CourseDetails> bySigle = new HashMap<>();
+        for (CourseDetails d : catalog) {
+            if (d.getId() != null && !d.getId().isBlank()) {
+                bySigle.putIfAbsent(d.getId().toUpperCase(), d);
+            }
+        }
+
+        CourseDetails[] sorted = bySigle.values().toArray(new CourseDetails[0]);
+        Arrays.sort(sorted, Comparator.comparing(d -> d.getId().toUpperCase()));
+
+        return new CourseCatalogIndex(sorted);
+    }
+
+    /**
+     * Retourne le numero de l instantane. Il permet de reconnaitre un
+     * instantane sans conserver de reference vers son index.
+     *
+     * @return le numero, superieur a zero
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Retourne le nombre de cours indexes.
+     *
+     * @return le nombre de cours
+     */
+    public int size() {
+        return courses.length;
+    }
+
+    /**
+     * Retourne les details dun cours a partir de son sigle.
+     *
+     * @param sigle sigle du cours
+     * @return les details du cours ou null sil est absent
+     */
+    public CourseDetails get(String sigle) {
+        if (sigle == null) {
+            return null;
+        }
+        int i = Arrays.binarySearch(ids, sigle.trim().toUpperCase());
+        return i >= 0 ? courses[i] : null;
+    }
+
+    /**
+     * Retourne tous les cours indexes tries par sigle.
+     *
+     * @return la liste des cours
+     */
+    public List<CourseDetails> all() {
+        return List.of(courses);
+    }
+
+    /**
+     * Retourne le graphe des prerequis des cours indexes.
+     *
+     * @return le graphe des prerequis
+     */
+    public PrerequisiteGraph prerequisites() {
+        return prerequisites;
+    }
+
+    /**
+     * Recherche les cours les plus pertinents pour une requete libre.
+     *
+     * @param query texte recherche
+     * @param limit nombre maximal de resultats
+     * @return les cours classes par pertinence
+     */
+    public List<CourseSearchResult> rank(String query, int limit) {
+        return searchEngine.search(query, limit);
+    }
+
+    /**
+     * Recherche les cours correspondant a tous les criteres fournis.
+     * Le sigle est compare par prefixe et chaque mot du nom ou de la
+     * description doit etre le debut dun mot du champ correspondant,
+     * sans tenir compte de la casse ni des accents.
+     *
+     * @param siglePartial debut du sigle, ou null
+     * @param name mots recherches dans le nom, ou null
+     * @param description mots recherches dans la description, ou null
+     * @return la liste des cours trouves, tries par sigle
+     */
+    public List<Course> search(String siglePartial, String name, String description) {
+
+        BitSet matches = new BitSet(courses.length);
+        matches.set(0, courses.length);
+
+        if (siglePartial != null && !siglePartial.isBlank()) {
+            String prefix = siglePartial.trim().toUpperCase();
+            int from = lowerBound(ids, prefix);
+            int to = from;
+            while (to < ids.length && ids[to].startsWith(prefix)) {
+                to++;
+            }
+            matches.clear(0, from);
+            matches.clear(to, courses.length);
+        }
+
+        if (name != null && !name.isBlank()) {
+            nameIndex.retainMatching(TextNormalizer.tokens(name), matches);
+        }
+
+        if (description != null && !description.isBlank()) {
+            descriptionIndex.retainMatching(TextNormalizer.tokens(description), matches);
+        }
+
+        List<Course> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            CourseDetails d = courses[i];
+            result.add(new Course(d.getId(), d.getName(), d.getCredits()));
+        }
+        return result;
+    }
+
+    /**
+     * Retourne la premiere position dont la valeur est superieure ou egale a la cle.
+     *
+     * @param sorted tableau trie
+     * @param key cle recherchee
+     * @return la position d insertion de la cle
+     */
+    private static int lowerBound(String[] sorted, String key) {
+        int i = Arrays.binarySearch(sorted, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Index inverse des jetons dun champ texte.
+     * Les jetons sont tries pour permettre les recherches par prefixe.
+     */
+    private static final class TokenIndex {
+
+        /**
+         * Jetons distincts tries.
+         */
+        private final String[] tokens;
+
+        /**
+         * Positions des cours contenant chaque jeton.
+         */
+        private final int[][] postings;
+
+        private TokenIndex(String[] tokens, int[][] postings) {
+            this.tokens = tokens;
+            this.postings = postings;
+        }
+
+        /**
+         * Construit l index inverse dun champ des cours.
+         *
+         * @param courses cours tries par sigle
+         * @param nameField vrai pour le nom, faux pour la description
+         * @return l index construit
+         */
+        static TokenIndex build(CourseDetails[] courses, boolean nameField) {
+
+            Map<String, List<Integer>> byToken = new HashMap<>();
+
+            for (int doc = 0; doc < courses.length; doc++) {
+                String text = nameField
+                        ? courses[doc].getName()
+                        : courses[doc].getDescription();
+
+                for (String token : TextNormalizer.tokens(text)) {
+                    List<Integer> docs = byToken.computeIfAbsent(token, t -> new ArrayList<>());
+                    if (docs.isEmpty() || docs.get(docs.size() - 1) != doc) {
+                        docs.add(doc);
+                    }
+                }
+            }
+
+            String[] tokens = byToken.keySet().toArray(new String[0]);
+            Arrays.sort(tokens);
+
+            int[][] postings = new int[tokens.length][];
+            for (int i = 0; i < tokens.length; i++) {
+                postings[i] = byToken.get(tokens[i]).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            return new TokenIndex(tokens, postings);
+        }
+
+        /**
+         * Conserve dans l ensemble fourni uniquement les cours dont le champ
+         * contient, pour chaque mot recherche, un jeton commencant par ce mot.
+         *
+         * @param queryTokens mots recherches normalises
+         * @param matches ensemble des cours a filtrer
+         */
+        void retainMatching(List<String> queryTokens, BitSet matches) {
+
+            for (String query : queryTokens) {
+                if (matches.isEmpty()) {
+                    return;
+                }
+
+                BitSet docs = new BitSet();
+                for (int i = lowerBound(tokens, query);
+                     i < tokens.length && tokens[i].startsWith(query);
+                     i++) {
+                    for (int doc : postings[i]) {
+                        docs.set(doc);
+                    }
+                }
+
+                matches.and(docs);
+            }
+        }
+    }
+}
@@ -2,7 +2,8 @@ package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.ComparedCourse;
 import com.diro.ift2255.model.CourseDetails;
-import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.model.OpinionSummary;
+import com.diro.ift2255.util.FanOutExecutor;
 
 import java.util.List;
 
@@ -58,9 +59,11 @@ public class CourseComparisonService {
             throw new IllegalArgumentException("Exactement 2 cours requis");
         }
 
-        return courses.stream()
-                .map(this::buildComparedCourse)
-                .toList();
+        return FanOutExecutor.map(
+                courses,
+                this::buildComparedCourse,
+                courses.size()
+        );
     }
 
     /**
@@ -74,12 +77,12 @@ public class CourseComparisonService {
         CourseDetails details =
                 courseService.getCourseDetails(courseId);
 
-        List<Opinion> opinions =
-                opinionService.getOpinions(courseId);
+        OpinionSummary opinions =
+                opinionService.getSummary(courseId);
 
-        int reviewCount = opinions.size();
+        int reviewCount = opinions.getCount();
 
-        int workload = estimateWorkload(opinions);
+        int workload = opinions.estimatedWorkload();
 
         int difficulty =
                 resultService.estimateDifficulty(courseId);
@@ -94,37 +97,4 @@ public class CourseComparisonService {
         );
     }
 
-    /**
-     * Estime la charge de travail a partir des avis.
-     *
-     * @param opinions liste des avis
-     * @return la charge de travail estimee
-     */
-    private int estimateWorkload(List<Opinion> opinions) {
-        if (opinions.isEmpty()) return 3;
-
-        return (int) opinions.stream()
-                .mapToInt(o -> extractWorkload(o.getText()))
-                .average()
-                .orElse(3);
-    }
-
-    /**
-     * Extrait une estimation de charge de travail a partir du texte.
-     *
-     * @param text texte de lavis
-     * @return la charge de travail estimee
-     */
-    private int extractWorkload(String text) {
-        if (text == null) return 3;
-
-        String t = text.toLowerCase();
-
-        if (t.contains("énorme") || t.contains("beaucoup")) return 5;
-        if (t.contains("lourd") || t.contains("chargé")) return 4;
-        if (t.contains("moyen")) return 3;
-        if (t.contains("léger") || t.contains("facile")) return 2;
-
-        return 3;
-    }
 }
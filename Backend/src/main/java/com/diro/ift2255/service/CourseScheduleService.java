@@ -1,12 +1,14 @@
 package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.model.Semester;
 import com.diro.ift2255.util.HttpClientApi;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service responsable de la recuperation des horaires de cours.
@@ -53,100 +55,167 @@ public class CourseScheduleService {
             String semester
     ) {
 
-        if (courseId == null || courseId.isBlank()) {
-            throw new IllegalArgumentException("courseId requis");
+        requireCourseId(courseId);
+        return getCourseSchedule(courseId, Semester.parse(semester));
+    }
+
+    /**
+     * Recupere l horaire dun cours pour un trimestre deja valide.
+     *
+     * @param courseId identifiant du cours
+     * @param semester trimestre concerne
+     * @return la liste des plages horaires du cours
+     * @throws IllegalArgumentException si l identifiant du cours est absent
+     * @throws RuntimeException si une erreur survient lors de la recuperation
+     */
+    public List<CourseSchedule> getCourseSchedule(
+            String courseId,
+            Semester semester
+    ) {
+
+        requireCourseId(courseId);
+
+        try {
+            String json = http.get(scheduleUrl(courseId, semester));
+            return parseSchedules(mapper.readTree(json));
+
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur récupération horaire", e);
         }
 
-        if (semester == null || semester.isBlank()) {
-            throw new IllegalArgumentException("semester requis");
+    }
+
+    /**
+     * Recupere l horaire dun cours pour un trimestre donne sans bloquer
+     * le thread appelant.
+     *
+     * @param courseId identifiant du cours
+     * @param semester trimestre concerne
+     * @return la liste des plages horaires du cours une fois recue
+     */
+    public CompletableFuture<List<CourseSchedule>> getCourseScheduleAsync(
+            String courseId,
+            String semester
+    ) {
+
+        Semester parsedSemester;
+        try {
+            requireCourseId(courseId);
+            parsedSemester = Semester.parse(semester);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
         }
 
-        String normalizedSemester = semester.trim().toUpperCase();
+        return http.getJsonAsync(scheduleUrl(courseId, parsedSemester))
+                .handle((root, error) -> {
+                    if (error != null) {
+                        throw new RuntimeException("Erreur récupération horaire", error);
+                    }
+                    return parseSchedules(root);
+                });
+    }
 
-        if (!normalizedSemester.matches("^[AHE][0-9]{2}$")) {
-            throw new IllegalArgumentException("Format de trimestre invalide");
+    /**
+     * Verifie que l identifiant du cours est fourni.
+     *
+     * @param courseId identifiant du cours
+     * @throws IllegalArgumentException si l identifiant est absent
+     */
+    private void requireCourseId(String courseId) {
+
+        if (courseId == null || courseId.isBlank()) {
+            throw new IllegalArgumentException("courseId requis");
         }
+    }
 
-        try {
-            String url = BASE_URL
-                    + "/courses/"
-                    + courseId
-                    + "?include_schedule=true"
-                    + "&schedule_semester="
-                    + normalizedSemester;
+    /**
+     * Construit l adresse de l horaire dun cours.
+     *
+     * @param courseId identifiant du cours
+     * @param semester trimestre concerne
+     * @return l adresse a appeler
+     */
+    private String scheduleUrl(String courseId, Semester semester) {
+        return BASE_URL
+                + "/courses/"
+                + courseId
+                + "?include_schedule=true"
+                + "&schedule_semester="
+                + semester.getCode();
+    }
 
-            String json = http.get(url);
-            JsonNode root = mapper.readTree(json);
+    /**
+     * Transforme la reponse json de l api en plages horaires.
+     *
+     * @param root racine de la reponse json
+     * @return la liste des plages horaires
+     */
+    private List<CourseSchedule> parseSchedules(JsonNode root) {
 
-            List<CourseSchedule> schedules = new ArrayList<>();
+        List<CourseSchedule> schedules = new ArrayList<>();
 
-            JsonNode schedulesNode = root.path("schedules");
-            if (!schedulesNode.isArray() || schedulesNode.isEmpty()) {
-                return schedules;
-            }
+        JsonNode schedulesNode = root.path("schedules");
+        if (!schedulesNode.isArray() || schedulesNode.isEmpty()) {
+            return schedules;
+        }
 
-            JsonNode firstSchedule = schedulesNode.get(0);
-            JsonNode sections = firstSchedule.path("sections");
+        JsonNode firstSchedule = schedulesNode.get(0);
+        JsonNode sections = firstSchedule.path("sections");
 
-            if (!sections.isArray()) {
-                return schedules;
-            }
+        if (!sections.isArray()) {
+            return schedules;
+        }
 
-            for (JsonNode section : sections) {
+        for (JsonNode section : sections) {
 
-                String sectionName =
-                        section.path("name").asText("");
+            String sectionName =
+                    section.path("name").asText("");
 
-                JsonNode volets = section.path("volets");
-                if (!volets.isArray()) continue;
+            JsonNode volets = section.path("volets");
+            if (!volets.isArray()) continue;
 
-                for (JsonNode volet : volets) {
+            for (JsonNode volet : volets) {
 
-                    String activityType =
-                            volet.path("name").asText("");
+                String activityType =
+                        volet.path("name").asText("");
 
-                    JsonNode activities = volet.path("activities");
-                    if (!activities.isArray()) continue;
+                JsonNode activities = volet.path("activities");
+                if (!activities.isArray()) continue;
 
-                    for (JsonNode activity : activities) {
+                for (JsonNode activity : activities) {
 
-                        JsonNode daysNode = activity.path("days");
-                        if (!daysNode.isArray()) continue;
+                    JsonNode daysNode = activity.path("days");
+                    if (!daysNode.isArray()) continue;
 
-                        String start =
-                                activity.path("start_time").asText("");
+                    String start =
+                            activity.path("start_time").asText("");
 
-                        String end =
-                                activity.path("end_time").asText("");
+                    String end =
+                            activity.path("end_time").asText("");
 
-                        if (start.isBlank() || end.isBlank()) continue;
+                    if (start.isBlank() || end.isBlank()) continue;
 
-                        for (JsonNode dayNode : daysNode) {
+                    for (JsonNode dayNode : daysNode) {
 
-                            String day = dayNode.asText("");
+                        String day = dayNode.asText("");
 
-                            schedules.add(
-                                    new CourseSchedule(
-                                            sectionName,
-                                            activityType,
-                                            day,
-                                            start,
-                                            end
-                                    )
-                            );
-                        }
+                        schedules.add(
+                                new CourseSchedule(
+                                        sectionName,
+                                        activityType,
+                                        day,
+                                        start,
+                                        end
+                                )
+                        );
                     }
                 }
             }
-
-            return schedules;
-
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur récupération horaire", e);
         }
 
+        return schedules;
     }
 
 }
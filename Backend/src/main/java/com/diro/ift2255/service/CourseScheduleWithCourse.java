@@ -1,44 +1,70 @@
 package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.util.StringPool;
+import com.diro.ift2255.util.WeeklyOccupancy;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.Objects;
 
 /**
  * Classe representant un horaire de cours associe a un identifiant de cours.
  * Elle combine les informations de l horaire avec le cours correspondant.
+ * Les textes sont partages entre les instances et les heures sont analysees
+ * une seule fois a la construction, en secondes depuis minuit.
  */
 public class CourseScheduleWithCourse {
 
     /**
      * Identifiant du cours.
      */
-    private String courseId;
+    private final String courseId;
 
     /**
      * Section du cours.
      */
-    private String section;
+    private final String section;
 
     /**
      * Type d activite associee au cours.
      */
-    private String activityType;
+    private final String activityType;
 
     /**
      * Jour de l activite.
      */
-    private String day;
+    private final String day;
 
     /**
      * Heure de debut de l activite.
      */
-    private String startTime;
+    private final String startTime;
 
     /**
      * Heure de fin de l activite.
      */
-    private String endTime;
+    private final String endTime;
+
+    /**
+     * Indice du jour dans la semaine, -1 si le jour nest pas reconnu.
+     */
+    private final int dayIndex;
+
+    /**
+     * Debut en secondes depuis minuit, -1 si l heure est invalide.
+     */
+    private final int startSecond;
+
+    /**
+     * Fin en secondes depuis minuit, -1 si l heure est invalide.
+     */
+    private final int endSecond;
+
+    /**
+     * Code de hachage calcule a la construction.
+     */
+    private final int hash;
 
     /**
      * Construit un horaire associe a un cours a partir dun objet horaire.
@@ -50,12 +76,40 @@ public class CourseScheduleWithCourse {
             String courseId,
             CourseSchedule schedule
     ) {
-        this.courseId = courseId;
-        this.section = schedule.getSection();
-        this.activityType = schedule.getActivityType();
-        this.day = schedule.getDay();
-        this.startTime = schedule.getStartTime();
-        this.endTime = schedule.getEndTime();
+        this.courseId = StringPool.intern(courseId);
+        this.section = StringPool.intern(schedule.getSection());
+        this.activityType = StringPool.intern(schedule.getActivityType());
+        this.day = StringPool.intern(schedule.getDay());
+        this.startTime = StringPool.intern(schedule.getStartTime());
+        this.endTime = StringPool.intern(schedule.getEndTime());
+        this.dayIndex = WeeklyOccupancy.dayIndex(day);
+        this.startSecond = secondOfDay(startTime);
+        this.endSecond = secondOfDay(endTime);
+        this.hash = Objects.hash(
+                this.courseId,
+                section,
+                activityType,
+                day,
+                startTime,
+                endTime
+        );
+    }
+
+    /**
+     * Analyse une heure en secondes depuis minuit.
+     *
+     * @param time heure au format iso
+     * @return les secondes depuis minuit, ou -1 si l heure est invalide
+     */
+    private static int secondOfDay(String time) {
+        if (time == null) {
+            return -1;
+        }
+        try {
+            return LocalTime.parse(time).toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
     }
 
     /**
@@ -100,6 +154,42 @@ public class CourseScheduleWithCourse {
      */
     public String getEndTime() { return endTime; }
 
+    /**
+     * Retourne l indice du jour dans la semaine.
+     *
+     * @return l indice de 0 (lundi) a 6, ou -1 si le jour nest pas reconnu
+     */
+    int dayIndex() { return dayIndex; }
+
+    /**
+     * Retourne le debut en secondes depuis minuit.
+     *
+     * @return les secondes, ou -1 si l heure est invalide
+     */
+    int startSecond() { return startSecond; }
+
+    /**
+     * Retourne la fin en secondes depuis minuit.
+     *
+     * @return les secondes, ou -1 si l heure est invalide
+     */
+    int endSecond() { return endSecond; }
+
+    /**
+     * Ajoute cette activite a une occupation hebdomadaire.
+     *
+     * @param occupancy occupation a completer
+     * @return faux si le jour ou les heures ne peuvent pas etre representes,
+     *         y compris une activite de duree nulle ou negative
+     */
+    boolean addTo(WeeklyOccupancy occupancy) {
+        if (dayIndex < 0 || startSecond < 0 || endSecond <= startSecond) {
+            return false;
+        }
+        occupancy.add(dayIndex, startSecond / 60, (endSecond + 59) / 60);
+        return true;
+    }
+
     /**
      * Compare cet objet a un autre pour determiner legalite.
      *
@@ -113,7 +203,8 @@ public class CourseScheduleWithCourse {
 
         CourseScheduleWithCourse that = (CourseScheduleWithCourse) o;
 
-        return Objects.equals(courseId, that.courseId)
+        return hash == that.hash
+                && Objects.equals(courseId, that.courseId)
                 && Objects.equals(section, that.section)
                 && Objects.equals(activityType, that.activityType)
                 && Objects.equals(day, that.day)
@@ -128,13 +219,6 @@ public class CourseScheduleWithCourse {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(
-                courseId,
-                section,
-                activityType,
-                day,
-                startTime,
-                endTime
-        );
+        return hash;
     }
 }
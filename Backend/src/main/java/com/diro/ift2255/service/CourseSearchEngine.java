@@ -0,0 +1,385 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.CourseSearchResult;
+import com.diro.ift2255.util.BkTree;
+import com.diro.ift2255.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Moteur de recherche plein texte sur un instantane du catalogue de cours.
+ * Les textes sont normalises sans accents, chaque mot de la requete est
+ * etendu par prefixe et par proximite orthographique (arbre BK), les cours
+ * sont classes par score BM25 et seuls les k meilleurs sont conserves
+ * dans un tas borne.
+ */
+public class CourseSearchEngine {
+
+    /**
+     * Parametres de saturation et de normalisation de longueur de BM25.
+     */
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Poids relatifs des champs du cours.
+     */
+    private static final double NAME_BOOST = 2.0;
+    private static final double DESCRIPTION_BOOST = 1.0;
+
+    /**
+     * Poids dun mot de l index trouve par prefixe du mot recherche.
+     */
+    private static final double PREFIX_WEIGHT = 0.8;
+
+    /**
+     * Penalite appliquee par erreur de frappe toleree.
+     */
+    private static final double EDIT_PENALTY = 0.35;
+
+    /**
+     * Nombre maximal de mots de l index retenus par prefixe.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+
+    /**
+     * Bonus accordes lorsque le mot recherche correspond au sigle.
+     */
+    private static final double SIGLE_EXACT_BOOST = 10.0;
+    private static final double SIGLE_PREFIX_BOOST = 1.5;
+
+    /**
+     * Cours indexes, tries par sigle.
+     */
+    private final CourseDetails[] courses;
+
+    /**
+     * Sigles normalises dans le meme ordre que les cours.
+     */
+    private final String[] sigles;
+
+    /**
+     * Index des noms de cours.
+     */
+    private final Field name;
+
+    /**
+     * Index des descriptions de cours.
+     */
+    private final Field description;
+
+    /**
+     * Vocabulaire trie de tous les champs.
+     */
+    private final String[] vocabulary;
+
+    /**
+     * Arbre BK du vocabulaire pour la tolerance aux fautes.
+     */
+    private final BkTree fuzzy;
+
+    /**
+     * Construit le moteur a partir des cours tries par sigle.
+     *
+     * @param courses cours tries par sigle
+     */
+    public CourseSearchEngine(CourseDetails[] courses) {
+        this.courses = courses;
+        this.sigles = new String[courses.length];
+        for (int i = 0; i < courses.length; i++) {
+            sigles[i] = TextNormalizer.fold(courses[i].getId());
+        }
+
+        this.name = Field.build(courses, true);
+        this.description = Field.build(courses, false);
+
+        TreeSet<String> words = new TreeSet<>(name.postings.keySet());
+        words.addAll(description.postings.keySet());
+        this.vocabulary = words.toArray(new String[0]);
+        this.fuzzy = new BkTree(words);
+    }
+
+    /**
+     * Recherche les cours les plus pertinents pour une requete libre.
+     *
+     * @param query texte recherche
+     * @param limit nombre maximal de resultats
+     * @return les cours trouves, du plus pertinent au moins pertinent
+     */
+    public List<CourseSearchResult> search(String query, int limit) {
+
+        List<String> tokens = TextNormalizer.tokens(query);
+        if (tokens.isEmpty() || limit <= 0 || courses.length == 0) {
+            return List.of();
+        }
+
+        double[] scores = new double[courses.length];
+        double[] bestName = new double[courses.length];
+        double[] bestDescription = new double[courses.length];
+        int[] touched = new int[courses.length];
+
+        for (String token : tokens) {
+
+            int touchedCount = 0;
+
+            for (Map.Entry<String, Double> expansion : expand(token).entrySet()) {
+                touchedCount = name.score(expansion.getKey(), expansion.getValue() * NAME_BOOST,
+                        bestName, touched, touchedCount, bestDescription);
+                touchedCount = description.score(expansion.getKey(), expansion.getValue() * DESCRIPTION_BOOST,
+                        bestDescription, touched, touchedCount, bestName);
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int doc = touched[t];
+                scores[doc] += bestName[doc] + bestDescription[doc];
+                bestName[doc] = 0;
+                bestDescription[doc] = 0;
+            }
+
+            scoreSigle(token, scores);
+        }
+
+        return topK(scores, limit);
+    }
+
+    /**
+     * Etend un mot recherche en mots de l index ponderes.
+     * Le mot exact a un poids de 1, les mots dont il est le prefixe un poids
+     * reduit, et les mots proches orthographiquement un poids decroissant
+     * avec le nombre d erreurs.
+     *
+     * @param token mot recherche normalise
+     * @return les mots de l index et leur poids
+     */
+    private Map<String, Double> expand(String token) {
+
+        Map<String, Double> expansions = new HashMap<>();
+
+        int from = Arrays.binarySearch(vocabulary, token);
+        if (from >= 0) {
+            expansions.put(token, 1.0);
+            from++;
+        } else {
+            from = -from - 1;
+        }
+
+        if (token.length() >= 2) {
+            for (int i = from, n = 0;
+                 i < vocabulary.length && n < MAX_PREFIX_EXPANSIONS && vocabulary[i].startsWith(token);
+                 i++, n++) {
+                expansions.merge(vocabulary[i], PREFIX_WEIGHT, Math::max);
+            }
+        }
+
+        if (token.length() >= 4) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+            for (Map.Entry<String, Integer> match : fuzzy.search(token, maxEdits).entrySet()) {
+                if (match.getValue() > 0) {
+                    expansions.merge(match.getKey(), 1.0 - EDIT_PENALTY * match.getValue(), Math::max);
+                }
+            }
+        }
+
+        return expansions;
+    }
+
+    /**
+     * Ajoute les bonus de sigle pour un mot recherche.
+     *
+     * @param token mot recherche normalise
+     * @param scores scores des cours
+     */
+    private void scoreSigle(String token, double[] scores) {
+
+        if (token.length() < 3) {
+            return;
+        }
+
+        int i = Arrays.binarySearch(sigles, token);
+        if (i >= 0) {
+            scores[i] += SIGLE_EXACT_BOOST;
+            i++;
+        } else {
+            i = -i - 1;
+        }
+
+        for (; i < sigles.length && sigles[i].startsWith(token); i++) {
+            scores[i] += SIGLE_PREFIX_BOOST;
+        }
+    }
+
+    /**
+     * Selectionne les k cours ayant les meilleurs scores a l aide dun tas borne.
+     *
+     * @param scores scores des cours
+     * @param limit nombre de cours a conserver
+     * @return les cours tries par score decroissant
+     */
+    private List<CourseSearchResult> topK(double[] scores, int limit) {
+
+        PriorityQueue<Integer> heap = new PriorityQueue<>(
+                limit + 1,
+                (a, b) -> scores[a] != scores[b]
+                        ? Double.compare(scores[a], scores[b])
+                        : Integer.compare(b, a)
+        );
+
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] <= 0) continue;
+
+            if (heap.size() < limit) {
+                heap.add(doc);
+            } else {
+                int weakest = heap.peek();
+                if (scores[doc] > scores[weakest]) {
+                    heap.poll();
+                    heap.add(doc);
+                }
+            }
+        }
+
+        List<CourseSearchResult> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int doc = heap.poll();
+            CourseDetails d = courses[doc];
+            result.add(new CourseSearchResult(d.getId(), d.getName(), d.getCredits(), scores[doc]));
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Index inverse dun champ avec frequences et longueurs pour BM25.
+     */
+    private static final class Field {
+
+        /**
+         * Listes de cours et de frequences par mot.
+         */
+        private final Map<String, Postings> postings;
+
+        /**
+         * Nombre de mots du champ pour chaque cours.
+         */
+        private final int[] lengths;
+
+        /**
+         * Longueur moyenne du champ.
+         */
+        private final double averageLength;
+
+        private Field(Map<String, Postings> postings, int[] lengths, double averageLength) {
+            this.postings = postings;
+            this.lengths = lengths;
+            this.averageLength = averageLength;
+        }
+
+        /**
+         * Construit l index dun champ des cours.
+         *
+         * @param courses cours tries par sigle
+         * @param nameField vrai pour le nom, faux pour la description
+         * @return l index du champ
+         */
+        static Field build(CourseDetails[] courses, boolean nameField) {
+
+            Map<String, List<int[]>> byToken = new HashMap<>();
+            int[] lengths = new int[courses.length];
+            long total = 0;
+
+            for (int doc = 0; doc < courses.length; doc++) {
+                String text = nameField ? courses[doc].getName() : courses[doc].getDescription();
+                List<String> tokens = TextNormalizer.tokens(text);
+                lengths[doc] = tokens.size();
+                total += tokens.size();
+
+                Map<String, Integer> frequencies = new HashMap<>();
+                for (String token : tokens) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+
+                for (Map.Entry<String, Integer> f : frequencies.entrySet()) {
+                    byToken.computeIfAbsent(f.getKey(), k -> new ArrayList<>())
+                            .add(new int[]{doc, f.getValue()});
+                }
+            }
+
+            Map<String, Postings> postings = new HashMap<>(byToken.size() * 2);
+            for (Map.Entry<String, List<int[]>> e : byToken.entrySet()) {
+                List<int[]> entries = e.getValue();
+                int[] docs = new int[entries.size()];
+                int[] frequencies = new int[entries.size()];
+                for (int i = 0; i < entries.size(); i++) {
+                    docs[i] = entries.get(i)[0];
+                    frequencies[i] = entries.get(i)[1];
+                }
+                double idf = Math.log(1 + (courses.length - docs.length + 0.5) / (docs.length + 0.5));
+                postings.put(e.getKey(), new Postings(docs, frequencies, idf));
+            }
+
+            double average = courses.length == 0 ? 0 : (double) total / courses.length;
+            return new Field(postings, lengths, average);
+        }
+
+        /**
+         * Calcule la contribution BM25 dun mot pour chaque cours qui le contient
+         * et conserve la meilleure contribution par cours.
+         *
+         * @param term mot de l index
+         * @param weight poids de l expansion et du champ
+         * @param best meilleures contributions de ce champ par cours
+         * @param touched cours ayant recu une contribution
+         * @param touchedCount nombre de cours deja touches
+         * @param other meilleures contributions de l autre champ
+         * @return le nouveau nombre de cours touches
+         */
+        int score(
+                String term,
+                double weight,
+                double[] best,
+                int[] touched,
+                int touchedCount,
+                double[] other
+        ) {
+
+            Postings p = postings.get(term);
+            if (p == null) {
+                return touchedCount;
+            }
+
+            for (int i = 0; i < p.docs.length; i++) {
+                int doc = p.docs[i];
+                double tf = p.frequencies[i];
+                double norm = averageLength == 0 ? 1 : lengths[doc] / averageLength;
+                double contribution = weight * p.idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * norm));
+
+                if (best[doc] == 0 && other[doc] == 0) {
+                    touched[touchedCount++] = doc;
+                }
+                if (contribution > best[doc]) {
+                    best[doc] = contribution;
+                }
+            }
+
+            return touchedCount;
+        }
+    }
+
+    /**
+     * Liste des cours contenant un mot avec leurs frequences.
+     *
+     * @param docs positions des cours
+     * @param frequencies frequences du mot dans chaque cours
+     * @param idf frequence inverse du mot dans le champ
+     */
+    private record Postings(int[] docs, int[] frequencies, double idf) {}
+}
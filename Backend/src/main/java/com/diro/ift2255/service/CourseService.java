@@ -2,14 +2,26 @@ package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.Course;
 import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.CourseSearchResult;
+import com.diro.ift2255.model.ProgramId;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.util.ExpiringCache;
+import com.diro.ift2255.util.FanOutExecutor;
 import com.diro.ift2255.util.HttpClientApi;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service responsable de la gestion des cours.
@@ -25,14 +37,39 @@ public class CourseService {
             "https://planifium-api.onrender.com/api/v1";
 
     /**
-     * Client http utilise pour effectuer les appels reseau.
+     * Cache des details de cours partage par toutes les instances du service.
+     * La taille et la duree de vie sont configurables par proprietes systeme.
      */
-    private final HttpClientApi http;
+    private static final ExpiringCache<String, CourseDetails> DETAILS_CACHE =
+            new ExpiringCache<>(
+                    Integer.getInteger("planifium.cache.details.maxSize", 2000),
+                    Duration.ofSeconds(
+                            Long.getLong("planifium.cache.details.ttlSeconds", 900L)
+                    )
+            );
+
+    /**
+     * Nombre maximal de sigles demandes par appel groupe a l api externe,
+     * ramene a au moins 1 pour une valeur configuree nulle ou negative.
+     */
+    private static final int DETAILS_BATCH_SIZE =
+            Math.max(1, Integer.getInteger("planifium.details.batchSize", 50));
+
+    /**
+     * Nombre maximal de lots demandes en parallele a l api externe.
+     */
+    private static final int DETAILS_CONCURRENCY =
+            Integer.getInteger("planifium.details.concurrency", 4);
 
     /**
-     * Outil de traitement des donnees json.
+     * Nombre maximal de resultats dune recherche plein texte.
      */
-    private final ObjectMapper mapper;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    /**
+     * Client http utilise pour effectuer les appels reseau.
+     */
+    private final HttpClientApi http;
 
     /**
      * Service utilise pour acceder aux programmes.
@@ -44,7 +81,6 @@ public class CourseService {
      */
     public CourseService() {
         this.http = new HttpClientApi();
-        this.mapper = new ObjectMapper();
         this.programService = new ProgramService();
     }
 
@@ -79,20 +115,10 @@ public class CourseService {
                         .append(URLEncoder.encode(name, StandardCharsets.UTF_8));
             }
 
-            String json = http.get(url.toString());
-            JsonNode root = mapper.readTree(json);
-
-            List<Course> courses = new ArrayList<>();
-
-            for (JsonNode node : root) {
-                courses.add(new Course(
-                        node.get("id").asText(),
-                        node.get("name").asText(),
-                        node.get("credits").asInt()
-                ));
-            }
-
-            return courses;
+            return http.getStreaming(
+                    url.toString(),
+                    parser -> readCourseSummaries(parser, null)
+            );
 
         } catch (Exception e) {
             throw new RuntimeException("Erreur recherche cours", e);
@@ -112,65 +138,133 @@ public class CourseService {
             throw new IllegalArgumentException("courseId ne peut pas etre vide");
         }
 
-        try {
-            String url = BASE_URL + "/courses/" + courseId;
+        return DETAILS_CACHE.get(
+                courseId.trim().toUpperCase(),
+                this::fetchCourseDetails
+        );
+    }
 
-            String json = http.get(url);
-            JsonNode node = mapper.readTree(json);
+    /**
+     * Recupere les details complets dun cours sans bloquer le thread appelant.
+     *
+     * @param courseId identifiant du cours
+     * @return les details du cours une fois recus
+     */
+    public CompletableFuture<CourseDetails> getCourseDetailsAsync(String courseId) {
 
-            String id = node.hasNonNull("id") ? node.get("id").asText() : "";
-            String name = node.hasNonNull("name") ? node.get("name").asText() : "";
-            int credits = node.hasNonNull("credits") ? node.get("credits").asInt() : 0;
-            String description = node.hasNonNull("description") ? node.get("description").asText() : "";
+        if (courseId == null || courseId.isBlank()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("courseId ne peut pas etre vide")
+            );
+        }
 
-            List<String> prereqCourses = new ArrayList<>();
-            if (node.hasNonNull("prerequisite_courses")) {
-                for (JsonNode p : node.get("prerequisite_courses")) {
-                    prereqCourses.add(p.asText());
-                }
-            }
+        return DETAILS_CACHE.getAsync(
+                courseId.trim().toUpperCase(),
+                id -> http.getStreamingAsync(BASE_URL + "/courses/" + id, this::readCourseDetails)
+                        .handle((details, error) -> {
+                            if (error != null) {
+                                throw new RuntimeException(
+                                        "Erreur lors de la recuperation des details du cours " + id,
+                                        error
+                                );
+                            }
+                            return details;
+                        })
+        );
+    }
+
+    /**
+     * Retourne les statistiques du cache des details de cours.
+     *
+     * @return les compteurs du cache
+     */
+    public static Map<String, Long> getDetailsCacheStats() {
+        return DETAILS_CACHE.stats();
+    }
+
+    /**
+     * Recupere les details de plusieurs cours en regroupant les appels reseau.
+     * Les cours deja en cache ne sont pas redemandes et les autres sont
+     * recuperes par lots avec le parametre courses_sigle de l api.
+     *
+     * @param courseIds identifiants des cours
+     * @return les details trouves, indexes par identifiant normalise
+     */
+    public Map<String, CourseDetails> getCoursesDetails(List<String> courseIds) {
 
-            String requirementText = node.hasNonNull("requirement_text")
-                    ? node.get("requirement_text").asText()
-                    : "";
-
-            boolean autumn = false;
-            boolean winter = false;
-            boolean summer = false;
-            if (node.hasNonNull("available_terms")) {
-                JsonNode terms = node.get("available_terms");
-                autumn = terms.hasNonNull("autumn") && terms.get("autumn").asBoolean();
-                winter = terms.hasNonNull("winter") && terms.get("winter").asBoolean();
-                summer = terms.hasNonNull("summer") && terms.get("summer").asBoolean();
+        Map<String, CourseDetails> result = new LinkedHashMap<>();
+        Set<String> missingIds = new LinkedHashSet<>();
+
+        for (String courseId : courseIds) {
+            if (courseId == null || courseId.isBlank()) continue;
+
+            String key = courseId.trim().toUpperCase();
+            if (result.containsKey(key)) continue;
+
+            CourseDetails cached = DETAILS_CACHE.getIfPresent(key);
+            if (cached != null) {
+                result.put(key, cached);
+            } else {
+                missingIds.add(key);
             }
+        }
 
-            boolean day = false;
-            boolean night = false;
-            if (node.hasNonNull("available_periods")) {
-                JsonNode periods = node.get("available_periods");
-                day = periods.hasNonNull("day") && periods.get("day").asBoolean();
-                night = periods.hasNonNull("night") && periods.get("night").asBoolean();
+        List<String> missing = new ArrayList<>(missingIds);
+        List<List<String>> batches = new ArrayList<>();
+
+        for (int from = 0; from < missing.size(); from += DETAILS_BATCH_SIZE) {
+            batches.add(
+                    missing.subList(from, Math.min(from + DETAILS_BATCH_SIZE, missing.size()))
+            );
+        }
+
+        List<List<CourseDetails>> fetched =
+                FanOutExecutor.map(batches, this::fetchCoursesDetails, DETAILS_CONCURRENCY);
+
+        for (List<CourseDetails> batch : fetched) {
+            for (CourseDetails d : batch) {
+                String key = d.getId().toUpperCase();
+                DETAILS_CACHE.put(key, d);
+                result.put(key, d);
             }
+        }
+
+        return result;
+    }
+
+    /**
+     * Recupere les details de tous les cours du catalogue aupres de l api externe.
+     * Utilise pour construire l instantane local du catalogue. La reponse est
+     * lue en flux, cours par cours, sans conserver le texte json complet.
+     *
+     * @return la liste des details de tous les cours
+     */
+    public List<CourseDetails> fetchCatalog() {
 
-            String udemWebsite = node.hasNonNull("udem_website")
-                    ? node.get("udem_website").asText()
-                    : "";
-
-            return new CourseDetails(
-                    id,
-                    name,
-                    credits,
-                    description,
-                    prereqCourses,
-                    requirementText,
-                    autumn,
-                    winter,
-                    summer,
-                    day,
-                    night,
-                    udemWebsite
+        try {
+            return http.getStreaming(
+                    BASE_URL + "/courses?response_level=full",
+                    this::readCourseDetailsList
             );
 
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la recuperation du catalogue", e);
+        }
+    }
+
+    /**
+     * Recupere les details dun cours aupres de l api externe.
+     *
+     * @param courseId identifiant normalise du cours
+     * @return les details du cours
+     */
+    private CourseDetails fetchCourseDetails(String courseId) {
+
+        try {
+            String url = BASE_URL + "/courses/" + courseId;
+
+            return http.getStreaming(url, this::readCourseDetails);
+
         } catch (Exception e) {
             throw new RuntimeException(
                     "Erreur lors de la recuperation des details du cours " + courseId,
@@ -179,8 +273,203 @@ public class CourseService {
         }
     }
 
+    /**
+     * Recupere les details dun lot de cours en un seul appel a l api externe.
+     *
+     * @param courseIds identifiants normalises des cours du lot
+     * @return les details des cours retournes par l api
+     */
+    private List<CourseDetails> fetchCoursesDetails(List<String> courseIds) {
+
+        try {
+            String url = BASE_URL
+                    + "/courses?response_level=full&courses_sigle="
+                    + URLEncoder.encode(String.join(",", courseIds), StandardCharsets.UTF_8);
+
+            return http.getStreaming(url, this::readCourseDetailsList);
+
+        } catch (Exception e) {
+            throw new RuntimeException(
+                    "Erreur lors de la recuperation des details des cours " + courseIds,
+                    e
+            );
+        }
+    }
+
+    /**
+     * Lit en flux un tableau de cours complets. Les cours sans sigle
+     * sont ignores.
+     *
+     * @param parser parseur json de la reponse
+     * @return les details des cours lus
+     * @throws IOException si la lecture echoue
+     */
+    private List<CourseDetails> readCourseDetailsList(JsonParser parser) throws IOException {
+
+        List<CourseDetails> details = new ArrayList<>();
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return details;
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            CourseDetails d = readCourseFields(parser);
+            if (!d.getId().isBlank()) {
+                details.add(d);
+            }
+        }
+
+        return details;
+    }
+
+    /**
+     * Lit en flux les details dun seul cours.
+     *
+     * @param parser parseur json de la reponse
+     * @return les details du cours
+     * @throws IOException si la reponse nest pas un objet ou si la lecture echoue
+     */
+    private CourseDetails readCourseDetails(JsonParser parser) throws IOException {
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Objet de cours attendu");
+        }
+
+        return readCourseFields(parser);
+    }
+
+    /**
+     * Construit les details dun cours a partir des champs de son objet json,
+     * lus jeton par jeton. Le parseur est positionne sur le debut de l objet
+     * et laisse sur sa fin.
+     *
+     * @param parser parseur json positionne sur l objet du cours
+     * @return les details du cours
+     * @throws IOException si la lecture echoue
+     */
+    private static CourseDetails readCourseFields(JsonParser parser) throws IOException {
+
+        String id = "";
+        String name = "";
+        int credits = 0;
+        String description = "";
+        List<String> prereqCourses = new ArrayList<>();
+        String requirementText = "";
+        boolean[] terms = new boolean[3];
+        boolean[] periods = new boolean[2];
+        String udemWebsite = "";
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id" -> id = text(parser, id);
+                case "name" -> name = text(parser, name);
+                case "credits" -> credits = parser.getValueAsInt(0);
+                case "description" -> description = text(parser, description);
+                case "requirement_text" -> requirementText = text(parser, requirementText);
+                case "udem_website" -> udemWebsite = text(parser, udemWebsite);
+                case "prerequisite_courses" -> readTexts(parser, prereqCourses);
+                case "available_terms" -> readFlags(parser, List.of("autumn", "winter", "summer"), terms);
+                case "available_periods" -> readFlags(parser, List.of("day", "night"), periods);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new CourseDetails(
+                id,
+                name,
+                credits,
+                description,
+                prereqCourses,
+                requirementText,
+                terms[0],
+                terms[1],
+                terms[2],
+                periods[0],
+                periods[1],
+                udemWebsite
+        );
+    }
+
+    /**
+     * Retourne le texte dune valeur scalaire, ou une valeur par defaut pour
+     * un objet ou un tableau, qui est alors saute.
+     *
+     * @param parser parseur positionne sur la valeur
+     * @param fallback valeur par defaut
+     * @return le texte de la valeur
+     * @throws IOException si la lecture echoue
+     */
+    private static String text(JsonParser parser, String fallback) throws IOException {
+        if (parser.currentToken().isStructStart()) {
+            parser.skipChildren();
+            return fallback;
+        }
+        return parser.getValueAsString(fallback);
+    }
+
+    /**
+     * Lit un tableau de textes, par exemple la liste des prerequis.
+     *
+     * @param parser parseur positionne sur le debut du tableau
+     * @param target liste a completer
+     * @throws IOException si la lecture echoue
+     */
+    private static void readTexts(JsonParser parser, List<String> target) throws IOException {
+
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            target.add(text(parser, ""));
+        }
+    }
+
+    /**
+     * Lit un objet de drapeaux booleens, par exemple les trimestres offerts.
+     *
+     * @param parser parseur positionne sur le debut de l objet
+     * @param names noms des drapeaux recherches
+     * @param flags valeurs lues, dans l ordre des noms
+     * @throws IOException si la lecture echoue
+     */
+    private static void readFlags(JsonParser parser, List<String> names, boolean[] flags)
+            throws IOException {
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int i = names.indexOf(parser.currentName());
+            parser.nextToken();
+            if (i >= 0 && !parser.currentToken().isStructStart()) {
+                flags[i] = parser.getValueAsBoolean(false);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
     /**
      * Effectue une recherche avancee de cours.
+     * La recherche est servie par l instantane local du catalogue lorsqu il
+     * est charge, et par l api externe sinon.
      *
      * @param siglePartial debut du sigle du cours
      * @param name nom du cours
@@ -202,6 +491,11 @@ public class CourseService {
             );
         }
 
+        CourseCatalogIndex catalog = CourseCatalog.shared().index();
+        if (catalog != null) {
+            return catalog.search(siglePartial, name, description);
+        }
+
         try {
             StringBuilder url =
                     new StringBuilder(BASE_URL + "/courses?response_level=min");
@@ -216,27 +510,12 @@ public class CourseService {
                         .append(URLEncoder.encode(description, StandardCharsets.UTF_8));
             }
 
-            String json = http.get(url.toString());
-            JsonNode root = mapper.readTree(json);
-
-            List<Course> result = new ArrayList<>();
-
-            for (JsonNode node : root) {
-                String id = node.get("id").asText();
-
-                if (siglePartial != null &&
-                        !id.startsWith(siglePartial.toUpperCase())) {
-                    continue;
-                }
+            String prefix = siglePartial == null ? null : siglePartial.toUpperCase();
 
-                result.add(new Course(
-                        id,
-                        node.get("name").asText(),
-                        node.get("credits").asInt()
-                ));
-            }
-
-            return result;
+            return http.getStreaming(
+                    url.toString(),
+                    parser -> readCourseSummaries(parser, prefix)
+            );
 
         } catch (Exception e) {
             throw new RuntimeException("Erreur recherche avancee", e);
@@ -244,73 +523,139 @@ public class CourseService {
     }
 
     /**
-     * Recupere les cours offerts pour un trimestre et un programme.
+     * Effectue une recherche plein texte classee par pertinence.
+     * Les accents et la casse sont ignores et les fautes de frappe
+     * legeres sont tolerees. Si le catalogue local nest pas encore charge,
+     * la recherche par nom de l api externe est utilisee sans classement.
      *
-     * @param semester trimestre concerne
-     * @param programId identifiant du programme
-     * @return la liste des cours offerts
+     * @param query texte recherche
+     * @param limit nombre maximal de resultats
+     * @return les cours trouves, du plus pertinent au moins pertinent
+     * @throws IllegalArgumentException si la requete est vide ou la limite invalide
      */
-    public List<Course> getCoursesForSemesterAndProgram(
-            String semester,
-            String programId
-    ) {
-
-        validateProgramId(programId);
-        validateSemesterFormat(semester);
+    public List<CourseSearchResult> searchCoursesRanked(String query, int limit) {
 
-        List<Course> programCourses =
-                programService.getCoursesForProgram(programId.trim());
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Requete de recherche requise");
+        }
 
-        if (programCourses.isEmpty()) {
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
             throw new IllegalArgumentException(
-                    "Programme inexistant " + programId
+                    "limit doit etre entre 1 et " + MAX_SEARCH_LIMIT
             );
         }
 
-        String normalizedSemester = semester.trim().toUpperCase();
+        CourseCatalogIndex catalog = CourseCatalog.shared().index();
+        if (catalog != null) {
+            return catalog.rank(query, limit);
+        }
 
-        return programCourses.stream()
-                .filter(c -> {
-                    CourseDetails d = getCourseDetails(c.getId());
-                    return isOfferedThisSemester(d, normalizedSemester);
-                })
+        return searchCoursesAdvanced(null, query, null).stream()
+                .limit(limit)
+                .map(c -> new CourseSearchResult(c.getId(), c.getName(), c.getCredits(), 0))
                 .toList();
     }
 
     /**
-     * Valide le format du trimestre.
+     * Lit en flux un tableau de cours et ne conserve que l identifiant,
+     * le nom et les credits de chacun.
      *
-     * @param semester trimestre a valider
+     * @param parser parseur json de la reponse
+     * @param siglePrefix debut de sigle requis, ou null pour tout conserver
+     * @return la liste des cours lus
+     * @throws IOException si la lecture echoue
      */
-    private void validateSemesterFormat(String semester) {
+    private List<Course> readCourseSummaries(JsonParser parser, String siglePrefix)
+            throws IOException {
 
-        if (semester == null || semester.isBlank()) {
-            throw new IllegalArgumentException("semester requis");
+        List<Course> courses = new ArrayList<>();
+
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return courses;
         }
 
-        if (!semester.trim().toUpperCase().matches("^[AHE][0-9]{2}$")) {
-            throw new IllegalArgumentException(
-                    "Format de trimestre invalide"
-            );
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            String id = null;
+            String name = null;
+            int credits = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "name" -> name = parser.getValueAsString();
+                    case "credits" -> credits = parser.getValueAsInt(0);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (id == null || (siglePrefix != null && !id.startsWith(siglePrefix))) {
+                continue;
+            }
+
+            courses.add(new Course(id, name, credits));
         }
+
+        return courses;
+    }
+
+    /**
+     * Recupere les cours offerts pour un trimestre et un programme.
+     *
+     * @param semester trimestre concerne
+     * @param programId identifiant du programme
+     * @return la liste des cours offerts
+     */
+    public List<Course> getCoursesForSemesterAndProgram(
+            String semester,
+            String programId
+    ) {
+
+        ProgramId program = ProgramId.parse(programId);
+        Semester parsedSemester = Semester.parse(semester);
+
+        return getCoursesForSemesterAndProgram(parsedSemester, program);
     }
 
     /**
-     * Valide l identifiant du programme.
+     * Recupere les cours offerts pour un trimestre et un programme deja valides.
      *
+     * @param semester trimestre concerne
      * @param programId identifiant du programme
+     * @return la liste des cours offerts
      */
-    private void validateProgramId(String programId) {
+    public List<Course> getCoursesForSemesterAndProgram(
+            Semester semester,
+            ProgramId programId
+    ) {
 
-        if (programId == null || programId.isBlank()) {
-            throw new IllegalArgumentException("programId requis");
-        }
+        List<Course> programCourses =
+                programService.getCoursesForProgram(programId.getValue());
 
-        if (!programId.matches("^[0-9]{6}$")) {
+        if (programCourses.isEmpty()) {
             throw new IllegalArgumentException(
-                    "Format de programme invalide"
+                    "Programme inexistant " + programId
             );
         }
+
+        Map<String, CourseDetails> details = getCoursesDetails(
+                programCourses.stream().map(Course::getId).toList()
+        );
+
+        return programCourses.stream()
+                .filter(c -> {
+                    CourseDetails d = details.get(c.getId().toUpperCase());
+                    return d != null && isOfferedThisSemester(d, semester);
+                })
+                .toList();
     }
 
     /**
@@ -320,15 +665,9 @@ public class CourseService {
      * @param semester trimestre concerne
      * @return vrai si le cours est offert
      */
-    private boolean isOfferedThisSemester(CourseDetails d, String semester) {
-
-        if (semester == null || semester.length() < 1) {
-            throw new IllegalArgumentException("Trimestre invalide");
-        }
-
-        char season = Character.toUpperCase(semester.charAt(0));
+    static boolean isOfferedThisSemester(CourseDetails d, Semester semester) {
 
-        return switch (season) {
+        return switch (semester.getSeason()) {
             case 'H' -> d.isAvailableWinter();
             case 'A' -> d.isAvailableAutumn();
             case 'E' -> d.isAvailableSummer();
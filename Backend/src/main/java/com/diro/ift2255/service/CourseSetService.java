@@ -2,11 +2,18 @@ package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.CourseConflict;
 import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.util.FanOutExecutor;
+import com.diro.ift2255.util.WeeklyOccupancy;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -20,6 +27,22 @@ public class CourseSetService {
      */
     private static final int MAX_COURSES = 6;
 
+    /**
+     * Nombre dhoraires generes par defaut.
+     */
+    private static final int DEFAULT_TIMETABLES = 10;
+
+    /**
+     * Nombre maximal dhoraires generes.
+     */
+    private static final int MAX_TIMETABLES = 50;
+
+    /**
+     * Temps alloue a la generation dhoraires, en millisecondes.
+     */
+    private static final long TIMETABLE_BUDGET_MS =
+            Long.getLong("planifium.timetables.budgetMs", 2000);
+
     /**
      * Service utilise pour recuperer les horaires des cours.
      */
@@ -45,6 +68,71 @@ public class CourseSetService {
             String semester
     ) {
 
+        validateCourseIds(courseIds);
+
+        List<CourseScheduleWithCourse> uniqueSchedules =
+                fetchSchedules(courseIds, Semester.parse(semester));
+
+        List<CourseConflict> conflicts =
+                detectConflicts(uniqueSchedules);
+
+        return new CourseSetResult(uniqueSchedules, conflicts);
+    }
+
+    /**
+     * Genere les meilleurs horaires sans conflit pour un ensemble de cours,
+     * en choisissant une section par cours et par volet.
+     *
+     * @param courseIds liste des identifiants de cours
+     * @param semester trimestre concerne
+     * @param limit nombre maximal dhoraires, ou null pour la valeur par defaut
+     * @return les horaires classes et l etat de la recherche
+     * @throws IllegalArgumentException si les parametres sont invalides
+     */
+    public TimetableSearchResult generateTimetables(
+            List<String> courseIds,
+            String semester,
+            Integer limit
+    ) {
+
+        validateCourseIds(courseIds);
+
+        int max = limit == null ? DEFAULT_TIMETABLES : limit;
+        if (max < 1 || max > MAX_TIMETABLES) {
+            throw new IllegalArgumentException("limit doit etre entre 1 et " + MAX_TIMETABLES);
+        }
+
+        List<CourseScheduleWithCourse> schedules =
+                fetchSchedules(courseIds, Semester.parse(semester));
+
+        Set<String> scheduled = new HashSet<>();
+        for (CourseScheduleWithCourse s : schedules) {
+            scheduled.add(s.getCourseId());
+        }
+        List<String> unscheduled = courseIds.stream()
+                .filter(id -> !scheduled.contains(id))
+                .distinct()
+                .toList();
+
+        TimetableSearchResult result =
+                new TimetableSolver(schedules).solve(max, TIMETABLE_BUDGET_MS);
+
+        return new TimetableSearchResult(
+                result.getTimetables(),
+                result.isComplete(),
+                result.getExplored(),
+                unscheduled
+        );
+    }
+
+    /**
+     * Verifie la liste des cours dun ensemble.
+     *
+     * @param courseIds liste des identifiants de cours
+     * @throws IllegalArgumentException si la liste est vide ou trop longue
+     */
+    private void validateCourseIds(List<String> courseIds) {
+
         if (courseIds == null || courseIds.isEmpty()) {
             throw new IllegalArgumentException("Liste de cours requise");
         }
@@ -52,34 +140,53 @@ public class CourseSetService {
         if (courseIds.size() > MAX_COURSES) {
             throw new IllegalArgumentException("Maximum 6 cours");
         }
+    }
+
+    /**
+     * Recupere en parallele les plages horaires distinctes des cours.
+     *
+     * @param courseIds liste des identifiants de cours
+     * @param semester trimestre concerne
+     * @return les plages horaires, dans l ordre des cours
+     */
+    private List<CourseScheduleWithCourse> fetchSchedules(
+            List<String> courseIds,
+            Semester semester
+    ) {
+
+        List<List<CourseSchedule>> schedulesByCourse =
+                FanOutExecutor.map(
+                        courseIds,
+                        courseId -> scheduleService.getCourseSchedule(courseId, semester),
+                        MAX_COURSES
+                );
 
         List<CourseScheduleWithCourse> allSchedules = new ArrayList<>();
 
-        for (String courseId : courseIds) {
+        for (int i = 0; i < courseIds.size(); i++) {
 
-            List<CourseSchedule> schedules =
-                    scheduleService.getCourseSchedule(courseId, semester);
+            String courseId = courseIds.get(i);
 
-            for (CourseSchedule s : schedules) {
+            for (CourseSchedule s : schedulesByCourse.get(i)) {
                 allSchedules.add(
                         new CourseScheduleWithCourse(courseId, s)
                 );
             }
         }
 
-        List<CourseScheduleWithCourse> uniqueSchedules =
-                allSchedules.stream()
-                        .distinct()
-                        .toList();
-
-        List<CourseConflict> conflicts =
-                detectConflicts(uniqueSchedules);
-
-        return new CourseSetResult(uniqueSchedules, conflicts);
+        return allSchedules.stream()
+                .distinct()
+                .toList();
     }
 
     /**
      * Detecte les conflits dhoraires entre les cours.
+     * Si les occupations hebdomadaires des cours sont disjointes, aucun conflit
+     * nest possible et l analyse sarrete. Sinon, les horaires sont regroupes
+     * par jour puis balayes par heure de debut en conservant les activites
+     * encore en cours, ce qui evite de comparer toutes les paires. Les conflits
+     * sont retournes dans l ordre des paires de la liste, un seul conflit etant
+     * conserve par paire de cours et par jour.
      *
      * @param schedules liste des horaires a analyser
      * @return la liste des conflits detectes
@@ -88,70 +195,144 @@ public class CourseSetService {
             List<CourseScheduleWithCourse> schedules
     ) {
 
-        List<CourseConflict> conflicts = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
+        int n = schedules.size();
 
-        for (int i = 0; i < schedules.size(); i++) {
-            for (int j = i + 1; j < schedules.size(); j++) {
+        if (occupanciesAreDisjoint(schedules)) {
+            return new ArrayList<>();
+        }
 
-                CourseScheduleWithCourse a = schedules.get(i);
-                CourseScheduleWithCourse b = schedules.get(j);
+        Map<String, List<Integer>> byDay = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String day = schedules.get(i).getDay();
+            if (day != null) {
+                byDay.computeIfAbsent(day, d -> new ArrayList<>()).add(i);
+            }
+        }
 
-                if (a.getCourseId().equals(b.getCourseId())) continue;
-                if (!a.getDay().equals(b.getDay())) continue;
+        int[] start = new int[n];
+        int[] end = new int[n];
+        List<Long> pairs = new ArrayList<>();
 
-                LocalTime startA = LocalTime.parse(a.getStartTime());
-                LocalTime endA   = LocalTime.parse(a.getEndTime());
-                LocalTime startB = LocalTime.parse(b.getStartTime());
-                LocalTime endB   = LocalTime.parse(b.getEndTime());
+        for (List<Integer> bucket : byDay.values()) {
 
-                boolean overlap =
-                        startA.isBefore(endB) &&
-                                startB.isBefore(endA);
+            if (!hasSeveralCourses(schedules, bucket)) continue;
 
-                if (!overlap) continue;
+            for (int i : bucket) {
+                CourseScheduleWithCourse s = schedules.get(i);
+                start[i] = requireSecond(s.startSecond(), s.getStartTime());
+                end[i] = requireSecond(s.endSecond(), s.getEndTime());
+            }
 
-                String key =
-                        a.getCourseId() +
-                                b.getCourseId() +
-                                a.getDay();
+            bucket.sort(Comparator.comparingInt(i -> start[i]));
 
-                if (seen.contains(key)) continue;
-                seen.add(key);
+            List<Integer> active = new ArrayList<>();
 
-                conflicts.add(
-                        new CourseConflict(
-                                a.getCourseId(),
-                                b.getCourseId(),
-                                a.getDay(),
-                                max(startA, startB).toString(),
-                                min(endA, endB).toString()
-                        )
-                );
+            for (int b : bucket) {
+
+                for (int k = active.size() - 1; k >= 0; k--) {
+                    int a = active.get(k);
+                    if (end[a] <= start[b]) {
+                        active.set(k, active.get(active.size() - 1));
+                        active.remove(active.size() - 1);
+                    } else if (start[a] < end[b]
+                            && !schedules.get(a).getCourseId().equals(schedules.get(b).getCourseId())) {
+                        pairs.add((long) Math.min(a, b) * n + Math.max(a, b));
+                    }
+                }
+
+                active.add(b);
             }
         }
+
+        Collections.sort(pairs);
+
+        List<CourseConflict> conflicts = new ArrayList<>();
+        Set<List<String>> seen = new HashSet<>();
+
+        for (long pair : pairs) {
+
+            int i = (int) (pair / n);
+            int j = (int) (pair % n);
+
+            CourseScheduleWithCourse a = schedules.get(i);
+            CourseScheduleWithCourse b = schedules.get(j);
+
+            if (!seen.add(List.of(a.getCourseId(), b.getCourseId(), a.getDay()))) continue;
+
+            conflicts.add(
+                    new CourseConflict(
+                            a.getCourseId(),
+                            b.getCourseId(),
+                            a.getDay(),
+                            LocalTime.ofSecondOfDay(Math.max(start[i], start[j])).toString(),
+                            LocalTime.ofSecondOfDay(Math.min(end[i], end[j])).toString()
+                    )
+            );
+        }
         return conflicts;
     }
 
     /**
-     * Retourne la valeur maximale entre deux heures.
+     * Verifie rapidement, par occupation hebdomadaire, quaucun cours ne
+     * chevauche un autre. Une occupation couvre chaque tranche touchee,
+     * donc des occupations disjointes excluent tout conflit.
+     *
+     * @param schedules liste des horaires
+     * @return vrai si aucun conflit nest possible, faux si une analyse fine est necessaire
+     */
+    private static boolean occupanciesAreDisjoint(List<CourseScheduleWithCourse> schedules) {
+
+        Map<String, WeeklyOccupancy> byCourse = new HashMap<>();
+
+        for (CourseScheduleWithCourse s : schedules) {
+            WeeklyOccupancy occupancy =
+                    byCourse.computeIfAbsent(s.getCourseId(), id -> new WeeklyOccupancy());
+            if (!s.addTo(occupancy)) {
+                return false;
+            }
+        }
+
+        WeeklyOccupancy union = new WeeklyOccupancy();
+        for (WeeklyOccupancy occupancy : byCourse.values()) {
+            if (union.intersects(occupancy)) {
+                return false;
+            }
+            union.or(occupancy);
+        }
+        return true;
+    }
+
+    /**
+     * Retourne une heure deja analysee, ou signale l heure invalide
+     * avec la meme exception que son analyse.
      *
-     * @param a premiere heure
-     * @param b seconde heure
-     * @return l heure la plus tardive
+     * @param second secondes depuis minuit, -1 si invalide
+     * @param time heure d origine
+     * @return les secondes depuis minuit
      */
-    private LocalTime max(LocalTime a, LocalTime b) {
-        return a.isAfter(b) ? a : b;
+    private static int requireSecond(int second, String time) {
+        return second >= 0 ? second : LocalTime.parse(time).toSecondOfDay();
     }
 
     /**
-     * Retourne la valeur minimale entre deux heures.
+     * Indique si des horaires dun meme jour appartiennent a au moins deux cours.
+     * Les heures des autres jours nont pas besoin detre analysees.
      *
-     * @param a premiere heure
-     * @param b seconde heure
-     * @return l heure la plus tot
+     * @param schedules liste des horaires
+     * @param bucket positions des horaires du jour
+     * @return vrai si au moins deux cours sont presents
      */
-    private LocalTime min(LocalTime a, LocalTime b) {
-        return a.isBefore(b) ? a : b;
+    private static boolean hasSeveralCourses(
+            List<CourseScheduleWithCourse> schedules,
+            List<Integer> bucket
+    ) {
+        String first = schedules.get(bucket.get(0)).getCourseId();
+        for (int i : bucket) {
+            if (!schedules.get(i).getCourseId().equals(first)) {
+                return true;
+            }
+        }
+        return false;
     }
+
 }
@@ -0,0 +1,61 @@
+package com.diro.ift2255.service;
+
+import java.util.List;
+
+/**
+ * Classe representant un cheminement propose pour terminer un programme,
+ * trimestre par trimestre, avec les cours qui nont pas pu etre places.
+ */
+public class DegreePlan {
+
+    /**
+     * Trimestres du cheminement, dans l ordre chronologique.
+     */
+    private final List<PlannedSemester> semesters;
+
+    /**
+     * Total des credits planifies.
+     */
+    private final int totalCredits;
+
+    /**
+     * Sigles des cours du programme qui nont pas pu etre places : absents
+     * du catalogue, reserves a un cycle superieur, jamais offerts ou dont
+     * les prerequis ne peuvent pas etre satisfaits.
+     */
+    private final List<String> unplannedCourses;
+
+    /**
+     * Construit un cheminement.
+     *
+     * @param semesters trimestres du cheminement
+     * @param totalCredits total des credits planifies
+     * @param unplannedCourses cours non places
+     */
+    public DegreePlan(List<PlannedSemester> semesters, int totalCredits, List<String> unplannedCourses) {
+        this.semesters = semesters;
+        this.totalCredits = totalCredits;
+        this.unplannedCourses = unplannedCourses;
+    }
+
+    /**
+     * Retourne les trimestres du cheminement.
+     *
+     * @return les trimestres
+     */
+    public List<PlannedSemester> getSemesters() { return semesters; }
+
+    /**
+     * Retourne le total des credits planifies.
+     *
+     * @return les credits
+     */
+    public int getTotalCredits() { return totalCredits; }
+
+    /**
+     * Retourne les sigles des cours non places.
+     *
+     * @return les sigles tries
+     */
+    public List<String> getUnplannedCourses() { return unplannedCourses; }
+}
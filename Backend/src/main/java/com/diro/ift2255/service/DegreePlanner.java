@@ -0,0 +1,332 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.Course;
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.model.Sigle;
+import com.diro.ift2255.util.ExpiringCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service qui propose un cheminement, trimestre par trimestre, pour terminer
+ * un programme a partir des cours deja reussis.
+ *
+ * Les cours sont places par couches topologiques sur le graphe des prerequis
+ * du catalogue local : un cours est place dans un trimestre ou il est offert
+ * des que ses exigences sont satisfaites par les trimestres precedents.
+ * Dans chaque trimestre, les cours qui ouvrent la plus longue chaine de cours
+ * dependants du programme sont places en premier, jusqu au plafond de credits.
+ * Les cheminements sont memorises par programme et releve.
+ */
+public class DegreePlanner {
+
+    /**
+     * Plafond de credits par trimestre utilise par defaut.
+     */
+    private static final int DEFAULT_MAX_CREDITS =
+            Integer.getInteger("planifium.planner.maxCredits", 15);
+
+    /**
+     * Plafond de credits par trimestre le plus eleve accepte.
+     */
+    private static final int MAX_CREDITS_LIMIT = 30;
+
+    /**
+     * Nombre maximal de trimestres examines pour un cheminement.
+     */
+    private static final int MAX_SEMESTERS =
+            Integer.getInteger("planifium.planner.maxSemesters", 30);
+
+    /**
+     * Cheminements deja calcules. La cle contient le numero de l instantane
+     * du catalogue, ce qui ecarte les cheminements calcules avant un
+     * rafraichissement sans garder les anciens instantanes en memoire.
+     */
+    private static final ExpiringCache<PlanKey, DegreePlan> PLANS =
+            new ExpiringCache<>(
+                    Integer.getInteger("planifium.cache.plans.maxSize", 500),
+                    Duration.ofSeconds(
+                            Long.getLong("planifium.cache.plans.ttlSeconds", 3600L)
+                    )
+            );
+
+    /**
+     * Service utilise pour recuperer les cours dun programme.
+     */
+    private final ProgramService programService;
+
+    /**
+     * Construit le planificateur de cheminement.
+     */
+    public DegreePlanner() {
+        this.programService = new ProgramService();
+    }
+
+    /**
+     * Propose un cheminement pour terminer un programme.
+     *
+     * @param programId identifiant du programme
+     * @param completedCourses liste des cours completes
+     * @param cycle cycle detudes
+     * @param start premier trimestre du cheminement, par exemple A25
+     * @param maxCredits plafond de credits par trimestre, ou null pour la valeur par defaut
+     * @param summer vrai pour planifier aussi les trimestres d ete
+     * @return le cheminement propose
+     * @throws IllegalArgumentException si les parametres sont invalides
+     * @throws IllegalStateException si le catalogue local nest pas encore charge
+     */
+    public DegreePlan plan(
+            String programId,
+            List<String> completedCourses,
+            int cycle,
+            String start,
+            Integer maxCredits,
+            boolean summer
+    ) {
+
+        if (programId == null || programId.isBlank()) {
+            throw new IllegalArgumentException("programId requis");
+        }
+
+        Semester startSemester = Semester.parse(start);
+        int cap = maxCredits == null ? DEFAULT_MAX_CREDITS : maxCredits;
+
+        if (cap <= 0 || cap > MAX_CREDITS_LIMIT) {
+            throw new IllegalArgumentException(
+                    "maxCredits doit etre entre 1 et " + MAX_CREDITS_LIMIT
+            );
+        }
+
+        CourseCatalogIndex catalog = CourseCatalog.shared().index();
+        if (catalog == null) {
+            throw new IllegalStateException("Catalogue local non disponible");
+        }
+
+        PlanKey key = new PlanKey(
+                catalog.generation(),
+                programId.trim(),
+                List.copyOf(normalize(completedCourses, new TreeSet<>())),
+                cycle,
+                startSemester,
+                cap,
+                summer
+        );
+
+        return PLANS.get(key, k -> plan(
+                catalog,
+                programService.getCoursesForProgram(k.programId()).stream()
+                        .map(Course::getId)
+                        .toList(),
+                k.transcript(),
+                cycle,
+                startSemester,
+                cap,
+                summer
+        ));
+    }
+
+    /**
+     * Calcule un cheminement sur un instantane du catalogue.
+     *
+     * @param catalog instantane du catalogue
+     * @param programCourses sigles des cours du programme
+     * @param completedCourses sigles des cours completes
+     * @param cycle cycle detudes
+     * @param start premier trimestre du cheminement
+     * @param maxCredits plafond de credits par trimestre
+     * @param summer vrai pour planifier aussi les trimestres d ete
+     * @return le cheminement propose
+     */
+    public static DegreePlan plan(
+            CourseCatalogIndex catalog,
+            Collection<String> programCourses,
+            Collection<String> completedCourses,
+            int cycle,
+            Semester start,
+            int maxCredits,
+            boolean summer
+    ) {
+
+        PrerequisiteGraph graph = catalog.prerequisites();
+        Set<String> completed = normalize(completedCourses, new LinkedHashSet<>());
+        long[] done = graph.completedBits(completed, false);
+
+        TreeSet<String> unplanned = new TreeSet<>();
+        List<CourseDetails> details = new ArrayList<>();
+        Map<Integer, Integer> positions = new HashMap<>();
+
+        for (String id : normalize(programCourses, new LinkedHashSet<>())) {
+            if (completed.contains(id)) continue;
+
+            CourseDetails d = catalog.get(id);
+            int node = graph.indexOf(id);
+
+            if (d == null || node < 0
+                    || EligibilityService.estimateRequiredCycle(id) > cycle
+                    || !(d.isAvailableAutumn() || d.isAvailableWinter()
+                            || (summer && d.isAvailableSummer()))) {
+                unplanned.add(id);
+                continue;
+            }
+
+            positions.put(node, details.size());
+            details.add(d);
+        }
+
+        int n = details.size();
+        int[] nodes = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>(n);
+
+        for (int t = 0; t < n; t++) {
+            nodes[t] = graph.indexOf(details.get(t).getId());
+            dependents.add(new ArrayList<>());
+        }
+        for (int t = 0; t < n; t++) {
+            for (int p : graph.dependencies(nodes[t])) {
+                Integer prereq = positions.get(p);
+                if (prereq != null) {
+                    dependents.get(prereq).add(t);
+                }
+            }
+        }
+
+        int[] chain = new int[n];
+        for (int t = 0; t < n; t++) {
+            chainLength(t, dependents, chain);
+        }
+
+        Integer[] order = new Integer[n];
+        for (int t = 0; t < n; t++) order[t] = t;
+        Arrays.sort(order, Comparator
+                .comparingInt((Integer t) -> -chain[t])
+                .thenComparingInt(t -> -details.get(t).getCredits())
+                .thenComparing(t -> graph.sigle(nodes[t])));
+
+        boolean[] placed = new boolean[n];
+        int remaining = n;
+        int totalCredits = 0;
+        int idle = 0;
+        int rotation = summer ? 3 : 2;
+
+        List<PlannedSemester> semesters = new ArrayList<>();
+        Semester term = summer || start.getSeason() != 'E' ? start : start.next();
+
+        for (int step = 0; step < MAX_SEMESTERS && remaining > 0 && idle < rotation; step++) {
+
+            long[] next = done.clone();
+            int credits = 0;
+            List<Course> courses = new ArrayList<>();
+
+            for (int t : order) {
+                CourseDetails d = details.get(t);
+                if (placed[t]
+                        || !CourseService.isOfferedThisSemester(d, term)
+                        || !graph.isSatisfied(nodes[t], done)
+                        || (credits > 0 && credits + d.getCredits() > maxCredits)) {
+                    continue;
+                }
+                placed[t] = true;
+                remaining--;
+                credits += d.getCredits();
+                next[nodes[t] >>> 6] |= 1L << nodes[t];
+                courses.add(new Course(d.getId(), d.getName(), d.getCredits()));
+            }
+
+            if (courses.isEmpty()) {
+                idle++;
+            } else {
+                idle = 0;
+                totalCredits += credits;
+                semesters.add(new PlannedSemester(term.getCode(), credits, courses));
+            }
+
+            done = next;
+            term = term.next();
+            if (!summer && term.getSeason() == 'E') {
+                term = term.next();
+            }
+        }
+
+        for (int t = 0; t < n; t++) {
+            if (!placed[t]) {
+                unplanned.add(graph.sigle(nodes[t]));
+            }
+        }
+
+        return new DegreePlan(semesters, totalCredits, List.copyOf(unplanned));
+    }
+
+    /**
+     * Calcule la longueur de la plus longue chaine de cours du programme
+     * qui commence par un cours. Un cycle de prerequis est coupe a la
+     * premiere visite repetee.
+     *
+     * @param t position du cours
+     * @param dependents cours qui dependent de chaque cours
+     * @param chain longueurs deja calculees, 0 si inconnue, -1 si en cours
+     * @return la longueur de la chaine
+     */
+    private static int chainLength(int t, List<List<Integer>> dependents, int[] chain) {
+
+        if (chain[t] != 0) {
+            return Math.max(chain[t], 0);
+        }
+
+        chain[t] = -1;
+        int longest = 0;
+        for (int next : dependents.get(t)) {
+            longest = Math.max(longest, chainLength(next, dependents, chain));
+        }
+        chain[t] = longest + 1;
+        return chain[t];
+    }
+
+    /**
+     * Normalise des sigles et les ajoute a un ensemble.
+     *
+     * @param sigles sigles bruts
+     * @param target ensemble a completer
+     * @return l ensemble complete
+     */
+    private static <S extends Set<String>> S normalize(Collection<String> sigles, S target) {
+        if (sigles != null) {
+            sigles.stream()
+                    .map(Sigle::normalize)
+                    .filter(s -> s != null)
+                    .forEach(target::add);
+        }
+        return target;
+    }
+
+    /**
+     * Cle dun cheminement memorise.
+     *
+     * @param generation numero de l instantane du catalogue
+     * @param programId identifiant du programme
+     * @param transcript sigles completes, tries et sans doublon
+     * @param cycle cycle detudes
+     * @param start premier trimestre
+     * @param maxCredits plafond de credits par trimestre
+     * @param summer vrai si les trimestres d ete sont planifies
+     */
+    private record PlanKey(
+            long generation,
+            String programId,
+            List<String> transcript,
+            int cycle,
+            Semester start,
+            int maxCredits,
+            boolean summer
+    ) {}
+}
@@ -1,11 +1,23 @@
 package com.diro.ift2255.service;
 
+import com.diro.ift2255.model.Course;
 import com.diro.ift2255.model.CourseDetails;
 import com.diro.ift2255.model.EligibilityResult;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.model.Sigle;
+import com.diro.ift2255.util.ExpiringCache;
+import com.diro.ift2255.util.TranscriptFingerprint;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service responsable de la verification de ladmissibilite a un cours.
@@ -14,11 +26,48 @@ import java.util.stream.Collectors;
  */
 public class EligibilityService {
 
+    /**
+     * Poids estime, en octets, dune entree du cache des resultats sans
+     * sa liste de prerequis manquants : cle, entree et resultat.
+     */
+    private static final long RESULT_BYTES = 160;
+
+    /**
+     * Poids estime, en octets, de chaque prerequis manquant dun resultat.
+     */
+    private static final long MISSING_BYTES = 64;
+
+    /**
+     * Resultats deja calcules, par cours, empreinte du releve, cycle et mode.
+     * Le cache est borne par la taille estimee de ses entrees ; les entrees
+     * dont les prerequis changent sont retirees a chaque rechargement du catalogue,
+     * et un resultat dont le calcul a commence avant ce retrait nest pas conserve.
+     */
+    private static final ExpiringCache<ResultKey, EligibilityResult> RESULTS =
+            new ExpiringCache<>(
+                    Integer.getInteger("planifium.cache.eligibility.maxSize", 100_000),
+                    Long.getLong("planifium.cache.eligibility.maxBytes", 4L << 20),
+                    EligibilityService::estimateBytes,
+                    Duration.ofSeconds(
+                            Long.getLong("planifium.cache.eligibility.ttlSeconds", 900L)
+                    ),
+                    System::nanoTime
+            );
+
+    static {
+        CourseCatalog.shared().addRefreshListener(EligibilityService::invalidateChanged);
+    }
+
     /**
      * Service utilise pour acceder aux details des cours.
      */
     private final CourseService courseService;
 
+    /**
+     * Service utilise pour recuperer les cours dun programme.
+     */
+    private final ProgramService programService = new ProgramService();
+
     /**
      * Construit le service de verification de ladmissibilite.
      *
@@ -31,7 +80,6 @@ public class EligibilityService {
     /**
      * Verifie ladmissibilite a un cours en fonction des cours completes
      * et du cycle detudes fourni.
-     *
      * @param courseId identifiant du cours
      * @param completedCourses liste des cours completes
      * @param cycle cycle detudes
@@ -42,30 +90,87 @@ public class EligibilityService {
             List<String> completedCourses,
             int cycle
     ) {
+        return checkEligibility(courseId, completedCourses, cycle, false);
+    }
 
-        CourseDetails course =
-                courseService.getCourseDetails(courseId);
+    /**
+     * Verifie ladmissibilite a un cours en fonction des cours completes
+     * et du cycle detudes fourni.
+     * Lorsque le catalogue local est charge, les prerequis sont lus dans son
+     * graphe sans appel a l api externe. En mode transitif, les prerequis
+     * indirects sont aussi verifies, un cours complete satisfaisant ses
+     * propres prerequis.
+     * @param courseId identifiant du cours
+     * @param completedCourses liste des cours completes
+     * @param cycle cycle detudes
+     * @param transitive vrai pour verifier aussi les prerequis indirects
+     * @return le resultat de la verification dadmissibilite
+     */
+    public EligibilityResult checkEligibility(
+            String courseId,
+            List<String> completedCourses,
+            int cycle,
+            boolean transitive
+    ) {
+        return checkEligibility(courseId, TranscriptFingerprint.of(completedCourses), cycle, transitive);
+    }
 
-        List<String> completedNormalized =
-                completedCourses.stream()
-                        .map(String::trim)
-                        .map(String::toUpperCase)
-                        .collect(Collectors.toList());
+    /**
+     * Verifie ladmissibilite a un cours pour un releve deja mis sous forme
+     * canonique. Le resultat est memorise par cours, empreinte du releve,
+     * cycle et mode, tant que les prerequis du cours ne changent pas.
+     * @param courseId identifiant du cours
+     * @param transcript releve canonique des cours completes
+     * @param cycle cycle detudes
+     * @param transitive vrai pour verifier aussi les prerequis indirects
+     * @return le resultat de la verification dadmissibilite
+     * @throws IllegalArgumentException si le cours est absent
+     */
+    public EligibilityResult checkEligibility(
+            String courseId,
+            TranscriptFingerprint transcript,
+            int cycle,
+            boolean transitive
+    ) {
+
+        if (courseId == null || courseId.isBlank()) {
+            throw new IllegalArgumentException("course requis");
+        }
 
-        List<String> missing = new ArrayList<>();
+        ResultKey key = new ResultKey(
+                Sigle.normalize(courseId),
+                transcript.getHigh(),
+                transcript.getLow(),
+                cycle,
+                transitive
+        );
 
-        for (String prereq : course.getPrerequisiteCourses()) {
-            String prereqNormalized = prereq.trim().toUpperCase();
+        return RESULTS.get(key, k ->
+                evaluate(k.course(), transcript.getCourses(), cycle, transitive));
+    }
 
-            if (!completedNormalized.contains(prereqNormalized)) {
-                missing.add(prereq);
-            }
-        }
+    /**
+     * Calcule le resultat dune verification dadmissibilite, sans memorisation.
+     * @param courseId identifiant du cours
+     * @param completedCourses liste des cours completes
+     * @param cycle cycle detudes
+     * @param transitive vrai pour verifier aussi les prerequis indirects
+     * @return le resultat de la verification dadmissibilite
+     */
+    private EligibilityResult evaluate(
+            String courseId,
+            List<String> completedCourses,
+            int cycle,
+            boolean transitive
+    ) {
+
+        List<String> missing =
+                missingPrerequisites(courseId, completedCourses, transitive);
 
         if (!missing.isEmpty()) {
             return new EligibilityResult(
                     false,
-                    missing,
+                    List.copyOf(missing),
                     "Prerequis manquants"
             );
         }
@@ -88,21 +193,210 @@ public class EligibilityService {
     }
 
     /**
-     * Estime le cycle minimal requis pour suivre un cours.
-     *
+     * Retourne tous les cours du catalogue auxquels un etudiant est admissible,
+     * selon les memes regles que checkEligibility en mode direct.
+     * Les filtres sont verifies et le programme est recupere avant le retour ;
+     * les cours sont ensuite produits par sigle a mesure que le flux est lu.
+     * @param completedCourses liste des cours completes
+     * @param cycle cycle detudes
+     * @param programId programme auquel limiter les cours, ou null
+     * @param semester trimestre auquel limiter les cours, ou null
+     * @return les cours admissibles non encore completes
+     * @throws IllegalArgumentException si le trimestre est invalide
+     * @throws IllegalStateException si le catalogue local nest pas encore charge
+     */
+    public Stream<Course> eligibleCourses(
+            List<String> completedCourses,
+            int cycle,
+            String programId,
+            String semester
+    ) {
+
+        Semester parsedSemester = semester == null ? null : Semester.parse(semester);
+
+        CourseCatalogIndex catalog = CourseCatalog.shared().index();
+        if (catalog == null) {
+            throw new IllegalStateException("Catalogue local non disponible");
+        }
+
+        Set<String> programCourses = programId == null
+                ? null
+                : programService.getCoursesForProgram(programId).stream()
+                        .map(c -> Sigle.normalize(c.getId()))
+                        .collect(Collectors.toSet());
+
+        return catalog.prerequisites()
+                .availableCourses(completedCourses)
+                .filter(id -> cycle >= estimateRequiredCycle(id))
+                .filter(id -> programCourses == null || programCourses.contains(id))
+                .map(catalog::get)
+                .filter(d -> d != null)
+                .filter(d -> parsedSemester == null
+                        || CourseService.isOfferedThisSemester(d, parsedSemester))
+                .map(d -> new Course(d.getId(), d.getName(), d.getCredits()));
+    }
+
+    /**
+     * Retourne les prerequis manquants dun cours.
+     * Le graphe du catalogue local est utilise sil connait le cours ;
+     * sinon les details sont demandes au service des cours et un graphe
+     * temporaire est construit, afin d appliquer les memes exigences.
      * @param courseId identifiant du cours
-     * @return le cycle requis
+     * @param completedCourses liste des cours completes
+     * @param transitive vrai pour inclure les prerequis indirects
+     * @return les prerequis manquants
+     */
+    private List<String> missingPrerequisites(
+            String courseId,
+            List<String> completedCourses,
+            boolean transitive
+    ) {
+
+        CourseCatalogIndex catalog = CourseCatalog.shared().index();
+        if (catalog != null && catalog.prerequisites().contains(courseId)) {
+            return catalog.prerequisites()
+                    .missingPrerequisites(courseId, completedCourses, transitive);
+        }
+
+        CourseDetails course =
+                courseService.getCourseDetails(courseId);
+
+        if (transitive) {
+            Map<String, CourseDetails> details = new HashMap<>();
+            details.put(Sigle.normalize(courseId), course);
+            collectPrerequisites(course, details);
+            return PrerequisiteGraph.build(details.values())
+                    .missingPrerequisites(courseId, completedCourses, true);
+        }
+
+        return PrerequisiteGraph.build(List.of(course))
+                .missingPrerequisites(courseId, completedCourses, false);
+    }
+
+    /**
+     * Recupere les details de tous les prerequis dun cours, directs et indirects,
+     * lorsque le catalogue local nest pas disponible.
+     * @param course cours de depart
+     * @param details details deja connus, completes par sigle normalise
+     */
+    private void collectPrerequisites(
+            CourseDetails course,
+            Map<String, CourseDetails> details
+    ) {
+
+        Deque<CourseDetails> pending = new ArrayDeque<>();
+        pending.push(course);
+
+        while (!pending.isEmpty()) {
+            CourseDetails current = pending.pop();
+            for (String prereq : current.getPrerequisiteCourses()) {
+                String key = Sigle.normalize(prereq);
+                if (key == null || details.containsKey(key)) continue;
+                CourseDetails d = courseService.getCourseDetails(key);
+                details.put(key, d);
+                pending.push(d);
+            }
+        }
+    }
+
+    /**
+     * Retire des resultats memorises ceux dont les prerequis ont change entre
+     * deux instantanes du catalogue. En mode direct, seuls les cours modifies,
+     * ajoutes ou retires sont touches. En mode transitif, les prerequis des
+     * cours completes sont aussi pris en compte, donc tout resultat transitif
+     * peut dependre dun cours modifie et tous sont retires.
+     * Les cours touches sont determines avant de parcourir le cache, afin de
+     * ne pas bloquer les lectures pendant leur calcul.
+     * Au premier chargement, tous les resultats obtenus sans catalogue sont retires.
+     * @param previous ancien index, ou null
+     * @param current nouvel index
      */
-    private int estimateRequiredCycle(String courseId) {
+    private static void invalidateChanged(CourseCatalogIndex previous, CourseCatalogIndex current) {
 
-        if (courseId.matches(".*[3-4][0-9]{3}$")) {
-            return 3;
+        if (previous == null) {
+            RESULTS.invalidateAll();
+            return;
         }
 
-        if (courseId.matches(".*2[0-9]{3}$")) {
-            return 2;
+        Map<String, PrerequisiteSignature> before = signatures(previous);
+        Map<String, PrerequisiteSignature> after = signatures(current);
+
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, PrerequisiteSignature> e : after.entrySet()) {
+            if (!e.getValue().equals(before.get(e.getKey()))) {
+                changed.add(e.getKey());
+            }
+        }
+        for (String id : before.keySet()) {
+            if (!after.containsKey(id)) {
+                changed.add(id);
+            }
+        }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        RESULTS.invalidateIf(k -> k.transitive() || changed.contains(k.course()));
+    }
+
+    /**
+     * Retourne les prerequis de chaque cours dun instantane du catalogue.
+     * @param index instantane du catalogue
+     * @return la signature des prerequis, par sigle normalise
+     */
+    private static Map<String, PrerequisiteSignature> signatures(CourseCatalogIndex index) {
+        Map<String, PrerequisiteSignature> result = new HashMap<>();
+        for (CourseDetails d : index.all()) {
+            result.put(
+                    Sigle.normalize(d.getId()),
+                    new PrerequisiteSignature(d.getPrerequisiteCourses(), d.getRequirementText())
+            );
         }
+        return result;
+    }
+
+    /**
+     * Estime la taille en memoire dun resultat memorise.
+     * @param result resultat memorise
+     * @return la taille estimee en octets
+     */
+    private static long estimateBytes(EligibilityResult result) {
+        List<String> missing = result.getMissingPrerequisites();
+        return RESULT_BYTES + (missing == null ? 0 : missing.size() * MISSING_BYTES);
+    }
+
+    /**
+     * Cle dun resultat memorise. Le releve nest represente que par son
+     * empreinte de 128 bits, pour garder les cles petites.
+     * @param course sigle normalise du cours
+     * @param high moitie haute de l empreinte du releve
+     * @param low moitie basse de l empreinte du releve
+     * @param cycle cycle detudes
+     * @param transitive vrai en mode transitif
+     */
+    private record ResultKey(String course, long high, long low, int cycle, boolean transitive) {}
+
+    /**
+     * Donnees dun cours dont depend le resultat de ses verifications.
+     * @param prerequisites liste des prerequis
+     * @param requirementText texte des exigences
+     */
+    private record PrerequisiteSignature(List<String> prerequisites, String requirementText) {}
+
+    /**
+     * Estime le cycle minimal requis pour suivre un cours.
+     * Le planificateur de cheminement applique la meme regle.
+     *
+     * @param courseId identifiant du cours
+     * @return le cycle requis
+     */
+    static int estimateRequiredCycle(String courseId) {
 
-        return 1;
+        return switch (Sigle.levelOf(courseId)) {
+            case 3, 4 -> 3;
+            case 2 -> 2;
+            default -> 1;
+        };
     }
 }
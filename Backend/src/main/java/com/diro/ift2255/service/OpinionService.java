@@ -1,8 +1,19 @@
 package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.model.OpinionImportResult;
+import com.diro.ift2255.model.OpinionSummary;
 import com.diro.ift2255.repository.OpinionRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,7 +26,35 @@ public class OpinionService {
     /**
      * Depot utilise pour stocker les avis.
      */
-    private final OpinionRepository repository = new OpinionRepository();
+    private final OpinionRepository repository;
+
+    /**
+     * Nombre davis ajoutes a la fois lors dun import.
+     */
+    private static final int IMPORT_BATCH_SIZE =
+            Integer.getInteger("planifium.opinions.importBatchSize", 1000);
+
+    /**
+     * Outil de lecture json des imports.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Construit le service avec un depot en memoire.
+     */
+    public OpinionService() {
+        this(new OpinionRepository());
+    }
+
+    /**
+     * Construit le service avec un depot donne.
+     *
+     * @param repository depot des avis
+     */
+    public OpinionService(OpinionRepository repository) {
+        this.repository = repository;
+    }
 
     /**
      * Ajoute un avis apres validation des donnees fournies.
@@ -24,6 +63,89 @@ public class OpinionService {
      * @throws IllegalArgumentException si lavis est invalide
      */
     public void addOpinion(Opinion opinion) {
+        validate(opinion);
+        repository.add(opinion);
+    }
+
+    /**
+     * Importe des avis depuis un tableau json ou des objets json separes
+     * par des sauts de ligne (ndjson). Le corps est lu en flux : chaque avis
+     * est valide comme dans addOpinion, puis les avis sont ajoutes par lots.
+     * Les avis dont le message_id est deja connu sont ignores.
+     *
+     * @param body corps de la requete
+     * @return le bilan de l import
+     */
+    public OpinionImportResult importOpinions(InputStream body) {
+
+        OpinionImportResult result = new OpinionImportResult();
+        List<Opinion> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && token != JsonToken.END_ARRAY) {
+
+                JsonNode node = parser.readValueAsTree();
+                result.recordReceived();
+
+                try {
+                    if (node == null || !node.isObject()) {
+                        throw new IllegalArgumentException("Opinion invalide");
+                    }
+                    Opinion opinion = MAPPER.treeToValue(node, Opinion.class);
+                    validate(opinion);
+                    batch.add(opinion);
+                } catch (IllegalArgumentException e) {
+                    result.recordRejected(e.getMessage());
+                } catch (JsonProcessingException e) {
+                    result.recordRejected("Champs de l avis invalides");
+                }
+
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    flush(batch, result);
+                }
+
+                token = parser.nextToken();
+            }
+
+        } catch (JsonProcessingException e) {
+            result.setFatalError("JSON invalide apres " + result.getReceived()
+                    + " avis : " + e.getOriginalMessage());
+        } catch (IOException e) {
+            result.setFatalError("Lecture du corps interrompue : " + e.getMessage());
+        } finally {
+            flush(batch, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Ajoute un lot davis valides et vide le lot.
+     *
+     * @param batch lot davis
+     * @param result bilan a completer
+     */
+    private void flush(List<Opinion> batch, OpinionImportResult result) {
+        if (!batch.isEmpty()) {
+            result.recordBatch(batch.size(), repository.addAllIfAbsent(batch));
+            batch.clear();
+        }
+    }
+
+    /**
+     * Valide les donnees dun avis.
+     *
+     * @param opinion avis a valider
+     * @throws IllegalArgumentException si lavis est invalide
+     */
+    private void validate(Opinion opinion) {
 
         if (opinion == null) {
             throw new IllegalArgumentException("Opinion invalide");
@@ -36,8 +158,6 @@ public class OpinionService {
         if (opinion.getText() == null || opinion.getText().isBlank()) {
             throw new IllegalArgumentException("texte de l avis requis");
         }
-
-        repository.add(opinion);
     }
 
     /**
@@ -57,4 +177,77 @@ public class OpinionService {
         );
     }
 
+    /**
+     * Retourne le resume des avis dun cours.
+     *
+     * @param courseCode code du cours
+     * @return le resume, vide si le cours na aucun avis
+     * @throws IllegalArgumentException si le code du cours est absent
+     */
+    public OpinionSummary getSummary(String courseCode) {
+
+        if (courseCode == null || courseCode.isBlank()) {
+            throw new IllegalArgumentException("course requis");
+        }
+
+        return repository.summary(courseCode);
+    }
+
+    /**
+     * Retourne les resumes des avis de tous les cours.
+     *
+     * @return les resumes tries par code de cours
+     */
+    public List<OpinionSummary> getSummaries() {
+        return repository.summaries();
+    }
+
+    /**
+     * Retourne les avis correspondant a tous les criteres fournis.
+     * La recherche part de l index le plus selectif puis filtre
+     * selon les autres criteres.
+     *
+     * @param courseCode code du cours, ou null
+     * @param professorName nom du professeur, ou null
+     * @param authorId identifiant de l auteur, ou null
+     * @return la liste des avis, vide si aucun critere nest fourni
+     */
+    public List<Opinion> findOpinions(String courseCode, String professorName, String authorId) {
+
+        String course = OpinionRepository.courseKey(courseCode);
+        String professor = OpinionRepository.professorKey(professorName);
+        String author = OpinionRepository.authorKey(authorId);
+
+        List<Opinion> best = null;
+        if (course != null) {
+            best = repository.findByCourseCode(course);
+        }
+        if (professor != null) {
+            best = smallest(best, repository.findByProfessor(professor));
+        }
+        if (author != null) {
+            best = smallest(best, repository.findByAuthor(author));
+        }
+
+        if (best == null) {
+            return List.of();
+        }
+
+        return best.stream()
+                .filter(o -> course == null || course.equals(OpinionRepository.courseKey(o.getCourse_code())))
+                .filter(o -> professor == null || professor.equals(OpinionRepository.professorKey(o.getProfessor_name())))
+                .filter(o -> author == null || author.equals(OpinionRepository.authorKey(o.getAuthor_id())))
+                .toList();
+    }
+
+    /**
+     * Retourne la plus courte de deux listes.
+     *
+     * @param current liste courante, ou null
+     * @param candidate liste candidate
+     * @return la plus courte des deux
+     */
+    private static List<Opinion> smallest(List<Opinion> current, List<Opinion> candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
 }
@@ -0,0 +1,61 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.Course;
+
+import java.util.List;
+
+/**
+ * Classe representant un trimestre dun cheminement planifie et les cours
+ * qui y sont places.
+ */
+public class PlannedSemester {
+
+    /**
+     * Code du trimestre, par exemple A25.
+     */
+    private final String semester;
+
+    /**
+     * Total des credits du trimestre.
+     */
+    private final int credits;
+
+    /**
+     * Cours places dans le trimestre.
+     */
+    private final List<Course> courses;
+
+    /**
+     * Construit un trimestre planifie.
+     *
+     * @param semester code du trimestre
+     * @param credits total des credits
+     * @param courses cours places
+     */
+    public PlannedSemester(String semester, int credits, List<Course> courses) {
+        this.semester = semester;
+        this.credits = credits;
+        this.courses = courses;
+    }
+
+    /**
+     * Retourne le code du trimestre.
+     *
+     * @return le code du trimestre
+     */
+    public String getSemester() { return semester; }
+
+    /**
+     * Retourne le total des credits du trimestre.
+     *
+     * @return les credits
+     */
+    public int getCredits() { return credits; }
+
+    /**
+     * Retourne les cours places dans le trimestre.
+     *
+     * @return les cours
+     */
+    public List<Course> getCourses() { return courses; }
+}
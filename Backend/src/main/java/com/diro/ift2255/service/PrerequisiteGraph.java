@@ -0,0 +1,457 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.Sigle;
+import com.diro.ift2255.util.CompactBitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Graphe immuable des prerequis dun instantane du catalogue.
+ * Chaque sigle recoit un numero dense, dans l ordre alphabetique, et la
+ * fermeture transitive des prerequis de chaque cours est precalculee sous
+ * forme densemble de bits compact. Les cycles, qui ne devraient pas exister
+ * dans un catalogue valide, sont detectes et toleres : les cours dun meme
+ * cycle sont prerequis les uns des autres.
+ * Le texte des exigences de chaque cours est compile une seule fois en
+ * {@link RequirementExpression} ; il remplace la liste des prerequis directs
+ * pour les verifications non transitives, ce qui respecte les alternatives
+ * "ou". La fermeture transitive reste calculee sur la liste des prerequis.
+ */
+public class PrerequisiteGraph {
+
+    /**
+     * Sigles normalises, indices par numero.
+     */
+    private final String[] sigles;
+
+    /**
+     * Numero de chaque sigle normalise.
+     */
+    private final Map<String, Integer> ids;
+
+    /**
+     * Prerequis directs de chaque cours, dans l ordre du catalogue.
+     */
+    private final int[][] direct;
+
+    /**
+     * Vrai pour les cours presents dans le catalogue, faux pour ceux
+     * qui napparaissent que comme prerequis.
+     */
+    private final boolean[] inCatalog;
+
+    /**
+     * Exigences compilees de chaque cours, null si le texte est absent
+     * ou illisible.
+     */
+    private final RequirementExpression[] requirements;
+
+    /**
+     * Fermeture transitive des prerequis de chaque cours.
+     */
+    private final CompactBitSet[] closure;
+
+    /**
+     * Sigles des cours faisant partie dun cycle de prerequis.
+     */
+    private final List<String> cyclicCourses;
+
+    private PrerequisiteGraph(
+            String[] sigles,
+            Map<String, Integer> ids,
+            int[][] direct,
+            boolean[] inCatalog,
+            RequirementExpression[] requirements
+    ) {
+        this.sigles = sigles;
+        this.ids = ids;
+        this.direct = direct;
+        this.inCatalog = inCatalog;
+        this.requirements = requirements;
+        this.closure = new CompactBitSet[sigles.length];
+
+        List<String> cyclic = new ArrayList<>();
+        computeClosures(cyclic);
+        cyclic.sort(null);
+        this.cyclicCourses = List.copyOf(cyclic);
+    }
+
+    /**
+     * Construit le graphe a partir des cours du catalogue.
+     *
+     * @param catalog cours du catalogue
+     * @return le graphe construit
+     */
+    public static PrerequisiteGraph build(Collection<CourseDetails> catalog) {
+
+        TreeSet<String> all = new TreeSet<>();
+        for (CourseDetails d : catalog) {
+            String id = normalize(d.getId());
+            if (id == null) continue;
+            all.add(id);
+            all.addAll(RequirementExpression.sigles(d.getRequirementText()));
+            if (d.getPrerequisiteCourses() == null) continue;
+            for (String p : d.getPrerequisiteCourses()) {
+                String prereq = normalize(p);
+                if (prereq != null) {
+                    all.add(prereq);
+                }
+            }
+        }
+
+        String[] sigles = all.toArray(new String[0]);
+        Map<String, Integer> ids = new HashMap<>(sigles.length * 2);
+        for (int i = 0; i < sigles.length; i++) {
+            ids.put(sigles[i], i);
+        }
+
+        int[][] direct = new int[sigles.length][];
+        boolean[] inCatalog = new boolean[sigles.length];
+        RequirementExpression[] requirements = new RequirementExpression[sigles.length];
+
+        for (CourseDetails d : catalog) {
+            String id = normalize(d.getId());
+            if (id == null) continue;
+            int v = ids.get(id);
+            if (inCatalog[v]) continue;
+            inCatalog[v] = true;
+
+            List<String> prereqs = d.getPrerequisiteCourses() == null ? List.of() : d.getPrerequisiteCourses();
+            direct[v] = prereqs.stream()
+                    .map(PrerequisiteGraph::normalize)
+                    .filter(p -> p != null)
+                    .mapToInt(ids::get)
+                    .distinct()
+                    .toArray();
+            requirements[v] = RequirementExpression.compile(d.getRequirementText(), ids::get);
+        }
+
+        for (int v = 0; v < direct.length; v++) {
+            if (direct[v] == null) {
+                direct[v] = new int[0];
+            }
+        }
+
+        return new PrerequisiteGraph(sigles, ids, direct, inCatalog, requirements);
+    }
+
+    /**
+     * Normalise un sigle.
+     *
+     * @param sigle sigle brut
+     * @return le sigle en majuscules sans espaces, ou null sil est vide
+     */
+    private static String normalize(String sigle) {
+        return Sigle.normalize(sigle);
+    }
+
+    /**
+     * Retourne le numero dun sigle.
+     *
+     * @param sigle sigle brut
+     * @return le numero, ou null si le sigle est inconnu
+     */
+    private Integer idOf(String sigle) {
+        String key = normalize(sigle);
+        return key == null ? null : ids.get(key);
+    }
+
+    /**
+     * Retourne le numero dun sigle.
+     *
+     * @param sigle sigle brut
+     * @return le numero, ou -1 si le sigle est inconnu
+     */
+    int indexOf(String sigle) {
+        Integer id = idOf(sigle);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Retourne le sigle normalise dun numero.
+     *
+     * @param id numero du sigle
+     * @return le sigle
+     */
+    String sigle(int id) {
+        return sigles[id];
+    }
+
+    /**
+     * Retourne les cours dont un cours depend directement : ses prerequis
+     * et tous les cours cites par ses exigences, alternatives comprises.
+     *
+     * @param id numero du cours
+     * @return les numeros des cours, sans doublon
+     */
+    int[] dependencies(int id) {
+        if (requirements[id] == null) {
+            return direct[id];
+        }
+        return IntStream.concat(IntStream.of(direct[id]), IntStream.of(requirements[id].courses()))
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Indique si un cours fait partie du catalogue.
+     *
+     * @param sigle sigle du cours
+     * @return vrai si le cours est connu du catalogue
+     */
+    public boolean contains(String sigle) {
+        Integer id = idOf(sigle);
+        return id != null && inCatalog[id];
+    }
+
+    /**
+     * Retourne le nombre de sigles du graphe, prerequis externes compris.
+     *
+     * @return le nombre de sigles
+     */
+    public int size() {
+        return sigles.length;
+    }
+
+    /**
+     * Retourne les sigles des cours faisant partie dun cycle de prerequis.
+     *
+     * @return les sigles tries
+     */
+    public List<String> getCyclicCourses() {
+        return cyclicCourses;
+    }
+
+    /**
+     * Retourne tous les prerequis dun cours, directs et indirects.
+     *
+     * @param sigle sigle du cours
+     * @return les sigles tries, vide si le cours est inconnu
+     */
+    public List<String> allPrerequisites(String sigle) {
+        return missingPrerequisites(sigle, List.of(), true);
+    }
+
+    /**
+     * Retourne les prerequis dun cours qui ne sont pas satisfaits par un releve.
+     * En mode direct, les exigences compilees du cours sont utilisees si elles
+     * existent et seule l alternative la moins couteuse est retournee pour un "ou".
+     * En mode transitif, un cours reussi satisfait aussi tous ses propres prerequis.
+     *
+     * @param sigle sigle du cours vise
+     * @param completed sigles des cours reussis
+     * @param transitive vrai pour inclure les prerequis indirects
+     * @return les prerequis manquants, dans l ordre du catalogue pour les
+     *         prerequis directs et par sigle en mode transitif
+     */
+    public List<String> missingPrerequisites(
+            String sigle,
+            Collection<String> completed,
+            boolean transitive
+    ) {
+
+        Integer target = idOf(sigle);
+        if (target == null) {
+            return List.of();
+        }
+
+        long[] satisfied = completedBits(completed, transitive);
+
+        List<String> missing = new ArrayList<>();
+
+        if (!transitive && requirements[target] != null) {
+            for (int p : requirements[target].missing(satisfied)) {
+                missing.add(sigles[p]);
+            }
+            return missing;
+        }
+
+        if (!transitive) {
+            for (int p : direct[target]) {
+                if (!isSet(satisfied, p)) {
+                    missing.add(sigles[p]);
+                }
+            }
+            return missing;
+        }
+
+        for (int p : closure[target].andNot(satisfied)) {
+            if (p != target) {
+                missing.add(sigles[p]);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Retourne, en une seule passe sur le graphe, les cours du catalogue
+     * non encore reussis dont les exigences, ou a defaut tous les prerequis
+     * directs, sont satisfaites.
+     * Les cours sont produits par sigle, a mesure que le flux est lu.
+     *
+     * @param completed sigles des cours reussis
+     * @return les sigles des cours accessibles
+     */
+    public Stream<String> availableCourses(Collection<String> completed) {
+
+        long[] done = completedBits(completed, false);
+
+        return IntStream.range(0, sigles.length)
+                .filter(v -> inCatalog[v] && !isSet(done, v) && isSatisfied(v, done))
+                .mapToObj(v -> sigles[v]);
+    }
+
+    /**
+     * Convertit un releve en bits indices par numero de sigle.
+     * Les sigles inconnus du graphe sont ignores.
+     *
+     * @param completed sigles des cours reussis
+     * @param transitive vrai pour ajouter les prerequis de chaque cours reussi
+     * @return les bits des cours consideres comme reussis
+     */
+    long[] completedBits(Collection<String> completed, boolean transitive) {
+
+        long[] bits = new long[(sigles.length + Long.SIZE - 1) / Long.SIZE];
+        for (String c : completed) {
+            Integer id = idOf(c);
+            if (id == null) continue;
+            bits[id >>> 6] |= 1L << id;
+            if (transitive) {
+                closure[id].orInto(bits);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Indique si les exigences directes dun cours sont satisfaites.
+     *
+     * @param v numero du cours
+     * @param done bits des cours reussis
+     * @return vrai si le cours est accessible
+     */
+    boolean isSatisfied(int v, long[] done) {
+        return requirements[v] != null
+                ? requirements[v].isSatisfied(done)
+                : allSet(done, direct[v]);
+    }
+
+    private static boolean isSet(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static boolean allSet(long[] bits, int[] ids) {
+        for (int i : ids) {
+            if (!isSet(bits, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calcule les composantes fortement connexes (algorithme de Tarjan,
+     * sans recursion) et la fermeture de chacune. Une composante est emise
+     * apres toutes celles dont elle depend, ce qui permet de reutiliser
+     * leurs fermetures deja calculees.
+     *
+     * @param cyclic liste a completer avec les cours faisant partie dun cycle
+     */
+    private void computeClosures(List<String> cyclic) {
+
+        int n = sigles.length;
+        int words = (n + Long.SIZE - 1) / Long.SIZE;
+
+        int[] index = new int[n];
+        int[] low = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int sp = 0;
+
+        int[] callStack = new int[n];
+        int[] edge = new int[n];
+        int counter = 0;
+
+        for (int root = 0; root < n; root++) {
+
+            if (index[root] >= 0) continue;
+
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = counter++;
+            stack[sp++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+
+                int v = callStack[depth - 1];
+
+                if (edge[v] < direct[v].length) {
+                    int w = direct[v][edge[v]++];
+                    if (index[w] < 0) {
+                        index[w] = low[w] = counter++;
+                        stack[sp++] = w;
+                        onStack[w] = true;
+                        callStack[depth++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+
+                if (low[v] != index[v]) continue;
+
+                int from = sp;
+                do {
+                    from--;
+                } while (stack[from] != v);
+
+                long[] bits = new long[words];
+                boolean cycle = sp - from > 1;
+
+                for (int k = from; k < sp; k++) {
+                    int member = stack[k];
+                    for (int p : direct[member]) {
+                        if (onStack[p]) {
+                            cycle |= p == member;
+                        } else {
+                            bits[p >>> 6] |= 1L << p;
+                            closure[p].orInto(bits);
+                        }
+                    }
+                }
+
+                if (cycle) {
+                    for (int k = from; k < sp; k++) {
+                        int member = stack[k];
+                        bits[member >>> 6] |= 1L << member;
+                        cyclic.add(sigles[member]);
+                    }
+                }
+
+                CompactBitSet set = CompactBitSet.of(bits);
+                for (int k = from; k < sp; k++) {
+                    closure[stack[k]] = set;
+                    onStack[stack[k]] = false;
+                }
+                sp = from;
+            }
+        }
+    }
+}
@@ -2,13 +2,15 @@ package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.Course;
 import com.diro.ift2255.util.HttpClientApi;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service responsable de la recuperation des cours associes a un programme.
@@ -27,11 +29,6 @@ public class ProgramService {
      */
     private final HttpClientApi http = new HttpClientApi();
 
-    /**
-     * Outil de traitement des donnees json.
-     */
-    private final ObjectMapper mapper = new ObjectMapper();
-
     /**
      * Recupere la liste des cours associes a un programme.
      *
@@ -47,49 +44,173 @@ public class ProgramService {
         }
 
         try {
-            String url =
-                    BASE_URL
-                            + "/programs?programs_list="
-                            + programId
-                            + "&include_courses_detail=true";
-
-            String json = http.get(url);
-            JsonNode root = mapper.readTree(json);
-
-            JsonNode programs = root.get("programs");
-            if (programs == null || programs.isEmpty()) {
-                return List.of();
-            }
+            return http.getStreaming(programUrl(programId), this::readProgramCourses);
+
+        } catch (Exception e) {
+            throw new RuntimeException(
+                    "Erreur recuperation cours du programme " + programId,
+                    e
+            );
+        }
+    }
+
+    /**
+     * Recupere la liste des cours associes a un programme sans bloquer
+     * le thread appelant.
+     *
+     * @param programId identifiant du programme
+     * @return la liste des cours du programme une fois recue
+     */
+    public CompletableFuture<List<Course>> getCoursesForProgramAsync(String programId) {
+
+        if (programId == null || programId.isBlank()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("programId requis")
+            );
+        }
+
+        return http.getStreamingAsync(programUrl(programId), this::readProgramCourses)
+                .handle((courses, error) -> {
+                    if (error != null) {
+                        throw new RuntimeException(
+                                "Erreur recuperation cours du programme " + programId,
+                                error
+                        );
+                    }
+                    return courses;
+                });
+    }
+
+    /**
+     * Construit l adresse des cours dun programme.
+     *
+     * @param programId identifiant du programme
+     * @return l adresse a appeler
+     */
+    private String programUrl(String programId) {
+        return BASE_URL
+                + "/programs?programs_list="
+                + programId
+                + "&include_courses_detail=true";
+    }
+
+    /**
+     * Extrait en flux les cours dun programme a partir de la reponse de l api.
+     * Seuls les sigles du premier programme ainsi que l identifiant, le nom
+     * et les credits de chaque cours sont conserves, le reste du catalogue
+     * est saute jeton par jeton.
+     *
+     * @param parser parseur json de la reponse
+     * @return la liste des cours du programme
+     * @throws IOException si la lecture echoue
+     */
+    private List<Course> readProgramCourses(JsonParser parser) throws IOException {
+
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return List.of();
+        }
+
+        Set<String> programCourseIds = new HashSet<>();
+        List<Course> candidates = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
 
-            Set<String> programCourseIds = new HashSet<>();
-            for (JsonNode c : programs.get(0).get("courses")) {
-                programCourseIds.add(c.asText());
+            if (field.equals("programs") && value == JsonToken.START_ARRAY) {
+                readFirstProgramCourseIds(parser, programCourseIds);
+            } else if (field.equals("courses") && value == JsonToken.START_ARRAY) {
+                readCourseCandidates(parser, candidates);
+            } else {
+                parser.skipChildren();
             }
+        }
 
-            JsonNode allCourses = root.get("courses");
-            if (allCourses == null) {
-                return List.of();
+        List<Course> result = new ArrayList<>();
+        for (Course c : candidates) {
+            if (programCourseIds.contains(c.getId())) {
+                result.add(c);
             }
+        }
 
-            List<Course> result = new ArrayList<>();
+        return result;
+    }
 
-            for (JsonNode c : allCourses) {
-                String id = c.get("_id").asText();
+    /**
+     * Lit les sigles du premier programme du tableau programs.
+     *
+     * @param parser parseur positionne sur le debut du tableau
+     * @param ids ensemble recevant les sigles
+     * @throws IOException si la lecture echoue
+     */
+    private void readFirstProgramCourseIds(JsonParser parser, Set<String> ids)
+            throws IOException {
+
+        boolean first = true;
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
 
-                if (programCourseIds.contains(id)) {
-                    String name = c.get("name").asText();
-                    int credits = c.get("credits").asInt();
-                    result.add(new Course(id, name, credits));
+            if (!first || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (field.equals("courses") && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        if (parser.currentToken().isScalarValue()) {
+                            ids.add(parser.getValueAsString());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
                 }
             }
+        }
+    }
 
-            return result;
+    /**
+     * Lit l identifiant, le nom et les credits des cours du tableau courses.
+     *
+     * @param parser parseur positionne sur le debut du tableau
+     * @param candidates liste recevant les cours lus
+     * @throws IOException si la lecture echoue
+     */
+    private void readCourseCandidates(JsonParser parser, List<Course> candidates)
+            throws IOException {
 
-        } catch (Exception e) {
-            throw new RuntimeException(
-                    "Erreur recuperation cours du programme " + programId,
-                    e
-            );
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            String id = null;
+            String name = "";
+            int credits = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "_id" -> id = parser.getValueAsString();
+                    case "name" -> name = parser.getValueAsString("");
+                    case "credits" -> credits = parser.getValueAsInt(0);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (id != null) {
+                candidates.add(new Course(id, name, credits));
+            }
         }
     }
 }
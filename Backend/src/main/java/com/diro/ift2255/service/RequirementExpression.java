@@ -0,0 +1,383 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.model.Sigle;
+import com.diro.ift2255.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Expression booleenne de prerequis compilee a partir du texte des exigences
+ * dun cours, par exemple "(IFT1015 ou IFT1016) et MAT1400".
+ *
+ * Le texte est lu avec tolerance : "et", "and", ",", ";", "+" et "&" sont des
+ * conjonctions, "ou", "or", "/" et "|" des disjonctions, deux sigles voisins
+ * sont combines par "et" et les autres mots sont ignores. La lecture sarrete
+ * aux cours concomitants, qui peuvent etre suivis en meme temps.
+ *
+ * L expression est compilee en un tableau dentiers en ordre prefixe :
+ * une feuille occupe [LEAF, numero] et un noeud [AND ou OR, enfants, longueur],
+ * ce qui permet d abandonner un noeud des que son resultat est connu.
+ */
+public final class RequirementExpression {
+
+    private static final int LEAF = 0;
+    private static final int AND = 1;
+    private static final int OR = 2;
+
+    /**
+     * Code compile en ordre prefixe.
+     */
+    private final int[] code;
+
+    private RequirementExpression(int[] code) {
+        this.code = code;
+    }
+
+    /**
+     * Compile le texte des exigences dun cours.
+     *
+     * @param text texte des exigences
+     * @param ids numero de chaque sigle normalise
+     * @return l expression compilee, ou null si le texte ne contient aucun
+     *         sigle ou si ses parentheses ne sont pas equilibrees
+     */
+    public static RequirementExpression compile(String text, ToIntFunction<String> ids) {
+
+        List<Token> tokens = tokenize(text);
+        if (tokens.stream().noneMatch(t -> t.sigle != null)) {
+            return null;
+        }
+
+        Parser parser = new Parser(tokens);
+        Node root = parser.expression();
+        if (root == null || parser.failed || parser.pos != tokens.size()) {
+            return null;
+        }
+
+        List<Integer> out = new ArrayList<>();
+        emit(root.simplify(), ids, out);
+        return new RequirementExpression(out.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Retourne les sigles distincts cites dans un texte dexigences.
+     *
+     * @param text texte des exigences
+     * @return les sigles normalises, dans l ordre du texte
+     */
+    public static Set<String> sigles(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (Token t : tokenize(text)) {
+            if (t.sigle != null) {
+                result.add(t.sigle);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Indique si l expression est satisfaite par un releve.
+     *
+     * @param completed bits des cours reussis, indices par numero de sigle
+     * @return vrai si l expression est satisfaite
+     */
+    public boolean isSatisfied(long[] completed) {
+        return evaluate(0, completed);
+    }
+
+    /**
+     * Retourne un ensemble minimal de cours a reussir pour satisfaire l expression :
+     * tous les cours manquants dune conjonction et, pour une disjonction,
+     * l alternative qui en demande le moins.
+     *
+     * @param completed bits des cours reussis
+     * @return les numeros des cours manquants, sans doublon
+     */
+    public int[] missing(long[] completed) {
+        return missing(0, completed).stream().distinct().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Retourne les numeros distincts des cours cites dans l expression.
+     *
+     * @return les numeros des cours
+     */
+    int[] courses() {
+        List<Integer> result = new ArrayList<>();
+        for (int pos = 0; pos < code.length; pos += code[pos] == LEAF ? 2 : 3) {
+            if (code[pos] == LEAF) {
+                result.add(code[pos + 1]);
+            }
+        }
+        return result.stream().distinct().mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean evaluate(int pos, long[] completed) {
+
+        if (code[pos] == LEAF) {
+            return isSet(completed, code[pos + 1]);
+        }
+
+        boolean and = code[pos] == AND;
+        int children = code[pos + 1];
+        int child = pos + 3;
+
+        for (int i = 0; i < children; i++) {
+            if (evaluate(child, completed) != and) {
+                return !and;
+            }
+            child += length(child);
+        }
+        return and;
+    }
+
+    private List<Integer> missing(int pos, long[] completed) {
+
+        if (code[pos] == LEAF) {
+            return isSet(completed, code[pos + 1]) ? List.of() : List.of(code[pos + 1]);
+        }
+
+        boolean and = code[pos] == AND;
+        int children = code[pos + 1];
+        int child = pos + 3;
+        List<Integer> result = null;
+
+        for (int i = 0; i < children; i++) {
+            List<Integer> m = missing(child, completed);
+            if (and) {
+                if (result == null) result = new ArrayList<>();
+                result.addAll(m);
+            } else if (m.isEmpty()) {
+                return List.of();
+            } else if (result == null || m.size() < result.size()) {
+                result = m;
+            }
+            child += length(child);
+        }
+        return result == null ? List.of() : result;
+    }
+
+    private int length(int pos) {
+        return code[pos] == LEAF ? 2 : code[pos + 2];
+    }
+
+    private static boolean isSet(long[] bits, int id) {
+        return id >= 0 && (id >>> 6) < bits.length && (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Ecrit un noeud et ses enfants en ordre prefixe.
+     *
+     * @param node noeud a ecrire
+     * @param ids numero de chaque sigle
+     * @param out code produit
+     */
+    private static void emit(Node node, ToIntFunction<String> ids, List<Integer> out) {
+
+        if (node.sigle != null) {
+            out.add(LEAF);
+            out.add(ids.applyAsInt(node.sigle));
+            return;
+        }
+
+        int start = out.size();
+        out.add(node.and ? AND : OR);
+        out.add(node.children.size());
+        out.add(0);
+        for (Node child : node.children) {
+            emit(child, ids, out);
+        }
+        out.set(start + 2, out.size() - start);
+    }
+
+    /**
+     * Decoupe un texte en sigles, operateurs et parentheses.
+     *
+     * @param text texte des exigences
+     * @return les jetons utiles
+     */
+    private static List<Token> tokenize(String text) {
+
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int i = 0;
+        int n = text.length();
+
+        while (i < n) {
+            char c = text.charAt(i);
+
+            if (c == '(' || c == ')') {
+                tokens.add(new Token(c, null));
+                i++;
+            } else if (c == ',' || c == ';' || c == '+' || c == '&') {
+                tokens.add(new Token('&', null));
+                i++;
+            } else if (c == '/' || c == '|') {
+                tokens.add(new Token('|', null));
+                i++;
+            } else if (Character.isLetter(c)) {
+                int start = i;
+                while (i < n && Character.isLetter(text.charAt(i))) i++;
+                String letters = text.substring(start, i);
+                String word = TextNormalizer.fold(letters);
+
+                int digits = i;
+                if (digits < n && text.charAt(digits) == ' ' && letters.length() <= 4
+                        && !word.equals("and")) {
+                    digits++;
+                }
+                int d = digits;
+                while (d < n && Character.isLetterOrDigit(text.charAt(d))) d++;
+
+                String sigle = d > digits && Character.isDigit(text.charAt(digits))
+                        ? sigle(letters + text.substring(digits, d))
+                        : null;
+
+                if (sigle != null) {
+                    tokens.add(new Token('s', sigle));
+                    i = d;
+                } else if (word.startsWith("concomitant") || word.startsWith("corequis")) {
+                    break;
+                } else if (word.equals("et") || word.equals("and")) {
+                    tokens.add(new Token('&', null));
+                } else if (word.equals("ou") || word.equals("or")) {
+                    tokens.add(new Token('|', null));
+                }
+            } else {
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Reconnait un sigle de cours : des lettres ASCII suivies dun numero
+     * de quatre chiffres, par exemple IFT1015.
+     *
+     * @param word lettres et chiffres colles
+     * @return le sigle normalise, ou null si le mot nest pas un sigle
+     */
+    private static String sigle(String word) {
+        Sigle sigle = Sigle.tryParse(word);
+        return sigle != null && Sigle.levelOf(word) >= 0 ? sigle.getCode() : null;
+    }
+
+    /**
+     * Jeton du texte : sigle, operateur ('&', '|') ou parenthese.
+     *
+     * @param kind nature du jeton
+     * @param sigle sigle normalise pour un jeton de sigle
+     */
+    private record Token(char kind, String sigle) {}
+
+    /**
+     * Noeud de l arbre syntaxique : un sigle, ou une conjonction ou
+     * disjonction de noeuds.
+     */
+    private static final class Node {
+
+        private final String sigle;
+        private final boolean and;
+        private final List<Node> children;
+
+        private Node(String sigle, boolean and, List<Node> children) {
+            this.sigle = sigle;
+            this.and = and;
+            this.children = children;
+        }
+
+        static Node leaf(String sigle) {
+            return new Node(sigle, false, List.of());
+        }
+
+        static Node of(boolean and, List<Node> children) {
+            return children.size() == 1 ? children.get(0) : new Node(null, and, children);
+        }
+
+        /**
+         * Aplatit les operateurs identiques imbriques.
+         *
+         * @return le noeud simplifie
+         */
+        Node simplify() {
+            if (sigle != null) {
+                return this;
+            }
+            List<Node> flat = new ArrayList<>();
+            for (Node child : children) {
+                Node c = child.simplify();
+                if (c.sigle == null && c.and == and) {
+                    flat.addAll(c.children);
+                } else {
+                    flat.add(c);
+                }
+            }
+            return of(and, flat);
+        }
+    }
+
+    /**
+     * Analyseur descendant : disjonction de conjonctions de facteurs.
+     */
+    private static final class Parser {
+
+        private final List<Token> tokens;
+        private int pos;
+        private boolean failed;
+
+        Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        Node expression() {
+            List<Node> terms = new ArrayList<>();
+            while (true) {
+                Node term = term();
+                if (term != null) {
+                    terms.add(term);
+                }
+                if (pos < tokens.size() && tokens.get(pos).kind == '|') {
+                    pos++;
+                    continue;
+                }
+                break;
+            }
+            return terms.isEmpty() ? null : Node.of(false, terms);
+        }
+
+        private Node term() {
+            List<Node> factors = new ArrayList<>();
+            while (pos < tokens.size()) {
+                Token t = tokens.get(pos);
+                if (t.kind == '&') {
+                    pos++;
+                } else if (t.kind == 's') {
+                    pos++;
+                    factors.add(Node.leaf(t.sigle));
+                } else if (t.kind == '(') {
+                    pos++;
+                    Node inner = expression();
+                    if (pos >= tokens.size() || tokens.get(pos).kind != ')') {
+                        failed = true;
+                        return null;
+                    }
+                    pos++;
+                    if (inner != null) {
+                        factors.add(inner);
+                    }
+                } else {
+                    break;
+                }
+            }
+            return factors.isEmpty() ? null : Node.of(true, factors);
+        }
+    }
+}
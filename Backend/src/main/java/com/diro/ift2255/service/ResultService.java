@@ -1,19 +1,41 @@
 package com.diro.ift2255.service;
 
 import com.diro.ift2255.model.AcademicResult;
+import com.diro.ift2255.model.ResultStats;
 import com.diro.ift2255.repository.ResultRepository;
+import com.diro.ift2255.repository.ResultTable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Service responsable de la gestion des resultats academiques.
- * Il permet de recuperer les resultats associes a un cours
- * et destimer le niveau de difficulte.
+ * Il permet de recuperer les resultats associes a un cours,
+ * destimer le niveau de difficulte et de calculer des statistiques
+ * par departement.
  */
 public class ResultService {
 
     /**
      * Depot utilise pour acceder aux resultats academiques.
      */
-    private final ResultRepository repository = new ResultRepository();
+    private final ResultRepository repository;
+
+    /**
+     * Construit le service avec le depot partage.
+     */
+    public ResultService() {
+        this(ResultRepository.shared());
+    }
+
+    /**
+     * Construit le service avec un depot donne.
+     *
+     * @param repository depot des resultats academiques
+     */
+    public ResultService(ResultRepository repository) {
+        this.repository = repository;
+    }
 
     /**
      * Recupere le resultat academique associe a un cours donne.
@@ -29,14 +51,15 @@ public class ResultService {
             throw new IllegalArgumentException("Identifiant de cours invalide.");
         }
 
-        return repository.loadAll().stream()
-                .filter(r -> r.getSigle().equalsIgnoreCase(courseId))
-                .findFirst()
-                .orElseThrow(() ->
-                        new IllegalArgumentException(
-                                "Aucun resultat academique trouve pour le cours " + courseId
-                        )
-                );
+        AcademicResult result = repository.findBySigle(courseId);
+
+        if (result == null) {
+            throw new IllegalArgumentException(
+                    "Aucun resultat academique trouve pour le cours " + courseId
+            );
+        }
+
+        return result;
     }
 
     /**
@@ -64,4 +87,162 @@ public class ResultService {
         return 5;
     }
 
+    /**
+     * Calcule les statistiques des resultats de chaque departement.
+     *
+     * @param department departement a retenir, ou null pour tous
+     * @param minTrimestres nombre minimal de trimestres dobservation dun cours
+     * @return les statistiques par departement, triees par departement
+     * @throws IllegalArgumentException si le nombre de trimestres est negatif
+     */
+    public List<ResultStats> getStatsByDepartment(String department, int minTrimestres) {
+
+        validateMinTrimestres(minTrimestres);
+
+        ResultTable table = repository.table();
+        int from = 0;
+        int to = table.departmentCount();
+
+        if (department != null && !department.isBlank()) {
+            from = table.departmentCode(department.trim());
+            if (from < 0) {
+                return List.of();
+            }
+            to = from + 1;
+        }
+
+        double[] scratch = new double[table.size()];
+        List<ResultStats> stats = new ArrayList<>(to - from);
+
+        for (int d = from; d < to; d++) {
+            ResultStats s = aggregate(
+                    table,
+                    table.departmentName(d),
+                    table.departmentStart(d),
+                    table.departmentEnd(d),
+                    false,
+                    minTrimestres,
+                    scratch
+            );
+            if (s != null) {
+                stats.add(s);
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Calcule les statistiques de l ensemble des resultats retenus.
+     *
+     * @param department departement a retenir, ou null pour tous
+     * @param minTrimestres nombre minimal de trimestres dobservation dun cours
+     * @return les statistiques globales, ou null si aucun cours nest retenu
+     * @throws IllegalArgumentException si le nombre de trimestres est negatif
+     */
+    public ResultStats getOverallStats(String department, int minTrimestres) {
+
+        validateMinTrimestres(minTrimestres);
+
+        if (department != null && !department.isBlank()) {
+            List<ResultStats> stats = getStatsByDepartment(department, minTrimestres);
+            return stats.isEmpty() ? null : stats.get(0);
+        }
+
+        ResultTable table = repository.table();
+        return aggregate(table, "ALL", 0, table.size(), true, minTrimestres, new double[table.size()]);
+    }
+
+    /**
+     * Agrege une plage de lignes de la table en une seule passe.
+     * Les lignes sont parcourues dans un ordre ou les scores sont croissants,
+     * de sorte que les scores retenus, copies dans le tampon, sont deja tries.
+     *
+     * @param table table des resultats
+     * @param group nom du groupe
+     * @param start premier rang
+     * @param end rang de fin exclusif
+     * @param byScore vrai pour parcourir l ordre global des scores,
+     *                faux pour parcourir les lignes dun departement
+     * @param minTrimestres nombre minimal de trimestres
+     * @param scratch tampon dau moins end - start cases
+     * @return les statistiques, ou null si aucune ligne nest retenue
+     */
+    private ResultStats aggregate(
+            ResultTable table,
+            String group,
+            int start,
+            int end,
+            boolean byScore,
+            int minTrimestres,
+            double[] scratch
+    ) {
+
+        int n = 0;
+        long participants = 0;
+        long trimestres = 0;
+        double scoreSum = 0;
+        double weightedSum = 0;
+
+        for (int i = start; i < end; i++) {
+            int row = byScore ? table.rowByScore(i) : i;
+            if (table.trimestres(row) < minTrimestres) continue;
+
+            double score = table.score(row);
+            int p = table.participants(row);
+
+            scratch[n++] = score;
+            scoreSum += score;
+            weightedSum += score * p;
+            participants += p;
+            trimestres += table.trimestres(row);
+        }
+
+        if (n == 0) {
+            return null;
+        }
+
+        return new ResultStats(
+                group,
+                n,
+                participants,
+                scoreSum / n,
+                participants > 0 ? weightedSum / participants : scoreSum / n,
+                scratch[0],
+                percentile(scratch, n, 0.25),
+                percentile(scratch, n, 0.50),
+                percentile(scratch, n, 0.75),
+                percentile(scratch, n, 0.90),
+                scratch[n - 1],
+                (double) trimestres / n
+        );
+    }
+
+    /**
+     * Calcule un centile par interpolation lineaire entre les rangs voisins.
+     *
+     * @param sorted valeurs triees
+     * @param n nombre de valeurs
+     * @param p centile voulu entre 0 et 1
+     * @return la valeur du centile
+     */
+    private static double percentile(double[] sorted, int n, double p) {
+        double position = p * (n - 1);
+        int lower = (int) position;
+        if (lower + 1 >= n) {
+            return sorted[n - 1];
+        }
+        return sorted[lower] + (position - lower) * (sorted[lower + 1] - sorted[lower]);
+    }
+
+    /**
+     * Valide le nombre minimal de trimestres.
+     *
+     * @param minTrimestres nombre minimal de trimestres
+     */
+    private void validateMinTrimestres(int minTrimestres) {
+        if (minTrimestres < 0) {
+            throw new IllegalArgumentException("minTrimestres doit etre positif");
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.diro.ift2255.service;
+
+import java.util.List;
+
+/**
+ * Classe representant un horaire sans conflit propose par le generateur.
+ * Il contient une section par cours et par volet ainsi que les criteres
+ * utilises pour le classement.
+ */
+public class Timetable {
+
+    /**
+     * Nombre de jours de presence sur le campus.
+     */
+    private final int daysOnCampus;
+
+    /**
+     * Minutes de cours en soiree.
+     */
+    private final int eveningMinutes;
+
+    /**
+     * Minutes libres entre le premier et le dernier cours de chaque jour.
+     */
+    private final int gapMinutes;
+
+    /**
+     * Plages horaires des sections retenues.
+     */
+    private final List<CourseScheduleWithCourse> schedules;
+
+    /**
+     * Construit un horaire.
+     *
+     * @param daysOnCampus nombre de jours de presence
+     * @param eveningMinutes minutes de cours en soiree
+     * @param gapMinutes minutes libres entre les cours
+     * @param schedules plages horaires retenues
+     */
+    public Timetable(
+            int daysOnCampus,
+            int eveningMinutes,
+            int gapMinutes,
+            List<CourseScheduleWithCourse> schedules
+    ) {
+        this.daysOnCampus = daysOnCampus;
+        this.eveningMinutes = eveningMinutes;
+        this.gapMinutes = gapMinutes;
+        this.schedules = schedules;
+    }
+
+    /**
+     * Retourne le nombre de jours de presence sur le campus.
+     *
+     * @return le nombre de jours
+     */
+    public int getDaysOnCampus() { return daysOnCampus; }
+
+    /**
+     * Retourne les minutes de cours en soiree.
+     *
+     * @return les minutes en soiree
+     */
+    public int getEveningMinutes() { return eveningMinutes; }
+
+    /**
+     * Retourne les minutes libres entre les cours dune meme journee.
+     *
+     * @return les minutes libres
+     */
+    public int getGapMinutes() { return gapMinutes; }
+
+    /**
+     * Retourne les plages horaires des sections retenues.
+     *
+     * @return les plages horaires
+     */
+    public List<CourseScheduleWithCourse> getSchedules() { return schedules; }
+}
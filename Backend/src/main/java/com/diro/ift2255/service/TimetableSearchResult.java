@@ -0,0 +1,79 @@
+package com.diro.ift2255.service;
+
+import java.util.List;
+
+/**
+ * Classe representant le resultat dune generation dhoraires.
+ * Elle contient les meilleurs horaires trouves et indique si la recherche
+ * a pu etre menee a terme dans le temps alloue.
+ */
+public class TimetableSearchResult {
+
+    /**
+     * Horaires trouves, du meilleur au moins bon.
+     */
+    private final List<Timetable> timetables;
+
+    /**
+     * Vrai si toutes les combinaisons ont ete examinees ou ecartees.
+     */
+    private final boolean complete;
+
+    /**
+     * Nombre de choix de sections examines.
+     */
+    private final long explored;
+
+    /**
+     * Cours sans plage horaire pour le trimestre.
+     */
+    private final List<String> unscheduledCourses;
+
+    /**
+     * Construit un resultat de generation.
+     *
+     * @param timetables horaires trouves
+     * @param complete vrai si la recherche est terminee
+     * @param explored nombre de choix examines
+     * @param unscheduledCourses cours sans plage horaire
+     */
+    public TimetableSearchResult(
+            List<Timetable> timetables,
+            boolean complete,
+            long explored,
+            List<String> unscheduledCourses
+    ) {
+        this.timetables = timetables;
+        this.complete = complete;
+        this.explored = explored;
+        this.unscheduledCourses = unscheduledCourses;
+    }
+
+    /**
+     * Retourne les horaires trouves, du meilleur au moins bon.
+     *
+     * @return les horaires
+     */
+    public List<Timetable> getTimetables() { return timetables; }
+
+    /**
+     * Indique si la recherche a ete menee a terme avant la fin du temps alloue.
+     *
+     * @return vrai si la recherche est complete
+     */
+    public boolean isComplete() { return complete; }
+
+    /**
+     * Retourne le nombre de choix de sections examines.
+     *
+     * @return le nombre de choix
+     */
+    public long getExplored() { return explored; }
+
+    /**
+     * Retourne les cours sans plage horaire pour le trimestre.
+     *
+     * @return les sigles des cours
+     */
+    public List<String> getUnscheduledCourses() { return unscheduledCourses; }
+}
@@ -0,0 +1,447 @@
+package com.diro.ift2255.service;
+
+import com.diro.ift2255.util.WeeklyOccupancy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Generateur dhoraires sans conflit.
+ * Il choisit une section par cours et par volet (theorie, travaux pratiques...)
+ * par recherche avec retour arriere. La compatibilite entre les sections est
+ * precalculee a partir des occupations hebdomadaires, ce qui permet de retirer
+ * des autres volets, a chaque choix, toutes les sections devenues incompatibles.
+ * Le volet ayant le moins de sections restantes est choisi en premier et les
+ * branches qui ne peuvent pas battre le pire horaire retenu sont abandonnees.
+ *
+ * Les horaires sont classes par nombre de jours de presence, puis par minutes
+ * en soiree, puis par minutes libres entre les cours. Les activites dont le
+ * jour ou les heures ne sont pas reconnus ne sont pas placees dans la semaine.
+ */
+public class TimetableSolver {
+
+    /**
+     * Premiere tranche de la soiree dans une journee (18 h).
+     */
+    private static final int EVENING_SLOT = 18 * 60 / WeeklyOccupancy.SLOT_MINUTES;
+
+    /**
+     * Nombre de choix examines entre deux verifications du temps alloue.
+     */
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    /**
+     * Volets a pourvoir, chacun avec ses sections possibles.
+     */
+    private final List<Group> groups;
+
+    /**
+     * Toutes les sections, numerotees volet par volet.
+     */
+    private final Option[] options;
+
+    /**
+     * Nombre de mots de 64 bits par domaine de volet.
+     */
+    private final int words;
+
+    /**
+     * Pour chaque section, masque des sections compatibles de chaque volet.
+     */
+    private final long[][] compatible;
+
+    /**
+     * Construit le generateur a partir des plages horaires de tous les cours.
+     *
+     * @param schedules plages horaires, toutes sections confondues
+     */
+    public TimetableSolver(List<CourseScheduleWithCourse> schedules) {
+
+        Map<List<String>, Map<String, Option>> byGroup = new LinkedHashMap<>();
+        for (CourseScheduleWithCourse s : schedules) {
+            byGroup.computeIfAbsent(List.of(s.getCourseId(), String.valueOf(s.getActivityType())),
+                            k -> new LinkedHashMap<>())
+                    .computeIfAbsent(String.valueOf(s.getSection()), k -> new Option())
+                    .add(s);
+        }
+
+        this.groups = new ArrayList<>();
+        List<Option> all = new ArrayList<>();
+        int maxOptions = 1;
+
+        for (Map<String, Option> sections : byGroup.values()) {
+            groups.add(new Group(all.size(), sections.size()));
+            all.addAll(sections.values());
+            maxOptions = Math.max(maxOptions, sections.size());
+        }
+
+        this.options = all.toArray(new Option[0]);
+        this.words = (maxOptions + Long.SIZE - 1) / Long.SIZE;
+        this.compatible = new long[options.length][];
+
+        for (int g = 0; g < groups.size(); g++) {
+            Group group = groups.get(g);
+            for (int o = group.offset; o < group.offset + group.size; o++) {
+                long[] mask = new long[groups.size() * words];
+                for (int h = 0; h < groups.size(); h++) {
+                    if (h == g) continue;
+                    Group other = groups.get(h);
+                    for (int p = 0; p < other.size; p++) {
+                        Option candidate = options[other.offset + p];
+                        if (!options[o].occupancy.intersects(candidate.occupancy)
+                                || !overlaps(options[o], candidate)) {
+                            mask[h * words + (p >>> 6)] |= 1L << p;
+                        }
+                    }
+                }
+                compatible[o] = mask;
+            }
+        }
+    }
+
+    /**
+     * Recherche les meilleurs horaires sans conflit.
+     *
+     * @param limit nombre maximal dhoraires retournes
+     * @param budgetMillis temps alloue a la recherche en millisecondes
+     * @return les horaires trouves, du meilleur au moins bon
+     */
+    public TimetableSearchResult solve(int limit, long budgetMillis) {
+
+        if (groups.isEmpty() || limit <= 0) {
+            return new TimetableSearchResult(List.of(), true, 0, List.of());
+        }
+
+        Search search = new Search(limit, System.nanoTime() + budgetMillis * 1_000_000L);
+
+        long[] domain = new long[groups.size() * words];
+        for (int g = 0; g < groups.size(); g++) {
+            for (int p = 0; p < groups.get(g).size; p++) {
+                domain[g * words + (p >>> 6)] |= 1L << p;
+            }
+        }
+        search.run(0, domain);
+
+        List<Candidate> ranked = new ArrayList<>(search.best);
+        ranked.sort(Candidate.ORDER);
+
+        List<Timetable> timetables = new ArrayList<>(ranked.size());
+        for (Candidate c : ranked) {
+            List<CourseScheduleWithCourse> slots = new ArrayList<>();
+            for (int o : c.chosen) {
+                slots.addAll(options[o].slots);
+            }
+            timetables.add(new Timetable(
+                    c.days,
+                    c.eveningSlots * WeeklyOccupancy.SLOT_MINUTES,
+                    c.gapSlots * WeeklyOccupancy.SLOT_MINUTES,
+                    slots
+            ));
+        }
+
+        return new TimetableSearchResult(timetables, !search.timedOut, search.explored, List.of());
+    }
+
+    /**
+     * Verifie a la seconde pres que deux sections se chevauchent. Les tranches
+     * de l occupation sont arrondies, donc deux activites separees par quelques
+     * minutes peuvent partager une tranche sans etre en conflit.
+     *
+     * @param a premiere section
+     * @param b deuxieme section
+     * @return vrai si deux activites du meme jour se chevauchent
+     */
+    private static boolean overlaps(Option a, Option b) {
+        for (CourseScheduleWithCourse x : a.slots) {
+            for (CourseScheduleWithCourse y : b.slots) {
+                if (x.dayIndex() >= 0 && x.dayIndex() == y.dayIndex()
+                        && x.startSecond() >= 0 && y.startSecond() >= 0
+                        && x.startSecond() < y.endSecond()
+                        && y.startSecond() < x.endSecond()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retourne le nombre de tranches occupees en soiree.
+     *
+     * @param occupancy occupation de la semaine
+     * @return le nombre de tranches
+     */
+    private static int eveningSlots(WeeklyOccupancy occupancy) {
+        int count = 0;
+        for (int day = 0; day < 7; day++) {
+            int dayStart = day * WeeklyOccupancy.SLOTS_PER_DAY;
+            count += occupancy.slotCount(dayStart + EVENING_SLOT, dayStart + WeeklyOccupancy.SLOTS_PER_DAY);
+        }
+        return count;
+    }
+
+    /**
+     * Retourne le nombre de tranches libres entre le premier et le dernier
+     * cours de chaque jour.
+     *
+     * @param occupancy occupation de la semaine
+     * @return le nombre de tranches libres
+     */
+    private static int gapSlots(WeeklyOccupancy occupancy) {
+        int gaps = 0;
+        for (int day = 0; day < 7; day++) {
+            int dayStart = day * WeeklyOccupancy.SLOTS_PER_DAY;
+            int dayEnd = dayStart + WeeklyOccupancy.SLOTS_PER_DAY;
+            int first = occupancy.nextSlot(dayStart);
+            if (first < 0 || first >= dayEnd) continue;
+            int last = occupancy.previousSlot(dayEnd - 1);
+            gaps += last - first + 1 - occupancy.slotCount(first, last + 1);
+        }
+        return gaps;
+    }
+
+    /**
+     * Etat dune recherche : meilleurs horaires, chemin courant et temps restant.
+     */
+    private final class Search {
+
+        private final int limit;
+        private final long deadline;
+
+        /**
+         * Meilleurs horaires trouves, le moins bon en tete.
+         */
+        private final PriorityQueue<Candidate> best;
+
+        /**
+         * Section choisie pour chaque volet, -1 si le volet nest pas encore pourvu.
+         */
+        private final int[] chosen;
+
+        /**
+         * Occupation de la semaine a chaque profondeur.
+         */
+        private final WeeklyOccupancy[] occupancies;
+
+        private long explored;
+        private long sequence;
+        private boolean timedOut;
+
+        Search(int limit, long deadline) {
+            this.limit = limit;
+            this.deadline = deadline;
+            this.best = new PriorityQueue<>(limit + 1, Candidate.ORDER.reversed());
+            this.chosen = new int[groups.size()];
+            Arrays.fill(chosen, -1);
+            this.occupancies = new WeeklyOccupancy[groups.size() + 1];
+            for (int d = 0; d < occupancies.length; d++) {
+                occupancies[d] = new WeeklyOccupancy();
+            }
+        }
+
+        /**
+         * Pourvoit le prochain volet puis poursuit la recherche.
+         *
+         * @param depth nombre de volets deja pourvus
+         * @param domain sections encore compatibles de chaque volet
+         */
+        void run(int depth, long[] domain) {
+
+            if (depth == groups.size()) {
+                offer(occupancies[depth]);
+                return;
+            }
+
+            int g = smallestDomain(domain);
+            Group group = groups.get(g);
+            WeeklyOccupancy current = occupancies[depth];
+            WeeklyOccupancy next = occupancies[depth + 1];
+
+            int[] candidates = new int[bitCount(domain, g)];
+            long[] costs = new long[candidates.length];
+            int n = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = domain[g * words + w]; bits != 0; bits &= bits - 1) {
+                    int o = group.offset + w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    next.set(current);
+                    next.or(options[o].occupancy);
+                    costs[n] = cost(next);
+                    candidates[n++] = o;
+                }
+            }
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> costs[i]));
+
+            for (int i : order) {
+
+                if (timedOut || (++explored % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline)) {
+                    timedOut = true;
+                    return;
+                }
+
+                if (best.size() == limit && costs[i] > cost(best.peek())) {
+                    break;
+                }
+
+                int o = candidates[i];
+                long[] reduced = propagate(domain, g, o);
+                if (reduced == null) continue;
+
+                next.set(current);
+                next.or(options[o].occupancy);
+                chosen[g] = o;
+                run(depth + 1, reduced);
+                chosen[g] = -1;
+            }
+        }
+
+        /**
+         * Retire des volets non pourvus les sections incompatibles avec un choix.
+         *
+         * @param domain sections encore compatibles de chaque volet
+         * @param g volet pourvu
+         * @param o section choisie
+         * @return le nouveau domaine, ou null si un volet na plus de section possible
+         */
+        private long[] propagate(long[] domain, int g, int o) {
+
+            long[] reduced = domain.clone();
+            long[] mask = compatible[o];
+
+            for (int h = 0; h < groups.size(); h++) {
+                if (h == g || chosen[h] >= 0) continue;
+                long any = 0;
+                for (int w = h * words; w < (h + 1) * words; w++) {
+                    reduced[w] &= mask[w];
+                    any |= reduced[w];
+                }
+                if (any == 0) {
+                    return null;
+                }
+            }
+            return reduced;
+        }
+
+        /**
+         * Retourne le volet non pourvu ayant le moins de sections possibles.
+         *
+         * @param domain sections encore compatibles de chaque volet
+         * @return l indice du volet
+         */
+        private int smallestDomain(long[] domain) {
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            for (int h = 0; h < groups.size(); h++) {
+                if (chosen[h] >= 0) continue;
+                int count = bitCount(domain, h);
+                if (count < bestCount) {
+                    best = h;
+                    bestCount = count;
+                }
+            }
+            return best;
+        }
+
+        private int bitCount(long[] domain, int h) {
+            int count = 0;
+            for (int w = h * words; w < (h + 1) * words; w++) {
+                count += Long.bitCount(domain[w]);
+            }
+            return count;
+        }
+
+        /**
+         * Conserve un horaire complet sil fait partie des meilleurs.
+         *
+         * @param occupancy occupation de l horaire
+         */
+        private void offer(WeeklyOccupancy occupancy) {
+
+            Candidate c = new Candidate(
+                    occupancy.occupiedDays(),
+                    eveningSlots(occupancy),
+                    gapSlots(occupancy),
+                    sequence++,
+                    null
+            );
+
+            if (best.size() == limit && Candidate.ORDER.compare(c, best.peek()) >= 0) {
+                return;
+            }
+
+            best.add(new Candidate(c.days, c.eveningSlots, c.gapSlots, c.sequence, chosen.clone()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+    }
+
+    /**
+     * Retourne le cout partiel dune occupation : jours puis soiree.
+     * Ces deux criteres ne peuvent que croitre lorsque des sections sont ajoutees.
+     *
+     * @param occupancy occupation partielle
+     * @return le cout partiel
+     */
+    private static long cost(WeeklyOccupancy occupancy) {
+        return ((long) occupancy.occupiedDays() << 32) | eveningSlots(occupancy);
+    }
+
+    /**
+     * Retourne le cout partiel dun horaire retenu.
+     *
+     * @param c horaire retenu
+     * @return le cout partiel
+     */
+    private static long cost(Candidate c) {
+        return ((long) c.days << 32) | c.eveningSlots;
+    }
+
+    /**
+     * Volet dun cours et plage de ses sections dans options.
+     *
+     * @param offset position de la premiere section
+     * @param size nombre de sections
+     */
+    private record Group(int offset, int size) {}
+
+    /**
+     * Section dun volet avec ses plages horaires et son occupation.
+     */
+    private static final class Option {
+
+        private final List<CourseScheduleWithCourse> slots = new ArrayList<>();
+        private final WeeklyOccupancy occupancy = new WeeklyOccupancy();
+
+        void add(CourseScheduleWithCourse slot) {
+            slots.add(slot);
+            slot.addTo(occupancy);
+        }
+    }
+
+    /**
+     * Horaire complet retenu pendant la recherche.
+     *
+     * @param days nombre de jours de presence
+     * @param eveningSlots tranches en soiree
+     * @param gapSlots tranches libres entre les cours
+     * @param sequence ordre de decouverte, pour departager les egalites
+     * @param chosen section choisie pour chaque volet
+     */
+    private record Candidate(int days, int eveningSlots, int gapSlots, long sequence, int[] chosen) {
+
+        static final Comparator<Candidate> ORDER = Comparator
+                .comparingInt(Candidate::days)
+                .thenComparingInt(Candidate::eveningSlots)
+                .thenComparingInt(Candidate::gapSlots)
+                .thenComparingLong(Candidate::sequence);
+    }
+}
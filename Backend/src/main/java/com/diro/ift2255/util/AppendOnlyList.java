@@ -0,0 +1,149 @@
+package com.diro.ift2255.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Liste en ajout seul, concue pour un ecrivain a la fois et des lecteurs
+ * concurrents sans verrou. Les elements sont ranges dans des blocs de taille
+ * fixe : un ajout ne recopie jamais les elements existants, seul le tableau
+ * des blocs est agrandi de temps en temps, d ou un cout amorti constant.
+ *
+ * La taille est publiee apres l ecriture de l element, de sorte quun lecteur
+ * voit toujours des elements completement ajoutes.
+ *
+ * @param <T> type des elements
+ */
+public final class AppendOnlyList<T> {
+
+    /**
+     * Nombre delements par bloc, puissance de deux.
+     */
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Blocs delements.
+     */
+    private volatile Object[][] chunks = new Object[4][];
+
+    /**
+     * Nombre delements publies.
+     */
+    private volatile int size;
+
+    /**
+     * Ajoute un element en fin de liste.
+     *
+     * @param value element a ajouter
+     */
+    public synchronized void add(T value) {
+        int n = size;
+        slotFor(n)[n & CHUNK_MASK] = value;
+        size = n + 1;
+    }
+
+    /**
+     * Ajoute plusieurs elements en fin de liste ; ils sont publies ensemble.
+     *
+     * @param values elements a ajouter
+     */
+    public synchronized void addAll(List<? extends T> values) {
+        int n = size;
+        for (T value : values) {
+            slotFor(n)[n & CHUNK_MASK] = value;
+            n++;
+        }
+        size = n;
+    }
+
+    /**
+     * Retourne le bloc devant contenir une position, en le creant au besoin.
+     *
+     * @param index position a ecrire
+     * @return le bloc
+     */
+    private Object[] slotFor(int index) {
+        int c = index >>> CHUNK_BITS;
+        Object[][] current = chunks;
+        if (c == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        if (current[c] == null) {
+            current[c] = new Object[CHUNK_SIZE];
+        }
+        if (current != chunks) {
+            chunks = current;
+        }
+        return current[c];
+    }
+
+    /**
+     * Retourne un element.
+     *
+     * @param index position de l element
+     * @return l element
+     * @throws IndexOutOfBoundsException si la position est hors limites
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int n = size;
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Retourne le nombre delements publies.
+     *
+     * @return la taille
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retourne une vue immuable des elements publies au moment de l appel.
+     * Les ajouts suivants ne sont pas visibles dans la vue.
+     *
+     * @return la vue
+     */
+    public List<T> snapshot() {
+        int n = size;
+        return new Snapshot<>(chunks, n);
+    }
+
+    /**
+     * Vue immuable dun prefixe de la liste.
+     *
+     * @param <T> type des elements
+     */
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+
+        private final Object[][] chunks;
+        private final int size;
+
+        Snapshot(Object[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
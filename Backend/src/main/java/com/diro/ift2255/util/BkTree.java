@@ -0,0 +1,162 @@
+package com.diro.ift2255.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Arbre BK pour la recherche approximative de mots selon la distance de Levenshtein.
+ * Seuls les sous-arbres compatibles avec l inegalite triangulaire sont visites.
+ */
+public class BkTree {
+
+    /**
+     * Racine de l arbre, null si l arbre est vide.
+     */
+    private final Node root;
+
+    /**
+     * Construit un arbre a partir dune collection de mots.
+     *
+     * @param words mots a indexer
+     */
+    public BkTree(Collection<String> words) {
+        Node r = null;
+        for (String word : words) {
+            if (r == null) {
+                r = new Node(word);
+            } else {
+                r.add(word);
+            }
+        }
+        this.root = r;
+    }
+
+    /**
+     * Recherche les mots situes a une distance maximale du mot fourni.
+     * La distance exacte a chaque noeud visite est necessaire pour
+     * que l elagage par inegalite triangulaire reste correct.
+     *
+     * @param word mot recherche
+     * @param maxDistance distance de Levenshtein maximale
+     * @return les mots trouves et leur distance
+     */
+    public Map<String, Integer> search(String word, int maxDistance) {
+
+        Map<String, Integer> result = new HashMap<>();
+        if (root == null) {
+            return result;
+        }
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int d = distance(word, node.word, Integer.MAX_VALUE - 1);
+
+            if (d <= maxDistance) {
+                result.put(node.word, d);
+            }
+
+            if (node.children == null) continue;
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                int edge = child.getKey();
+                if (edge >= d - maxDistance && edge <= d + maxDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Calcule la distance de Levenshtein entre deux mots.
+     * Le calcul sarrete des que la distance depasse la borne fournie,
+     * auquel cas une valeur superieure a la borne est retournee.
+     *
+     * @param a premier mot
+     * @param b second mot
+     * @param bound borne au dela de laquelle le calcul peut s arreter
+     * @return la distance, ou une valeur superieure a la borne
+     */
+    public static int distance(String a, String b, int bound) {
+
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(
+                        Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + cost
+                );
+                rowMin = Math.min(rowMin, current[j]);
+            }
+
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+
+        return previous[b.length()];
+    }
+
+    /**
+     * Noeud de l arbre BK.
+     */
+    private static final class Node {
+
+        private final String word;
+        private Map<Integer, Node> children;
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        /**
+         * Insere un mot sous ce noeud.
+         *
+         * @param w mot a inserer
+         */
+        void add(String w) {
+            Node node = this;
+            while (true) {
+                int d = distance(w, node.word, Integer.MAX_VALUE - 1);
+                if (d == 0) {
+                    return;
+                }
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                Node child = node.children.get(d);
+                if (child == null) {
+                    node.children.put(d, new Node(w));
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+}
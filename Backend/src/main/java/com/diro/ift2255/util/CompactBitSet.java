@@ -0,0 +1,122 @@
+package com.diro.ift2255.util;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble immuable dentiers positifs stocke sous forme de bits.
+ * Seuls les mots compris entre le premier et le dernier bit a un sont
+ * conserves, ce qui reste compact lorsque les elements sont proches,
+ * comme les sigles dun meme departement numerotes dans l ordre.
+ */
+public final class CompactBitSet {
+
+    /**
+     * Ensemble vide.
+     */
+    public static final CompactBitSet EMPTY = new CompactBitSet(0, new long[0]);
+
+    /**
+     * Indice du premier mot conserve.
+     */
+    private final int firstWord;
+
+    /**
+     * Mots conserves, du premier au dernier mot non nul.
+     */
+    private final long[] words;
+
+    private CompactBitSet(int firstWord, long[] words) {
+        this.firstWord = firstWord;
+        this.words = words;
+    }
+
+    /**
+     * Construit un ensemble a partir de bits non compresses.
+     *
+     * @param dense bits de l ensemble, le bit i du mot w representant l element 64w + i
+     * @return l ensemble compresse
+     */
+    public static CompactBitSet of(long[] dense) {
+
+        int from = 0;
+        while (from < dense.length && dense[from] == 0) {
+            from++;
+        }
+        if (from == dense.length) {
+            return EMPTY;
+        }
+
+        int to = dense.length;
+        while (dense[to - 1] == 0) {
+            to--;
+        }
+
+        return new CompactBitSet(from, Arrays.copyOfRange(dense, from, to));
+    }
+
+    /**
+     * Indique si un element appartient a l ensemble.
+     *
+     * @param i element
+     * @return vrai si l element est present
+     */
+    public boolean contains(int i) {
+        int w = (i >>> 6) - firstWord;
+        return i >= 0 && w >= 0 && w < words.length && (words[w] & (1L << i)) != 0;
+    }
+
+    /**
+     * Retourne le nombre delements.
+     *
+     * @return le nombre delements
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Ajoute les elements de cet ensemble a des bits non compresses.
+     *
+     * @param dense bits a completer, assez longs pour contenir tous les elements
+     */
+    public void orInto(long[] dense) {
+        for (int w = 0; w < words.length; w++) {
+            dense[firstWord + w] |= words[w];
+        }
+    }
+
+    /**
+     * Retourne les elements de cet ensemble absents des bits fournis.
+     *
+     * @param excluded bits des elements a exclure
+     * @return les elements restants, en ordre croissant
+     */
+    public int[] andNot(long[] excluded) {
+
+        int[] result = new int[cardinality()];
+        int n = 0;
+
+        for (int w = 0; w < words.length; w++) {
+            int global = firstWord + w;
+            long bits = words[w] & ~(global < excluded.length ? excluded[global] : 0L);
+            for (; bits != 0; bits &= bits - 1) {
+                result[n++] = global * Long.SIZE + Long.numberOfTrailingZeros(bits);
+            }
+        }
+
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Retourne le nombre de mots de 64 bits conserves.
+     *
+     * @return le nombre de mots
+     */
+    public int storedWords() {
+        return words.length;
+    }
+}
@@ -0,0 +1,483 @@
+package com.diro.ift2255.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lecteur csv conforme a la RFC 4180, implemente par un automate a etats
+ * sans expression reguliere. Les champs entre guillemets peuvent contenir
+ * des virgules, des sauts de ligne et des guillemets doubles.
+ * Les espaces autour dun champ non entoure de guillemets sont ignores.
+ *
+ * Chaque enregistrement est decode dans un tampon reutilise : les valeurs
+ * numeriques sont lues directement depuis ce tampon, sans creer de chaine.
+ * Un fichier est projete en memoire et decode par fenetres de taille fixe,
+ * sans jamais copier tout son texte sur le tas.
+ *
+ * Utilisation :
+ * <pre>
+ * CsvReader csv = CsvReader.open(path);
+ * csv.readHeader();
+ * int score = csv.column("score");
+ * while (csv.next()) {
+ *     double s = csv.getDouble(score);
+ * }
+ * </pre>
+ */
+public final class CsvReader {
+
+    /**
+     * Puissances de dix representables exactement en double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    /**
+     * Nombre de caracteres decodes a la fois depuis un fichier.
+     */
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    /**
+     * Texte a lire, ou fenetre des caracteres deja decodes pour un fichier.
+     */
+    private final CharBuffer input;
+
+    /**
+     * Octets restant a decoder, null pour un texte en memoire ou une fois
+     * le fichier entierement decode.
+     */
+    private ByteBuffer source;
+
+    /**
+     * Decodeur UTF-8 du fichier, null pour un texte en memoire.
+     */
+    private final CharsetDecoder decoder;
+
+    /**
+     * Caracteres des champs de l enregistrement courant, sans guillemets.
+     */
+    private char[] chars = new char[256];
+
+    /**
+     * Debut de chaque champ dans le tampon.
+     */
+    private int[] starts = new int[16];
+
+    /**
+     * Fin exclusive de chaque champ dans le tampon.
+     */
+    private int[] ends = new int[16];
+
+    /**
+     * Nombre de champs de l enregistrement courant.
+     */
+    private int fieldCount;
+
+    /**
+     * Noms des colonnes lus dans l en-tete, null si aucun en-tete.
+     */
+    private String[] header;
+
+    /**
+     * Numero de l enregistrement courant, a partir de 1.
+     */
+    private long recordNumber;
+
+    private CsvReader(CharBuffer input, ByteBuffer source) {
+        this.input = input;
+        this.source = source;
+        this.decoder = source == null
+                ? null
+                : StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Construit un lecteur sur un texte en memoire.
+     *
+     * @param text texte csv
+     * @return le lecteur
+     */
+    public static CsvReader of(CharSequence text) {
+        return new CsvReader(CharBuffer.wrap(text), null);
+    }
+
+    /**
+     * Construit un lecteur sur un fichier projete en memoire et decode en UTF-8
+     * au fil de la lecture.
+     *
+     * @param file fichier csv
+     * @return le lecteur
+     * @throws IOException si le fichier ne peut pas etre lu
+     */
+    public static CsvReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CsvReader(CharBuffer.allocate(WINDOW_SIZE).flip(), bytes);
+        }
+    }
+
+    /**
+     * Construit un lecteur sur un flux encode en UTF-8.
+     *
+     * @param in flux a lire, ferme apres la lecture
+     * @return le lecteur
+     * @throws IOException si le flux ne peut pas etre lu
+     */
+    public static CsvReader read(InputStream in) throws IOException {
+        try (in) {
+            return of(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Lit le premier enregistrement comme en-tete.
+     *
+     * @return les noms des colonnes
+     * @throws IllegalStateException si le fichier est vide
+     */
+    public String[] readHeader() {
+        if (!next()) {
+            throw new IllegalStateException("Fichier csv vide");
+        }
+        header = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            header[i] = getString(i);
+        }
+        return header.clone();
+    }
+
+    /**
+     * Retourne la position dune colonne de l en-tete.
+     *
+     * @param name nom de la colonne
+     * @return la position de la colonne
+     * @throws IllegalStateException si la colonne est absente
+     */
+    public int column(String name) {
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("Colonne csv absente : " + name);
+    }
+
+    /**
+     * Avance a l enregistrement suivant. Les lignes vides sont ignorees.
+     *
+     * @return vrai si un enregistrement a ete lu
+     * @throws IllegalStateException si un guillemet nest pas ferme
+     */
+    public boolean next() {
+
+        while (available()) {
+            if (readRecord()) {
+                recordNumber++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indique sil reste un caractere a lire, en decodant la fenetre suivante
+     * du fichier lorsque la fenetre courante est epuisee.
+     *
+     * @return vrai si un caractere est disponible
+     */
+    private boolean available() {
+        while (!input.hasRemaining() && source != null) {
+            input.clear();
+            CoderResult result = decoder.decode(source, input, true);
+            if (result.isUnderflow()) {
+                decoder.flush(input);
+                source = null;
+            }
+            input.flip();
+        }
+        return input.hasRemaining();
+    }
+
+    /**
+     * Lit un enregistrement a l aide de l automate.
+     *
+     * @return faux si la ligne lue etait vide
+     */
+    private boolean readRecord() {
+
+        fieldCount = 0;
+        int length = 0;
+        int fieldStart = 0;
+        int contentEnd = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        boolean lineHasContent = false;
+
+        while (available()) {
+            char c = input.get();
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (available() && input.get(input.position()) == '"') {
+                        input.get();
+                        length = append(length, '"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    length = append(length, c);
+                }
+                contentEnd = length;
+                continue;
+            }
+
+            if (c == ',') {
+                endField(fieldStart, contentEnd);
+                fieldStart = length;
+                contentEnd = length;
+                quoted = false;
+                lineHasContent = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && available() && input.get(input.position()) == '\n') {
+                    input.get();
+                }
+                if (!lineHasContent && length == fieldStart && !quoted) {
+                    return false;
+                }
+                endField(fieldStart, contentEnd);
+                return true;
+            } else if (c == '"' && !quoted && length == fieldStart) {
+                quoted = true;
+                inQuotes = true;
+                lineHasContent = true;
+            } else if (c == ' ' || c == '\t') {
+                if (length > fieldStart && !quoted) {
+                    length = append(length, c);
+                }
+            } else {
+                length = append(length, c);
+                contentEnd = length;
+                lineHasContent = true;
+            }
+        }
+
+        if (inQuotes) {
+            throw new IllegalStateException(
+                    "Guillemet non ferme a l enregistrement " + (recordNumber + 1)
+            );
+        }
+
+        if (!lineHasContent && length == fieldStart && !quoted) {
+            return false;
+        }
+        endField(fieldStart, contentEnd);
+        return true;
+    }
+
+    /**
+     * Ajoute un caractere au tampon de l enregistrement.
+     *
+     * @param length longueur courante du tampon
+     * @param c caractere a ajouter
+     * @return la nouvelle longueur
+     */
+    private int append(int length, char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length] = c;
+        return length + 1;
+    }
+
+    /**
+     * Termine le champ courant.
+     *
+     * @param start debut du champ dans le tampon
+     * @param end fin du champ sans les espaces de fin
+     */
+    private void endField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = Math.max(start, end);
+        fieldCount++;
+    }
+
+    /**
+     * Retourne le nombre de champs de l enregistrement courant.
+     *
+     * @return le nombre de champs
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Retourne le numero de l enregistrement courant, en-tete compris.
+     *
+     * @return le numero, a partir de 1
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Retourne un champ sous forme de texte.
+     *
+     * @param column position du champ
+     * @return le texte du champ
+     */
+    public String getString(int column) {
+        check(column);
+        return new String(chars, starts[column], ends[column] - starts[column]);
+    }
+
+    /**
+     * Indique si un champ est vide.
+     *
+     * @param column position du champ
+     * @return vrai si le champ est vide
+     */
+    public boolean isEmpty(int column) {
+        check(column);
+        return starts[column] == ends[column];
+    }
+
+    /**
+     * Lit un entier directement depuis le tampon.
+     *
+     * @param column position du champ
+     * @return la valeur entiere
+     * @throws NumberFormatException si le champ nest pas un entier
+     */
+    public int getInt(int column) {
+
+        check(column);
+        int i = starts[column];
+        int end = ends[column];
+
+        if (i == end) {
+            throw numberError(column);
+        }
+
+        boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+        if (i == end) {
+            throw numberError(column);
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                throw numberError(column);
+            }
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw numberError(column);
+            }
+        }
+
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw numberError(column);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Lit un nombre decimal directement depuis le tampon.
+     * Les nombres courts sans exposant sont convertis sans creer de chaine,
+     * avec un arrondi exact ; les autres formes passent par Double.parseDouble.
+     *
+     * @param column position du champ
+     * @return la valeur decimale
+     * @throws NumberFormatException si le champ nest pas un nombre
+     */
+    public double getDouble(int column) {
+
+        check(column);
+        int i = starts[column];
+        int end = ends[column];
+
+        if (i == end) {
+            throw numberError(column);
+        }
+
+        boolean negative = chars[i] == '-';
+        if (negative || chars[i] == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i == end && digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        return Double.parseDouble(getString(column));
+    }
+
+    /**
+     * Verifie qu une position de champ existe.
+     *
+     * @param column position du champ
+     */
+    private void check(int column) {
+        if (column < 0 || column >= fieldCount) {
+            throw new IllegalStateException(
+                    "Colonne " + column + " absente a l enregistrement " + recordNumber
+            );
+        }
+    }
+
+    /**
+     * Construit l erreur dun champ numerique invalide.
+     *
+     * @param column position du champ
+     * @return l exception
+     */
+    private NumberFormatException numberError(int column) {
+        return new NumberFormatException(
+                "Nombre invalide \"" + getString(column) + "\" a l enregistrement " + recordNumber
+        );
+    }
+}
@@ -0,0 +1,475 @@
+package com.diro.ift2255.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache en memoire borne avec expiration des entrees.
+ * Les entrees sont evincees selon l ordre dacces (LRU) lorsque la taille
+ * maximale ou, si un poids est fourni, le poids total maximal est atteint.
+ * Les chargements concurrents dune meme cle ne declenchent quun seul appel
+ * au chargeur. Une valeur dont le chargement a commence avant une invalidation
+ * est retournee a l appelant mais nest pas conservee.
+ *
+ * @param <K> type des cles
+ * @param <V> type des valeurs
+ */
+public class ExpiringCache<K, V> {
+
+    /**
+     * Nombre maximal d entrees conservees.
+     */
+    private final int maxSize;
+
+    /**
+     * Poids total maximal des entrees conservees.
+     */
+    private final long maxWeight;
+
+    /**
+     * Fonction estimant le poids dune entree, par exemple sa taille en octets.
+     */
+    private final ToLongFunction<? super V> weigher;
+
+    /**
+     * Poids total des entrees presentes.
+     */
+    private long totalWeight;
+
+    /**
+     * Nombre d invalidations effectuees, compare avant de conserver une
+     * valeur chargee.
+     */
+    private long invalidations;
+
+    /**
+     * Duree de vie dune entree en nanosecondes.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Horloge utilisee pour calculer l expiration.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * Entrees du cache dans l ordre dacces.
+     */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Chargements en cours, indexes par cle.
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Compteurs de statistiques. Une demande qui rejoint un chargement
+     * deja en cours est comptee a part, ni comme succes ni comme echec.
+     */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Construit un cache avec l horloge du systeme.
+     *
+     * @param maxSize nombre maximal d entrees
+     * @param ttl duree de vie des entrees
+     */
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Construit un cache avec une horloge fournie.
+     *
+     * @param maxSize nombre maximal d entrees
+     * @param ttl duree de vie des entrees
+     * @param clock horloge en nanosecondes
+     */
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this(maxSize, Long.MAX_VALUE, v -> 0, ttl, clock);
+    }
+
+    /**
+     * Construit un cache borne aussi par le poids total de ses entrees.
+     *
+     * @param maxSize nombre maximal d entrees
+     * @param maxWeight poids total maximal
+     * @param weigher fonction estimant le poids dune valeur
+     * @param ttl duree de vie des entrees
+     * @param clock horloge en nanosecondes
+     */
+    public ExpiringCache(
+            int maxSize,
+            long maxWeight,
+            ToLongFunction<? super V> weigher,
+            Duration ttl,
+            LongSupplier clock
+    ) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize doit etre positif");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight doit etre positif");
+        }
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retourne la valeur associee a une cle sans la charger.
+     *
+     * @param key cle recherchee
+     * @return la valeur ou null si absente ou expiree
+     */
+    public V getIfPresent(K key) {
+        V value = lookup(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Retourne la valeur associee a une cle en la chargeant au besoin.
+     * Un seul appel au chargeur est effectue pour des demandes
+     * concurrentes sur la meme cle.
+     *
+     * @param key cle recherchee
+     * @param loader fonction de chargement de la valeur
+     * @return la valeur associee a la cle
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return join(existing);
+        }
+
+        misses.incrementAndGet();
+        long since = invalidations();
+
+        try {
+            V value = loader.apply(key);
+            if (value != null) {
+                store(key, value, since);
+            }
+            created.complete(value);
+            return value;
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Retourne de maniere asynchrone la valeur associee a une cle
+     * en la chargeant au besoin. Les chargements synchrones et asynchrones
+     * dune meme cle partagent le meme appel au chargeur.
+     *
+     * @param key cle recherchee
+     * @param loader fonction de chargement asynchrone de la valeur
+     * @return la valeur associee a la cle
+     */
+    public CompletableFuture<V> getAsync(
+            K key,
+            Function<? super K, ? extends CompletableFuture<? extends V>> loader
+    ) {
+
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.copy();
+        }
+
+        misses.incrementAndGet();
+        long since = invalidations();
+
+        CompletableFuture<? extends V> loading;
+        try {
+            loading = loader.apply(key);
+        } catch (Throwable e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            if (e instanceof RuntimeException) {
+                return created.copy();
+            }
+            throw e;
+        }
+
+        loading.whenComplete((value, error) -> {
+            try {
+                if (error == null && value != null) {
+                    store(key, value, since);
+                }
+            } finally {
+                inFlight.remove(key, created);
+                if (error != null) {
+                    created.completeExceptionally(unwrap(error));
+                } else {
+                    created.complete(value);
+                }
+            }
+        });
+
+        return created.copy();
+    }
+
+    /**
+     * Ajoute ou remplace une valeur dans le cache.
+     *
+     * @param key cle a associer
+     * @param value valeur a conserver
+     */
+    public void put(K key, V value) {
+        synchronized (entries) {
+            insert(key, value);
+        }
+    }
+
+    /**
+     * Retire une entree du cache.
+     *
+     * @param key cle a retirer
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            invalidations++;
+            inFlight.remove(key);
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) {
+                totalWeight -= removed.weight;
+            }
+        }
+    }
+
+    /**
+     * Retire les entrees dont la cle verifie une condition.
+     *
+     * @param condition condition sur la cle
+     * @return le nombre d entrees retirees
+     */
+    public int invalidateIf(Predicate<? super K> condition) {
+        synchronized (entries) {
+            invalidations++;
+            inFlight.keySet().removeIf(condition);
+            int removed = 0;
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<V>> e = it.next();
+                if (condition.test(e.getKey())) {
+                    totalWeight -= e.getValue().weight;
+                    it.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Vide completement le cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations++;
+            inFlight.clear();
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * Retourne le nombre d entrees presentes.
+     *
+     * @return la taille du cache
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Retourne le poids total des entrees presentes.
+     *
+     * @return le poids total
+     */
+    public long weight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    /**
+     * Retourne les statistiques du cache.
+     *
+     * @return les compteurs du cache
+     */
+    public Map<String, Long> stats() {
+        return Map.of(
+                "size", (long) size(),
+                "weight", weight(),
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "coalesced", coalesced.get(),
+                "evictions", evictions.get(),
+                "expirations", expirations.get()
+        );
+    }
+
+    /**
+     * Retourne le nombre d invalidations effectuees.
+     *
+     * @return le nombre d invalidations
+     */
+    private long invalidations() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    /**
+     * Conserve une valeur chargee, sauf si le cache a ete invalide depuis
+     * le debut de son chargement : la valeur pourrait alors etre perimee.
+     *
+     * @param key cle a associer
+     * @param value valeur chargee
+     * @param since nombre d invalidations au debut du chargement
+     */
+    private void store(K key, V value, long since) {
+        synchronized (entries) {
+            if (invalidations == since) {
+                insert(key, value);
+            }
+        }
+    }
+
+    /**
+     * Ajoute ou remplace une entree et applique les bornes du cache.
+     * Doit etre appelee en tenant le verrou des entrees.
+     *
+     * @param key cle a associer
+     * @param value valeur a conserver
+     */
+    private void insert(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        Entry<V> previous = entries.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos, weight));
+        totalWeight += weight - (previous == null ? 0 : previous.weight);
+        evictOverflow();
+    }
+
+    /**
+     * Recherche une entree valide sans modifier les compteurs.
+     *
+     * @param key cle recherchee
+     * @return la valeur ou null
+     */
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                totalWeight -= entry.weight;
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Retire les entrees les moins recemment utilisees au dela de la taille
+     * ou du poids maximal.
+     */
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxSize || totalWeight > maxWeight) && it.hasNext()) {
+            totalWeight -= it.next().getValue().weight;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Retire l enveloppe CompletionException dune erreur asynchrone.
+     *
+     * @param error erreur recue
+     * @return la cause reelle de l erreur
+     */
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Attend la fin dun chargement en cours.
+     *
+     * @param future chargement en cours
+     * @return la valeur chargee
+     */
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Entree du cache avec sa date d expiration et son poids.
+     *
+     * @param value valeur conservee
+     * @param expiresAt instant d expiration en nanosecondes
+     * @param weight poids de la valeur
+     * @param <V> type de la valeur
+     */
+    private record Entry<V>(V value, long expiresAt, long weight) {}
+}
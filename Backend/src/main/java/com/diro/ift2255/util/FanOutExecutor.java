@@ -0,0 +1,200 @@
+package com.diro.ift2255.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Utilitaire d execution parallele des appels vers l api externe.
+ * Chaque tache s execute sur un thread virtuel, le nombre de taches
+ * simultanees est borne par requete et globalement, et l echeance
+ * de la requete est transmise aux appels http effectues par les taches.
+ */
+public final class FanOutExecutor {
+
+    /**
+     * Delai maximal par defaut dune operation parallele.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(
+            Long.getLong("planifium.fanout.timeoutMs", 20000L)
+    );
+
+    /**
+     * Nombre maximal d appels simultanes vers l api externe pour tout le processus.
+     */
+    private static final Semaphore GLOBAL_PERMITS = new Semaphore(
+            Integer.getInteger("planifium.fanout.maxInFlight", 64),
+            true
+    );
+
+    /**
+     * Executeur creant un thread virtuel par tache.
+     */
+    private static final ExecutorService EXECUTOR =
+            Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Echeance (en nanosecondes) de l operation en cours sur le thread courant.
+     */
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private FanOutExecutor() {
+    }
+
+    /**
+     * Applique une fonction a chaque element en parallele avec le delai par defaut.
+     *
+     * @param items elements a traiter
+     * @param task fonction a appliquer
+     * @param maxConcurrency nombre maximal de taches simultanees pour cet appel
+     * @param <T> type des elements
+     * @param <R> type des resultats
+     * @return les resultats dans l ordre des elements
+     */
+    public static <T, R> List<R> map(
+            List<T> items,
+            Function<? super T, ? extends R> task,
+            int maxConcurrency
+    ) {
+        return map(items, task, maxConcurrency, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Applique une fonction a chaque element en parallele.
+     * Si le thread courant possede deja une echeance plus proche,
+     * c est celle-ci qui est utilisee.
+     *
+     * @param items elements a traiter
+     * @param task fonction a appliquer
+     * @param maxConcurrency nombre maximal de taches simultanees pour cet appel
+     * @param timeout delai maximal de l operation
+     * @param <T> type des elements
+     * @param <R> type des resultats
+     * @return les resultats dans l ordre des elements
+     * @throws RuntimeException si une tache echoue ou si le delai est depasse
+     */
+    public static <T, R> List<R> map(
+            List<T> items,
+            Function<? super T, ? extends R> task,
+            int maxConcurrency,
+            Duration timeout
+    ) {
+
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Long inherited = DEADLINE.get();
+        if (inherited != null && inherited - deadline < 0) {
+            deadline = inherited;
+        }
+
+        final long taskDeadline = deadline;
+        Semaphore localPermits = new Semaphore(Math.max(1, maxConcurrency));
+        List<Future<R>> futures = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            futures.add(EXECUTOR.submit(() ->
+                    runWithPermits(item, task, localPermits, taskDeadline)
+            ));
+        }
+
+        try {
+            List<R> results = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                results.add(future.get(remainingNanos(taskDeadline), TimeUnit.NANOSECONDS));
+            }
+            return results;
+
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Delai depasse pour les appels paralleles", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException cause) {
+                throw new RuntimeException("Delai depasse pour les appels paralleles", cause);
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Appels paralleles interrompus", e);
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Retourne le temps restant avant l echeance du thread courant.
+     *
+     * @return le temps restant ou null si aucune echeance nest definie
+     */
+    public static Duration remainingTime() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return null;
+        }
+        return Duration.ofNanos(remainingNanos(deadline));
+    }
+
+    /**
+     * Execute une tache apres avoir obtenu les permis local et global.
+     *
+     * @param item element a traiter
+     * @param task fonction a appliquer
+     * @param localPermits permis de l appel courant
+     * @param deadline echeance en nanosecondes
+     * @param <T> type de l element
+     * @param <R> type du resultat
+     * @return le resultat de la tache
+     * @throws Exception si la tache echoue ou si le delai est depasse
+     */
+    private static <T, R> R runWithPermits(
+            T item,
+            Function<? super T, ? extends R> task,
+            Semaphore localPermits,
+            long deadline
+    ) throws Exception {
+
+        if (!localPermits.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("Delai depasse en attente dun permis");
+        }
+
+        try {
+            if (!GLOBAL_PERMITS.tryAcquire(remainingNanos(deadline), TimeUnit.NANOSECONDS)) {
+                throw new TimeoutException("Delai depasse en attente dun permis global");
+            }
+
+            try {
+                DEADLINE.set(deadline);
+                return task.apply(item);
+            } finally {
+                DEADLINE.remove();
+                GLOBAL_PERMITS.release();
+            }
+        } finally {
+            localPermits.release();
+        }
+    }
+
+    /**
+     * Calcule le nombre de nanosecondes restantes avant une echeance.
+     *
+     * @param deadline echeance en nanosecondes
+     * @return le temps restant, jamais negatif
+     */
+    private static long remainingNanos(long deadline) {
+        return Math.max(0L, deadline - System.nanoTime());
+    }
+}
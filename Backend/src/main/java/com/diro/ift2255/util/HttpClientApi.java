@@ -1,40 +1,331 @@
 package com.diro.ift2255.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 public class HttpClientApi {
 
+    /**
+     * Delai maximal detablissement dune connexion.
+     */
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(
+            Long.getLong("planifium.http.connectTimeoutMs", 10000L)
+    );
+
+    /**
+     * Delai maximal par defaut dune requete.
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(
+            Long.getLong("planifium.http.requestTimeoutMs", 30000L)
+    );
+
+    /**
+     * Client http partage par tout le processus afin de reutiliser
+     * les connexions et les sessions tls.
+     */
+    private static final HttpClient SHARED_CLIENT = createSharedClient();
+
+    /**
+     * Outil de traitement des donnees json pour les appels asynchrones.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Fabrique de parseurs json utilisee pour la lecture en flux.
+     */
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+    /**
+     * Executeur utilise pour lire les reponses en flux des appels asynchrones.
+     */
+    private static final Executor STREAM_EXECUTOR =
+            Executors.newVirtualThreadPerTaskExecutor();
+
     private final HttpClient client;
 
     public HttpClientApi() {
-        this.client = HttpClient.newHttpClient();
+        this.client = SHARED_CLIENT;
     }
 
     /**
      * Envoie un GET HTTP et retourne le body en String.
+     * Si l appel est fait dans une operation parallele, l echeance
+     * de cette operation est utilisee comme delai de la requete.
      */
     public String get(String url) {
         try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .GET()
-                    .build();
+            HttpRequest request = buildRequest(url);
 
-            HttpResponse<String> response =
-                    client.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<byte[]> response =
+                    client.send(request, HttpResponse.BodyHandlers.ofByteArray());
 
             if (response.statusCode() != 200) {
                 throw new RuntimeException("HTTP " + response.statusCode()
                         + " pour l'URL " + url);
             }
 
-            return response.body();
+            return decodeBody(response);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur d'appel HTTP vers " + url, e);
+        }
+    }
+
+    /**
+     * Envoie un GET HTTP sans bloquer le thread appelant.
+     *
+     * @param url adresse a appeler
+     * @return le body de la reponse une fois recu
+     */
+    public CompletableFuture<String> getAsync(String url) {
+
+        HttpRequest request;
+        try {
+            request = buildRequest(url);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Erreur d'appel HTTP vers " + url, e)
+            );
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new RuntimeException("Erreur d'appel HTTP vers " + url, error);
+                    }
+
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Erreur d'appel HTTP vers " + url,
+                                new RuntimeException("HTTP " + response.statusCode()
+                                        + " pour l'URL " + url));
+                    }
+
+                    try {
+                        return decodeBody(response);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Envoie un GET HTTP sans bloquer et analyse la reponse en json.
+     *
+     * @param url adresse a appeler
+     * @return l arbre json de la reponse une fois recu
+     */
+    public CompletableFuture<JsonNode> getJsonAsync(String url) {
+        return getAsync(url).thenApply(body -> {
+            try {
+                return MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Envoie un GET HTTP et lit la reponse json en flux, sans construire
+     * ni la chaine du body ni l arbre json complet.
+     *
+     * @param url adresse a appeler
+     * @param reader lecture des jetons json utiles
+     * @param <T> type du resultat
+     * @return le resultat de la lecture
+     */
+    public <T> T getStreaming(String url, JsonStreamReader<T> reader) {
+        try {
+            HttpRequest request = buildRequest(url);
+
+            HttpResponse<InputStream> response =
+                    client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            return readStream(url, response, reader);
 
         } catch (Exception e) {
             throw new RuntimeException("Erreur d'appel HTTP vers " + url, e);
         }
     }
+
+    /**
+     * Envoie un GET HTTP sans bloquer et lit la reponse json en flux.
+     * La lecture du flux se fait sur un thread virtuel des que les
+     * entetes sont recus.
+     *
+     * @param url adresse a appeler
+     * @param reader lecture des jetons json utiles
+     * @param <T> type du resultat
+     * @return le resultat de la lecture une fois termine
+     */
+    public <T> CompletableFuture<T> getStreamingAsync(String url, JsonStreamReader<T> reader) {
+
+        HttpRequest request;
+        try {
+            request = buildRequest(url);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Erreur d'appel HTTP vers " + url, e)
+            );
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .handleAsync((response, error) -> {
+                    if (error != null) {
+                        throw new RuntimeException("Erreur d'appel HTTP vers " + url, error);
+                    }
+
+                    try {
+                        return readStream(url, response, reader);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Erreur d'appel HTTP vers " + url, e);
+                    }
+                }, STREAM_EXECUTOR);
+    }
+
+    /**
+     * Verifie le statut dune reponse en flux puis la lit avec le parseur json.
+     *
+     * @param url adresse appelee
+     * @param response reponse http recue
+     * @param reader lecture des jetons json utiles
+     * @param <T> type du resultat
+     * @return le resultat de la lecture
+     * @throws IOException si la lecture echoue
+     */
+    private <T> T readStream(
+            String url,
+            HttpResponse<InputStream> response,
+            JsonStreamReader<T> reader
+    ) throws IOException {
+
+        try (InputStream body = response.body()) {
+
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("HTTP " + response.statusCode()
+                        + " pour l'URL " + url);
+            }
+
+            String encoding = response.headers()
+                    .firstValue("Content-Encoding")
+                    .orElse("")
+                    .trim();
+
+            try (JsonParser parser = JSON_FACTORY.createParser(decompress(body, encoding))) {
+                return reader.read(parser);
+            }
+        }
+    }
+
+    /**
+     * Construit une requete GET avec compression et delai.
+     *
+     * @param url adresse a appeler
+     * @return la requete construite
+     */
+    private HttpRequest buildRequest(String url) {
+
+        Duration timeout = REQUEST_TIMEOUT;
+
+        Duration remaining = FanOutExecutor.remainingTime();
+        if (remaining != null) {
+            if (remaining.isZero()) {
+                throw new RuntimeException("Delai depasse avant l'appel HTTP");
+            }
+            if (remaining.compareTo(timeout) < 0) {
+                timeout = remaining;
+            }
+        }
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip, deflate")
+                .timeout(timeout)
+                .GET()
+                .build();
+    }
+
+    /**
+     * Decompresse au besoin le corps de la reponse et le decode en UTF-8.
+     *
+     * @param response reponse http recue
+     * @return le corps de la reponse
+     * @throws IOException si la decompression echoue
+     */
+    private String decodeBody(HttpResponse<byte[]> response) throws IOException {
+
+        String encoding = response.headers()
+                .firstValue("Content-Encoding")
+                .orElse("")
+                .trim();
+
+        if (encoding.isEmpty() || encoding.equalsIgnoreCase("identity")) {
+            return new String(response.body(), StandardCharsets.UTF_8);
+        }
+
+        try (InputStream in = decompress(new ByteArrayInputStream(response.body()), encoding)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Enveloppe un flux compresse selon l encodage annonce par le serveur.
+     *
+     * @param in flux compresse
+     * @param encoding valeur de l entete Content-Encoding
+     * @return le flux decompresse
+     * @throws IOException si l encodage nest pas supporte
+     */
+    static InputStream decompress(InputStream in, String encoding) throws IOException {
+
+        if (encoding.equalsIgnoreCase("gzip") || encoding.equalsIgnoreCase("x-gzip")) {
+            return new GZIPInputStream(in);
+        }
+
+        if (encoding.equalsIgnoreCase("deflate")) {
+            return new InflaterInputStream(in);
+        }
+
+        if (encoding.isEmpty() || encoding.equalsIgnoreCase("identity")) {
+            return in;
+        }
+
+        throw new IOException("Content-Encoding non supporte : " + encoding);
+    }
+
+    /**
+     * Cree le client partage avec HTTP/2 et un pool de connexions persistantes.
+     * La taille du pool et la duree de vie des connexions inactives sont lues
+     * par le JDK dans les proprietes jdk.httpclient.connectionPoolSize et
+     * jdk.httpclient.keepalive.timeout, a fournir au lancement avec -D ;
+     * Main leur donne une valeur par defaut si elles sont absentes.
+     *
+     * @return le client http partage
+     */
+    private static HttpClient createSharedClient() {
+
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
 }
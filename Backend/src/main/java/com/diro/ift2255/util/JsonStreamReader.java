@@ -0,0 +1,25 @@
+package com.diro.ift2255.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Interface representant une lecture en flux dune reponse json.
+ * L implementation parcourt les jetons du parseur et ne conserve
+ * que les champs dont elle a besoin.
+ *
+ * @param <T> type du resultat produit
+ */
+@FunctionalInterface
+public interface JsonStreamReader<T> {
+
+    /**
+     * Lit la reponse json a partir du parseur positionne avant le premier jeton.
+     *
+     * @param parser parseur json de la reponse
+     * @return le resultat de la lecture
+     * @throws IOException si la lecture echoue
+     */
+    T read(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,335 @@
+package com.diro.ift2255.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Automate de Aho-Corasick pour rechercher un lexique de mots-cles ponderes
+ * en une seule passe sur un texte.
+ * Les caracteres sont compares sans tenir compte de la casse ni des accents,
+ * sans copie du texte. Un mot-cle exact exige en plus que ses accents
+ * apparaissent tels quels dans le texte.
+ * Une instance est immuable et peut etre partagee entre plusieurs threads.
+ */
+public final class KeywordAutomaton {
+
+    /**
+     * Nombre de caracteres, latin de base et etendu, dont la lettre est precalculee.
+     */
+    private static final int RAW_TABLE_SIZE = 0x180;
+
+    /**
+     * Transitions completes. La case debut de ligne + lettre contient le debut
+     * de ligne de l etat suivant, complemente a un lorsque cet etat reconnait
+     * un mot-cle.
+     */
+    private final int[] transitions;
+
+    /**
+     * Nombre de lettres de l alphabet, la lettre 0 regroupant les autres caracteres.
+     */
+    private final int alphabetSize;
+
+    /**
+     * Lettre de l alphabet de chaque caractere normalise, 0 si absent du lexique.
+     */
+    private final char[] letters;
+
+    /**
+     * Lettre de l alphabet des caracteres latins bruts, sans passer par la normalisation.
+     */
+    private final char[] rawLetters;
+
+    /**
+     * Mots-cles reconnus a chaque etat, y compris par les liens de suffixe.
+     */
+    private final int[][] outputs;
+
+    /**
+     * Mots-cles exacts en minuscules, null pour les mots-cles sans accents imposes.
+     */
+    private final String[] exact;
+
+    /**
+     * Poids des mots-cles.
+     */
+    private final int[] weights;
+
+    /**
+     * Poids maximal du lexique, qui permet d arreter la lecture plus tot.
+     */
+    private final int maxWeight;
+
+    private KeywordAutomaton(
+            int[] transitions,
+            int alphabetSize,
+            char[] letters,
+            int[][] outputs,
+            String[] exact,
+            int[] weights
+    ) {
+        this.transitions = transitions;
+        this.alphabetSize = alphabetSize;
+        this.letters = letters;
+        this.rawLetters = new char[RAW_TABLE_SIZE];
+        for (char c = 0; c < RAW_TABLE_SIZE; c++) {
+            char folded = TextNormalizer.foldChar(c);
+            rawLetters[c] = folded < letters.length ? letters[folded] : 0;
+        }
+        this.outputs = outputs;
+        this.exact = exact;
+        this.weights = weights;
+        this.maxWeight = Arrays.stream(weights).max().orElse(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Retourne un constructeur de lexique vide.
+     *
+     * @return le constructeur
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Retourne le poids maximal des mots-cles presents dans le texte.
+     *
+     * @param text texte a analyser
+     * @param defaultWeight poids retourne si aucun mot-cle nest trouve
+     * @return le poids maximal trouve, ou le poids par defaut
+     */
+    public int maxWeight(CharSequence text, int defaultWeight) {
+
+        if (text == null) {
+            return defaultWeight;
+        }
+
+        boolean found = false;
+        int best = Integer.MIN_VALUE;
+        int row = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            int next = transitions[row + letter(text.charAt(i))];
+            if (next >= 0) {
+                row = next;
+                continue;
+            }
+            row = ~next;
+
+            for (int keyword : outputs[row / alphabetSize]) {
+                if (weights[keyword] > best && matchesExactly(keyword, text, i)) {
+                    best = weights[keyword];
+                    found = true;
+                }
+            }
+
+            if (best == maxWeight) {
+                break;
+            }
+        }
+
+        return found ? best : defaultWeight;
+    }
+
+    /**
+     * Retourne vrai si au moins un mot-cle est present dans le texte.
+     *
+     * @param text texte a analyser
+     * @return vrai si un mot-cle est trouve
+     */
+    public boolean matches(CharSequence text) {
+        return maxWeight(text, Integer.MIN_VALUE) != Integer.MIN_VALUE;
+    }
+
+    /**
+     * Retourne la lettre de l alphabet dun caractere du texte.
+     *
+     * @param c caractere du texte
+     * @return la lettre, 0 si le caractere napparait dans aucun mot-cle
+     */
+    private int letter(char c) {
+        if (c < RAW_TABLE_SIZE) {
+            return rawLetters[c];
+        }
+        char folded = TextNormalizer.foldChar(c);
+        return folded < letters.length ? letters[folded] : 0;
+    }
+
+    /**
+     * Verifie les accents dun mot-cle exact termine a la position fournie.
+     *
+     * @param keyword mot-cle reconnu
+     * @param text texte analyse
+     * @param end position du dernier caractere reconnu
+     * @return vrai si le mot-cle nimpose pas d accents ou sils correspondent
+     */
+    private boolean matchesExactly(int keyword, CharSequence text, int end) {
+        String expected = exact[keyword];
+        if (expected == null) {
+            return true;
+        }
+        int start = end - expected.length() + 1;
+        for (int j = 0; j < expected.length(); j++) {
+            if (Character.toLowerCase(text.charAt(start + j)) != expected.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Constructeur dun lexique de mots-cles ponderes.
+     */
+    public static final class Builder {
+
+        private final List<String> keywords = new ArrayList<>();
+        private final List<String> exact = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Ajoute un mot-cle compare sans tenir compte de la casse ni des accents.
+         *
+         * @param keyword mot-cle
+         * @param weight poids du mot-cle
+         * @return ce constructeur
+         * @throws IllegalArgumentException si le mot-cle est vide
+         */
+        public Builder add(String keyword, int weight) {
+            return add(keyword, weight, false);
+        }
+
+        /**
+         * Ajoute un mot-cle dont les accents doivent apparaitre tels quels,
+         * la casse restant ignoree.
+         *
+         * @param keyword mot-cle
+         * @param weight poids du mot-cle
+         * @return ce constructeur
+         * @throws IllegalArgumentException si le mot-cle est vide
+         */
+        public Builder addExact(String keyword, int weight) {
+            return add(keyword, weight, true);
+        }
+
+        private Builder add(String keyword, int weight, boolean accents) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Mot-cle vide");
+            }
+            StringBuilder folded = new StringBuilder(keyword.length());
+            for (int i = 0; i < keyword.length(); i++) {
+                folded.append(TextNormalizer.foldChar(keyword.charAt(i)));
+            }
+            keywords.add(folded.toString());
+            exact.add(accents ? keyword.toLowerCase() : null);
+            weights.add(weight);
+            return this;
+        }
+
+        /**
+         * Compile le lexique en automate.
+         *
+         * @return l automate
+         */
+        public KeywordAutomaton build() {
+
+            char maxChar = 0;
+            for (String k : keywords) {
+                for (int i = 0; i < k.length(); i++) {
+                    maxChar = (char) Math.max(maxChar, k.charAt(i));
+                }
+            }
+
+            char[] letters = new char[keywords.isEmpty() ? 0 : maxChar + 1];
+            int alphabetSize = 1;
+            for (String k : keywords) {
+                for (int i = 0; i < k.length(); i++) {
+                    char c = k.charAt(i);
+                    if (letters[c] == 0) {
+                        letters[c] = (char) alphabetSize++;
+                    }
+                }
+            }
+
+            List<Map<Integer, Integer>> trie = new ArrayList<>();
+            List<List<Integer>> terminal = new ArrayList<>();
+            trie.add(new HashMap<>());
+            terminal.add(new ArrayList<>());
+
+            for (int id = 0; id < keywords.size(); id++) {
+                String k = keywords.get(id);
+                int state = 0;
+                for (int i = 0; i < k.length(); i++) {
+                    int letter = letters[k.charAt(i)];
+                    Integer next = trie.get(state).get(letter);
+                    if (next == null) {
+                        next = trie.size();
+                        trie.get(state).put(letter, next);
+                        trie.add(new HashMap<>());
+                        terminal.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                terminal.get(state).add(id);
+            }
+
+            int states = trie.size();
+            int[] transitions = new int[states * alphabetSize];
+            int[] fail = new int[states];
+            Deque<Integer> queue = new ArrayDeque<>();
+
+            for (Map.Entry<Integer, Integer> e : trie.get(0).entrySet()) {
+                transitions[e.getKey()] = e.getValue();
+                queue.add(e.getValue());
+            }
+
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                terminal.get(state).addAll(terminal.get(fail[state]));
+
+                for (int letter = 0; letter < alphabetSize; letter++) {
+                    Integer child = trie.get(state).get(letter);
+                    int fallback = transitions[fail[state] * alphabetSize + letter];
+                    if (child == null) {
+                        transitions[state * alphabetSize + letter] = fallback;
+                    } else {
+                        transitions[state * alphabetSize + letter] = child;
+                        fail[child] = fallback;
+                        queue.add(child);
+                    }
+                }
+            }
+
+            int[][] outputs = new int[states][];
+            for (int s = 0; s < states; s++) {
+                List<Integer> out = terminal.get(s);
+                if (!out.isEmpty()) {
+                    outputs[s] = out.stream().mapToInt(Integer::intValue).toArray();
+                }
+            }
+
+            for (int i = 0; i < transitions.length; i++) {
+                int target = transitions[i];
+                transitions[i] = outputs[target] == null
+                        ? target * alphabetSize
+                        : ~(target * alphabetSize);
+            }
+
+            return new KeywordAutomaton(
+                    transitions,
+                    alphabetSize,
+                    letters,
+                    outputs,
+                    exact.toArray(new String[0]),
+                    weights.stream().mapToInt(Integer::intValue).toArray()
+            );
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package com.diro.ift2255.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal persistant en ajout seul, decoupe en segments de taille bornee.
+ *
+ * Chaque enregistrement est ecrit sous la forme [longueur][crc32c][donnees],
+ * la longueur et le crc etant des entiers de quatre octets. A l ouverture,
+ * les segments sont projetes en memoire et parcourus pour reconstruire
+ * l index des positions ; un enregistrement incomplet ou corrompu en fin
+ * du dernier segment (ecriture interrompue) est tronque.
+ *
+ * Les ecritures vont dans le cache du systeme et sont forcees sur le disque
+ * par lots, au plus tard apres l intervalle de synchronisation. Un intervalle
+ * nul force chaque ecriture.
+ */
+public final class SegmentedLog implements Closeable {
+
+    /**
+     * Trace des segments corrompus et des synchronisations en echec.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentedLog.class);
+
+    /**
+     * Taille de l en-tete dun enregistrement.
+     */
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Nombre de bits reserves a la position dans un segment.
+     */
+    private static final int OFFSET_BITS = 40;
+
+    /**
+     * Extension des fichiers de segment.
+     */
+    private static final String SUFFIX = ".log";
+
+    /**
+     * Dossier des segments.
+     */
+    private final Path dir;
+
+    /**
+     * Taille au dela de laquelle un nouveau segment est commence.
+     */
+    private final long segmentBytes;
+
+    /**
+     * Intervalle maximal entre deux synchronisations sur le disque.
+     */
+    private final long fsyncIntervalMs;
+
+    /**
+     * Chemins des segments, dans l ordre.
+     */
+    private final List<Path> segments = new ArrayList<>();
+
+    /**
+     * Projections en memoire des segments, creees a la demande.
+     */
+    private final List<MappedByteBuffer> mappings = new ArrayList<>();
+
+    /**
+     * Position de chaque enregistrement : numero de segment et decalage.
+     */
+    private long[] positions = new long[1024];
+
+    /**
+     * Nombre denregistrements.
+     */
+    private int count;
+
+    /**
+     * Canal d ecriture du dernier segment.
+     */
+    private FileChannel active;
+
+    /**
+     * Taille du dernier segment.
+     */
+    private long activeSize;
+
+    /**
+     * Vrai si des ecritures nont pas encore ete forcees sur le disque.
+     */
+    private boolean dirty;
+
+    /**
+     * Tache de synchronisation periodique, null si chaque ecriture est forcee.
+     */
+    private final ScheduledExecutorService flusher;
+
+    private SegmentedLog(Path dir, long segmentBytes, long fsyncIntervalMs) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+
+        if (fsyncIntervalMs > 0) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "log-fsync");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly,
+                    fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Ouvre ou cree un journal dans un dossier et reconstruit son index.
+     *
+     * @param dir dossier des segments
+     * @param segmentBytes taille maximale dun segment
+     * @param fsyncIntervalMs intervalle maximal entre deux synchronisations,
+     *                        0 pour synchroniser chaque ecriture
+     * @return le journal ouvert
+     * @throws IOException si le dossier ou un segment ne peut pas etre lu
+     */
+    public static SegmentedLog open(Path dir, long segmentBytes, long fsyncIntervalMs) throws IOException {
+
+        Files.createDirectories(dir);
+        SegmentedLog log = new SegmentedLog(dir, segmentBytes, fsyncIntervalMs);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .forEach(log.segments::add);
+        }
+
+        for (int s = 0; s < log.segments.size(); s++) {
+            log.mappings.add(null);
+            log.scan(s, s == log.segments.size() - 1);
+        }
+
+        if (log.segments.isEmpty()) {
+            log.startSegment();
+        } else {
+            Path last = log.segments.get(log.segments.size() - 1);
+            log.active = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            log.activeSize = log.active.size();
+            log.active.position(log.activeSize);
+        }
+
+        return log;
+    }
+
+    /**
+     * Parcourt un segment projete en memoire et indexe ses enregistrements valides.
+     *
+     * @param segment numero du segment
+     * @param last vrai pour le dernier segment, qui peut etre tronque
+     * @throws IOException si le segment ne peut pas etre lu
+     */
+    private void scan(int segment, boolean last) throws IOException {
+
+        Path path = segments.get(segment);
+        long validEnd = 0;
+        long size;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size > 0) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                CRC32C crc = new CRC32C();
+                int pos = 0;
+
+                while (pos + HEADER_BYTES <= size) {
+                    int length = map.getInt(pos);
+                    int expected = map.getInt(pos + 4);
+
+                    if (length < 0 || pos + HEADER_BYTES + (long) length > size) {
+                        break;
+                    }
+
+                    crc.reset();
+                    crc.update(map.slice(pos + HEADER_BYTES, length));
+                    if ((int) crc.getValue() != expected) {
+                        break;
+                    }
+
+                    index(segment, pos);
+                    pos += HEADER_BYTES + length;
+                    validEnd = pos;
+                }
+            }
+        }
+
+        if (validEnd < size) {
+            if (!last) {
+                LOG.error("Segment {} corrompu apres l octet {}, fin ignoree",
+                        path.getFileName(), validEnd);
+                return;
+            }
+            LOG.warn("Segment {} tronque a {} octets (ecriture interrompue)",
+                    path.getFileName(), validEnd);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Ajoute un enregistrement.
+     *
+     * @param record donnees de l enregistrement
+     * @return le numero de l enregistrement
+     * @throws IOException si l ecriture echoue
+     */
+    public synchronized int append(byte[] record) throws IOException {
+        return appendAll(List.of(record));
+    }
+
+    /**
+     * Ajoute plusieurs enregistrements avec le moins d ecritures possible.
+     * Si une ecriture echoue, les octets deja ecrits du lot en cours sont
+     * retires, de sorte que les ajouts suivants restent lisibles.
+     *
+     * @param records donnees des enregistrements
+     * @return le numero du premier enregistrement ajoute
+     * @throws IOException si l ecriture echoue
+     */
+    public synchronized int appendAll(List<byte[]> records) throws IOException {
+
+        int first = count;
+        int i = 0;
+
+        while (i < records.size()) {
+
+            long batchBytes = 0;
+            int end = i;
+            while (end < records.size()) {
+                long recordBytes = HEADER_BYTES + (long) records.get(end).length;
+                boolean fits = activeSize + batchBytes + recordBytes <= segmentBytes;
+                if (!fits && (activeSize + batchBytes > 0)) {
+                    break;
+                }
+                batchBytes += recordBytes;
+                end++;
+                if (!fits) {
+                    break;
+                }
+            }
+
+            if (end == i) {
+                startSegment();
+                continue;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(batchBytes));
+            CRC32C crc = new CRC32C();
+            long offset = activeSize;
+
+            for (int r = i; r < end; r++) {
+                byte[] data = records.get(r);
+                crc.reset();
+                crc.update(data);
+                buffer.putInt(data.length).putInt((int) crc.getValue()).put(data);
+            }
+            buffer.flip();
+
+            try {
+                while (buffer.hasRemaining()) {
+                    active.write(buffer);
+                }
+            } catch (IOException | RuntimeException e) {
+                discardPartialWrite(e);
+                throw e;
+            }
+
+            for (int r = i; r < end; r++) {
+                index(segments.size() - 1, offset);
+                offset += HEADER_BYTES + records.get(r).length;
+            }
+            activeSize = offset;
+            i = end;
+        }
+
+        dirty = true;
+        if (flusher == null) {
+            flush();
+        }
+
+        return first;
+    }
+
+    /**
+     * Ramene le segment actif a sa derniere taille valide apres une ecriture
+     * partielle. Un echec de cette remise en etat est attache a l erreur initiale.
+     *
+     * @param error erreur de l ecriture partielle
+     */
+    private void discardPartialWrite(Exception error) {
+        try {
+            active.truncate(activeSize);
+            active.position(activeSize);
+        } catch (IOException | RuntimeException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Lit un enregistrement a partir de la projection en memoire de son segment.
+     *
+     * @param index numero de l enregistrement
+     * @return les donnees de l enregistrement
+     * @throws IOException si le segment ne peut pas etre projete
+     */
+    public synchronized byte[] read(int index) throws IOException {
+
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        int segment = (int) (positions[index] >>> OFFSET_BITS);
+        int offset = (int) (positions[index] & ((1L << OFFSET_BITS) - 1));
+
+        MappedByteBuffer map = mappings.get(segment);
+        if (map == null || map.capacity() < offset + HEADER_BYTES
+                || map.capacity() < offset + HEADER_BYTES + map.getInt(offset)) {
+            map = map(segment);
+        }
+
+        byte[] data = new byte[map.getInt(offset)];
+        map.get(offset + HEADER_BYTES, data);
+        return data;
+    }
+
+    /**
+     * Retourne le nombre denregistrements.
+     *
+     * @return le nombre denregistrements
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Force les ecritures en attente sur le disque.
+     *
+     * @throws IOException si la synchronisation echoue
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty && active != null) {
+            active.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Force les ecritures et ferme le journal.
+     *
+     * @throws IOException si la fermeture echoue
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        if (active != null) {
+            flush();
+            active.close();
+            active = null;
+        }
+        mappings.replaceAll(m -> null);
+    }
+
+    /**
+     * Projette un segment en memoire dans sa taille actuelle.
+     *
+     * @param segment numero du segment
+     * @return la projection
+     * @throws IOException si le segment ne peut pas etre projete
+     */
+    private MappedByteBuffer map(int segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segments.get(segment), StandardOpenOption.READ)) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappings.set(segment, map);
+            return map;
+        }
+    }
+
+    /**
+     * Commence un nouveau segment apres avoir synchronise le precedent.
+     *
+     * @throws IOException si le segment ne peut pas etre cree
+     */
+    private void startSegment() throws IOException {
+
+        if (active != null) {
+            active.force(false);
+            active.close();
+        }
+
+        Path path = dir.resolve(String.format("%08d%s", segments.size(), SUFFIX));
+        active = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        activeSize = 0;
+        segments.add(path);
+        mappings.add(null);
+    }
+
+    /**
+     * Ajoute une position a l index.
+     *
+     * @param segment numero du segment
+     * @param offset decalage dans le segment
+     */
+    private void index(int segment, long offset) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+        }
+        positions[count++] = ((long) segment << OFFSET_BITS) | offset;
+    }
+
+    /**
+     * Synchronise le journal depuis la tache periodique.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            LOG.error("Synchronisation du journal impossible", e);
+        }
+    }
+}
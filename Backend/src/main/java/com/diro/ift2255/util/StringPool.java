@@ -0,0 +1,48 @@
+package com.diro.ift2255.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserve bornee de textes partages, pour ne conserver quune copie des
+ * textes souvent repetes comme les sigles, les sections ou les jours.
+ * Contrairement a String.intern, la reserve a une taille maximale : une
+ * fois pleine, les nouveaux textes sont retournes tels quels.
+ */
+public final class StringPool {
+
+    /**
+     * Nombre maximal de textes partages.
+     */
+    private static final int MAX_SIZE = 50_000;
+
+    /**
+     * Textes partages, chacun associe a lui-meme.
+     */
+    private static final Map<String, String> POOL = new ConcurrentHashMap<>();
+
+    private StringPool() {
+    }
+
+    /**
+     * Retourne la copie partagee dun texte.
+     *
+     * @param value texte a partager
+     * @return la copie partagee, le texte lui-meme si la reserve est pleine,
+     *         ou null si le texte est null
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = POOL.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (POOL.size() >= MAX_SIZE) {
+            return value;
+        }
+        shared = POOL.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+}
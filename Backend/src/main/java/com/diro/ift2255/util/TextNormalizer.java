@@ -0,0 +1,138 @@
+package com.diro.ift2255.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe utilitaire de normalisation des textes pour l indexation.
+ * Elle decoupe un texte en jetons formes de lettres et de chiffres,
+ * en minuscules et sans accents, de sorte que "Génie" et "genie"
+ * produisent le meme jeton.
+ */
+public final class TextNormalizer {
+
+    /**
+     * Premier caractere couvert par la table de repli des accents.
+     */
+    private static final char FOLD_START = 'À';
+
+    /**
+     * Dernier caractere couvert par la table de repli des accents.
+     */
+    private static final char FOLD_END = 'ſ';
+
+    /**
+     * Table de repli des caracteres latins accentues vers leur lettre de base.
+     */
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Decoupe un texte en jetons normalises.
+     *
+     * @param text texte a decouper
+     * @return la liste des jetons dans l ordre du texte
+     */
+    public static List<String> tokens(String text) {
+
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder current = new StringBuilder();
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                appendFolded(current, c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Retourne un texte en minuscules et sans accents.
+     *
+     * @param text texte a normaliser
+     * @return le texte normalise
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            appendFolded(sb, text.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Retourne un caractere en minuscule et sans accent.
+     * Les ligatures sont ramenees a leur premiere lettre.
+     *
+     * @param c caractere a normaliser
+     * @return le caractere normalise
+     */
+    public static char foldChar(char c) {
+        if (c < 0x80) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + 32) : c;
+        }
+        if (c >= FOLD_START && c <= FOLD_END) {
+            return FOLD_TABLE[c - FOLD_START];
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Ajoute un caractere normalise, en developpant les ligatures.
+     *
+     * @param sb tampon de sortie
+     * @param c caractere a ajouter
+     */
+    private static void appendFolded(StringBuilder sb, char c) {
+        switch (c) {
+            case 'Œ', 'œ' -> sb.append("oe");
+            case 'Æ', 'æ' -> sb.append("ae");
+            case 'ß' -> sb.append("ss");
+            default -> sb.append(foldChar(c));
+        }
+    }
+
+    /**
+     * Construit la table de repli a partir de la decomposition unicode.
+     *
+     * @return la table de repli
+     */
+    private static char[] buildFoldTable() {
+
+        char[] table = new char[FOLD_END - FOLD_START + 1];
+
+        for (char c = FOLD_START; c <= FOLD_END; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            char base = Character.toLowerCase(decomposed.charAt(0));
+            table[c - FOLD_START] = base < 0x80 ? base : Character.toLowerCase(c);
+        }
+
+        table['Œ' - FOLD_START] = 'o';
+        table['œ' - FOLD_START] = 'o';
+        table['Æ' - FOLD_START] = 'a';
+        table['æ' - FOLD_START] = 'a';
+
+        return table;
+    }
+}
@@ -0,0 +1,175 @@
+package com.diro.ift2255.util;
+
+import com.diro.ift2255.model.Sigle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Forme canonique dun releve de cours reussis et son empreinte de 128 bits.
+ * Les sigles sont mis en majuscules, sans espaces, sans doublons et tries,
+ * de sorte que deux listes contenant les memes cours dans un ordre ou une
+ * casse differente ont la meme empreinte. Les sigles sont partages entre
+ * releves afin de ne conserver quune copie de chacun.
+ */
+public final class TranscriptFingerprint {
+
+    /**
+     * Releve vide.
+     */
+    public static final TranscriptFingerprint EMPTY = of(List.of());
+
+    /**
+     * Sigles canoniques du releve, tries.
+     */
+    private final List<String> courses;
+
+    /**
+     * Moitie haute de l empreinte.
+     */
+    private final long high;
+
+    /**
+     * Moitie basse de l empreinte.
+     */
+    private final long low;
+
+    private TranscriptFingerprint(List<String> courses) {
+        this.courses = courses;
+
+        long h1 = 0xcbf29ce484222325L;
+        long h2 = 0x9e3779b97f4a7c15L;
+        for (String course : courses) {
+            for (int i = 0; i < course.length(); i++) {
+                char c = course.charAt(i);
+                h1 = (h1 ^ c) * 0x100000001b3L;
+                h2 = Long.rotateLeft(h2 ^ (c * 0xc2b2ae3d27d4eb4fL), 31) * 0x165667b19e3779f9L;
+            }
+            h1 = (h1 ^ ',') * 0x100000001b3L;
+            h2 = Long.rotateLeft(h2 ^ (',' * 0xc2b2ae3d27d4eb4fL), 31) * 0x165667b19e3779f9L;
+        }
+        this.high = mix(h1 ^ courses.size());
+        this.low = mix(h2 + courses.size());
+    }
+
+    /**
+     * Construit la forme canonique dune liste de sigles.
+     * Les sigles vides ou nuls sont ignores.
+     *
+     * @param completed sigles des cours reussis
+     * @return le releve canonique
+     */
+    public static TranscriptFingerprint of(Collection<String> completed) {
+        TreeSet<String> sorted = new TreeSet<>();
+        if (completed != null) {
+            for (String c : completed) {
+                String sigle = Sigle.normalize(c);
+                if (sigle != null) {
+                    sorted.add(sigle);
+                }
+            }
+        }
+        return canonical(sorted);
+    }
+
+    /**
+     * Construit la forme canonique dune liste de sigles separes par des virgules,
+     * en une seule lecture du texte.
+     *
+     * @param completed sigles separes par des virgules
+     * @return le releve canonique
+     */
+    public static TranscriptFingerprint parse(String completed) {
+        TreeSet<String> sorted = new TreeSet<>();
+        if (completed != null) {
+            int n = completed.length();
+            int start = 0;
+            while (start <= n) {
+                int end = completed.indexOf(',', start);
+                if (end < 0) end = n;
+                int from = start;
+                int to = end;
+                while (from < to && completed.charAt(from) <= ' ') from++;
+                while (to > from && completed.charAt(to - 1) <= ' ') to--;
+                if (from < to) {
+                    sorted.add(Sigle.normalize(completed.substring(from, to)));
+                }
+                start = end + 1;
+            }
+        }
+        return canonical(sorted);
+    }
+
+    private static TranscriptFingerprint canonical(TreeSet<String> sorted) {
+        List<String> courses = new ArrayList<>(sorted.size());
+        for (String c : sorted) {
+            courses.add(StringPool.intern(c));
+        }
+        return new TranscriptFingerprint(List.copyOf(courses));
+    }
+
+    /**
+     * Melange final de 64 bits (murmur3), qui repartit chaque bit d entree
+     * sur tous les bits de sortie.
+     *
+     * @param h valeur a melanger
+     * @return la valeur melangee
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Retourne les sigles canoniques du releve.
+     *
+     * @return les sigles tries, sans doublons
+     */
+    public List<String> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Retourne la moitie haute de l empreinte.
+     *
+     * @return les 64 bits de poids fort
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * Retourne la moitie basse de l empreinte.
+     *
+     * @return les 64 bits de poids faible
+     */
+    public long getLow() {
+        return low;
+    }
+
+    /**
+     * Deux releves sont egaux si leurs empreintes de 128 bits sont egales.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TranscriptFingerprint other
+                && high == other.high
+                && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,272 @@
+package com.diro.ift2255.util;
+
+/**
+ * Occupation dune semaine sous forme de carte de bits, a raison dun bit
+ * par tranche de 5 minutes (2016 bits).
+ * Une activite occupe toutes les tranches quelle touche, de sorte que
+ * deux occupations disjointes garantissent l absence de chevauchement.
+ */
+public final class WeeklyOccupancy {
+
+    /**
+     * Duree dune tranche en minutes.
+     */
+    public static final int SLOT_MINUTES = 5;
+
+    /**
+     * Nombre de tranches par jour.
+     */
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    /**
+     * Nombre de tranches par semaine.
+     */
+    public static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    /**
+     * Prefixes des jours reconnus, en francais puis en anglais, du lundi au dimanche.
+     */
+    private static final String[][] DAY_PREFIXES = {
+            {"lu", "mo"},
+            {"ma", "tu"},
+            {"me", "we"},
+            {"je", "th"},
+            {"ve", "fr"},
+            {"sa", "sa"},
+            {"di", "su"}
+    };
+
+    /**
+     * Bits des tranches occupees.
+     */
+    private final long[] words = new long[(SLOTS_PER_WEEK + Long.SIZE - 1) / Long.SIZE];
+
+    /**
+     * Retourne l indice dun jour de la semaine, de 0 (lundi) a 6 (dimanche).
+     * Les noms francais et anglais, complets ou abreges, sont acceptes.
+     *
+     * @param day nom du jour
+     * @return l indice du jour, ou -1 si le jour nest pas reconnu
+     */
+    public static int dayIndex(String day) {
+
+        if (day == null || day.isBlank()) {
+            return -1;
+        }
+
+        String folded = TextNormalizer.fold(day.trim());
+        if (folded.length() < 2) {
+            return -1;
+        }
+
+        for (int i = 0; i < DAY_PREFIXES.length; i++) {
+            for (String prefix : DAY_PREFIXES[i]) {
+                if (folded.startsWith(prefix)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Marque comme occupees les tranches touchees par une activite.
+     *
+     * @param day indice du jour, de 0 a 6
+     * @param startMinute minute de debut dans la journee
+     * @param endMinute minute de fin dans la journee, exclue
+     * @throws IllegalArgumentException si le jour ou les heures sont hors limites
+     */
+    public void add(int day, int startMinute, int endMinute) {
+
+        if (day < 0 || day >= 7 || startMinute < 0 || endMinute > 24 * 60) {
+            throw new IllegalArgumentException("Plage horaire invalide");
+        }
+        if (endMinute <= startMinute) {
+            return;
+        }
+
+        int from = day * SLOTS_PER_DAY + startMinute / SLOT_MINUTES;
+        int to = day * SLOTS_PER_DAY + (endMinute + SLOT_MINUTES - 1) / SLOT_MINUTES;
+
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+
+        words[firstWord] |= firstMask;
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            words[w] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    /**
+     * Indique si deux occupations partagent au moins une tranche.
+     *
+     * @param other autre occupation
+     * @return vrai si au moins une tranche est commune
+     */
+    public boolean intersects(WeeklyOccupancy other) {
+        for (int w = 0; w < words.length; w++) {
+            if ((words[w] & other.words[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ajoute a cette occupation les tranches dune autre occupation.
+     *
+     * @param other autre occupation
+     */
+    public void or(WeeklyOccupancy other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= other.words[w];
+        }
+    }
+
+    /**
+     * Retire de cette occupation les tranches dune autre occupation.
+     *
+     * @param other autre occupation
+     */
+    public void andNot(WeeklyOccupancy other) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] &= ~other.words[w];
+        }
+    }
+
+    /**
+     * Remplace cette occupation par une copie dune autre occupation.
+     *
+     * @param other occupation a copier
+     */
+    public void set(WeeklyOccupancy other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+    }
+
+    /**
+     * Retourne le nombre de tranches occupees dans un intervalle.
+     *
+     * @param fromSlot premiere tranche incluse
+     * @param toSlot derniere tranche exclue
+     * @return le nombre de tranches occupees
+     */
+    public int slotCount(int fromSlot, int toSlot) {
+
+        if (toSlot <= fromSlot) {
+            return 0;
+        }
+
+        int firstWord = fromSlot >>> 6;
+        int lastWord = (toSlot - 1) >>> 6;
+        long firstMask = -1L << fromSlot;
+        long lastMask = -1L >>> -toSlot;
+
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstMask & lastMask);
+        }
+
+        int count = Long.bitCount(words[firstWord] & firstMask);
+        for (int w = firstWord + 1; w < lastWord; w++) {
+            count += Long.bitCount(words[w]);
+        }
+        return count + Long.bitCount(words[lastWord] & lastMask);
+    }
+
+    /**
+     * Retourne la premiere tranche occupee a partir dune position.
+     *
+     * @param fromSlot position de depart incluse
+     * @return la tranche trouvee, ou -1 si aucune
+     */
+    public int nextSlot(int fromSlot) {
+        if (fromSlot >= SLOTS_PER_WEEK) {
+            return -1;
+        }
+        int w = fromSlot >>> 6;
+        long word = words[w] & (-1L << fromSlot);
+        while (true) {
+            if (word != 0) {
+                return w * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * Retourne la derniere tranche occupee jusqua une position.
+     *
+     * @param fromSlot position de depart incluse
+     * @return la tranche trouvee, ou -1 si aucune
+     */
+    public int previousSlot(int fromSlot) {
+        if (fromSlot < 0) {
+            return -1;
+        }
+        int w = fromSlot >>> 6;
+        long word = words[w] & (-1L >>> (63 - (fromSlot & 63)));
+        while (true) {
+            if (word != 0) {
+                return w * Long.SIZE + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (w-- == 0) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * Retourne le nombre de jours ayant au moins une tranche occupee.
+     *
+     * @return le nombre de jours
+     */
+    public int occupiedDays() {
+        int days = 0;
+        for (int day = 0; day < 7; day++) {
+            int first = nextSlot(day * SLOTS_PER_DAY);
+            if (first >= 0 && first < (day + 1) * SLOTS_PER_DAY) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Retourne le nombre de tranches occupees.
+     *
+     * @return le nombre de tranches
+     */
+    public int slotCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Indique si aucune tranche nest occupee.
+     *
+     * @return vrai si l occupation est vide
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.diro.ift2255.util;
+
+/**
+ * Classe utilitaire estimant la charge de travail decrite par un avis,
+ * sur une echelle de 1 (tres legere) a 5 (tres lourde).
+ * Le lexique est compile une seule fois en automate et le texte est lu
+ * en une seule passe ; le mot-cle le plus lourd trouve l emporte.
+ */
+public final class WorkloadClassifier {
+
+    /**
+     * Charge attribuee lorsque le texte ne contient aucun indice.
+     */
+    public static final int DEFAULT_WORKLOAD = 3;
+
+    /**
+     * Charge minimale de l echelle.
+     */
+    public static final int MIN_WORKLOAD = 1;
+
+    /**
+     * Charge maximale de l echelle.
+     */
+    public static final int MAX_WORKLOAD = 5;
+
+    /**
+     * Lexique par defaut. "chargé" garde son accent pour ne pas confondre
+     * l adjectif avec le nom "charge", tres frequent dans les avis.
+     */
+    private static final KeywordAutomaton DEFAULT_LEXICON = KeywordAutomaton.builder()
+            .add("énorme", 5)
+            .add("beaucoup", 5)
+            .add("lourd", 4)
+            .addExact("chargé", 4)
+            .add("moyen", 3)
+            .add("léger", 2)
+            .add("facile", 2)
+            .build();
+
+    private WorkloadClassifier() {
+    }
+
+    /**
+     * Extrait une estimation de charge de travail a partir du texte.
+     *
+     * @param text texte de lavis
+     * @return la charge de travail estimee
+     */
+    public static int classify(String text) {
+        return classify(text, DEFAULT_LEXICON);
+    }
+
+    /**
+     * Extrait une estimation de charge de travail selon un lexique fourni.
+     *
+     * @param text texte de lavis
+     * @param lexicon lexique de mots-cles ponderes par charge
+     * @return la charge de travail estimee
+     */
+    public static int classify(String text, KeywordAutomaton lexicon) {
+        return lexicon.maxWeight(text, DEFAULT_WORKLOAD);
+    }
+}
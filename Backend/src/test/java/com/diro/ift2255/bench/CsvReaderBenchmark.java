@@ -0,0 +1,93 @@
+package com.diro.ift2255.bench;
+
+import com.diro.ift2255.util.CsvReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mesure le debit de lecture dun fichier de resultats synthetique.
+ * Compare le lecteur csv a l ancienne lecture par expression reguliere.
+ *
+ * Execution : java -cp target/classes:target/test-classes
+ * com.diro.ift2255.bench.CsvReaderBenchmark [nombre de lignes]
+ */
+public class CsvReaderBenchmark {
+
+    private static final String CSV_SPLIT_REGEX =
+            ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    public static void main(String[] args) throws Exception {
+
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Path file = Files.createTempFile("results-bench", ".csv");
+        try {
+            write(file, rows);
+            long bytes = Files.size(file);
+            System.out.printf("%d lignes, %.1f Mo%n", rows, bytes / 1e6);
+
+            for (int round = 0; round < 3; round++) {
+                report("CsvReader", rows, bytes, timeCsvReader(file));
+                report("regex split", rows, bytes, timeRegex(file));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void write(Path file, int rows) throws Exception {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("sigle,nom,moyenne,score,participants,trimestres\n");
+            for (int i = 0; i < rows; i++) {
+                out.write("IFT" + (1000 + i % 9000) + ",\"Cours " + i + ", section " + (i % 7)
+                        + "\",B+," + (2 + (i % 300) / 100.0) + "," + (i % 500) + "," + (i % 12) + "\n");
+            }
+        }
+    }
+
+    private static long timeCsvReader(Path file) throws Exception {
+        long start = System.nanoTime();
+        CsvReader csv = CsvReader.open(file);
+        csv.readHeader();
+        double checksum = 0;
+        while (csv.next()) {
+            checksum += csv.getDouble(3) + csv.getInt(4) + csv.getInt(5) + csv.getString(0).length();
+        }
+        blackhole(checksum);
+        return System.nanoTime() - start;
+    }
+
+    private static long timeRegex(Path file) throws Exception {
+        long start = System.nanoTime();
+        double checksum = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(CSV_SPLIT_REGEX);
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = parts[i].replaceAll("^\"|\"$", "").trim();
+                }
+                checksum += Double.parseDouble(parts[3]) + Integer.parseInt(parts[4])
+                        + Integer.parseInt(parts[5]) + parts[0].length();
+            }
+        }
+        blackhole(checksum);
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String name, int rows, long bytes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-12s %7.0f ms  %10.0f lignes/s  %7.1f Mo/s%n",
+                name, nanos / 1e6, rows / seconds, bytes / 1e6 / seconds);
+    }
+
+    private static void blackhole(double value) {
+        if (value == 42.4242) {
+            System.out.println(value);
+        }
+    }
+}
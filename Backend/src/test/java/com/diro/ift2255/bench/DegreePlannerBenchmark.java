@@ -0,0 +1,70 @@
+package com.diro.ift2255.bench;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.service.CourseCatalogIndex;
+import com.diro.ift2255.service.DegreePlan;
+import com.diro.ift2255.service.DegreePlanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesure le temps de planification dun programme synthetique de 90 credits
+ * (30 cours de 3 credits, avec des exigences "ou" entre eux) dans un
+ * catalogue de 5000 cours.
+ *
+ * Execution : java -cp target/classes:target/test-classes
+ * com.diro.ift2255.bench.DegreePlannerBenchmark
+ */
+public class DegreePlannerBenchmark {
+
+    private static final String[] PREFIXES = {"IFT", "MAT", "STT", "PHY", "BIO"};
+
+    public static void main(String[] args) {
+
+        Random random = new Random(42);
+        List<CourseDetails> catalog = new ArrayList<>();
+        List<String> program = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            String id = PREFIXES[i / 1000] + (1000 + i % 1000);
+            String requirement = "";
+            if (i >= 3 && random.nextInt(3) > 0) {
+                String a = catalog.get(random.nextInt(i)).getId();
+                String b = catalog.get(random.nextInt(i)).getId();
+                String c = catalog.get(random.nextInt(i)).getId();
+                requirement = "(" + a + " ou " + b + ") et " + c;
+            }
+            catalog.add(new CourseDetails(id, id, 3, "", List.of(), requirement,
+                    random.nextBoolean() || i % 2 == 0, true, false, true, false, ""));
+        }
+        for (int i = 0; i < 30; i++) {
+            program.add(catalog.get(i * 7).getId());
+        }
+        List<String> completed = catalog.subList(0, 200).stream()
+                .map(CourseDetails::getId)
+                .filter(id -> !program.contains(id))
+                .toList();
+
+        CourseCatalogIndex index = CourseCatalogIndex.build(catalog);
+        Semester start = Semester.parse("A25");
+
+        for (int round = 0; round < 5; round++) {
+            int iterations = 2000;
+            long begin = System.nanoTime();
+            DegreePlan plan = null;
+            for (int i = 0; i < iterations; i++) {
+                plan = DegreePlanner.plan(index, program, completed, 3, start, 15, false);
+            }
+            long nanos = System.nanoTime() - begin;
+
+            System.out.printf("%8.1f us/plan  %2d trimestres  %3d credits  %2d non places%n",
+                    nanos / 1e3 / iterations,
+                    plan.getSemesters().size(),
+                    plan.getTotalCredits(),
+                    plan.getUnplannedCourses().size());
+        }
+    }
+}
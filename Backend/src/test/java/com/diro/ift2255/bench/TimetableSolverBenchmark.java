@@ -0,0 +1,67 @@
+package com.diro.ift2255.bench;
+
+import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.service.CourseScheduleWithCourse;
+import com.diro.ift2255.service.TimetableSearchResult;
+import com.diro.ift2255.service.TimetableSolver;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mesure le temps de generation dhoraires sur des ensembles synthetiques de
+ * 6 cours, avec un nombre croissant de sections par volet.
+ *
+ * Execution : java -cp target/classes:target/test-classes
+ * com.diro.ift2255.bench.TimetableSolverBenchmark [budget en ms]
+ */
+public class TimetableSolverBenchmark {
+
+    private static final String[] DAYS = {"Lundi", "Mardi", "Mercredi", "Jeudi", "Vendredi"};
+
+    public static void main(String[] args) {
+
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : 10_000;
+
+        for (int round = 0; round < 2; round++) {
+            for (int sections : new int[]{2, 4, 8, 16, 32}) {
+                List<CourseScheduleWithCourse> schedules = instance(sections, new Random(sections));
+
+                long start = System.nanoTime();
+                TimetableSolver solver = new TimetableSolver(schedules);
+                TimetableSearchResult result = solver.solve(10, budget);
+                long nanos = System.nanoTime() - start;
+
+                System.out.printf("%2d sections/volet  %.1e combinaisons  %8.1f ms  %10d choix  %s%n",
+                        sections,
+                        Math.pow(sections, 12),
+                        nanos / 1e6,
+                        result.getExplored(),
+                        result.isComplete() ? "complet" : "interrompu");
+            }
+        }
+    }
+
+    private static List<CourseScheduleWithCourse> instance(int sections, Random random) {
+        List<CourseScheduleWithCourse> schedules = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            for (String volet : List.of("TH", "TP")) {
+                for (int s = 0; s < sections; s++) {
+                    for (int a = 0; a < (volet.equals("TH") ? 2 : 1); a++) {
+                        int startMinute = 8 * 60 + random.nextInt(24) * 30;
+                        schedules.add(new CourseScheduleWithCourse("IFT" + (1000 + c), new CourseSchedule(
+                                volet + s,
+                                volet,
+                                DAYS[random.nextInt(DAYS.length)],
+                                LocalTime.ofSecondOfDay(startMinute * 60L).toString(),
+                                LocalTime.ofSecondOfDay((startMinute + 110) * 60L).toString()
+                        )));
+                    }
+                }
+            }
+        }
+        return schedules;
+    }
+}
@@ -0,0 +1,84 @@
+package com.diro.ift2255.bench;
+
+import com.diro.ift2255.util.WorkloadClassifier;
+
+import java.util.Random;
+
+/**
+ * Mesure le debit de classification de la charge de travail sur des avis synthetiques.
+ * Compare l automate a l ancienne suite de contains sur une copie en minuscules.
+ *
+ * Execution : java -cp target/classes:target/test-classes
+ * com.diro.ift2255.bench.WorkloadClassifierBenchmark [nombre davis]
+ */
+public class WorkloadClassifierBenchmark {
+
+    private static final String[] WORDS = {
+            "Le", "cours", "est", "intéressant", "mais", "la", "charge", "de", "travail",
+            "reste", "moyenne", "avec", "des", "TP", "assez", "longs", "et", "un", "examen",
+            "final", "difficile", "professeur", "disponible", "Très", "bien", "structuré"
+    };
+
+    public static void main(String[] args) {
+
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Random random = new Random(1);
+        String[] opinions = new String[count];
+        long chars = 0;
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int w = 20 + random.nextInt(40); w > 0; w--) {
+                sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            opinions[i] = sb.toString();
+            chars += sb.length();
+        }
+        System.out.printf("%d avis, %.1f M caracteres%n", count, chars / 1e6);
+
+        for (int round = 0; round < 3; round++) {
+            report("automate", count, timeAutomaton(opinions));
+            report("contains", count, timeContains(opinions));
+        }
+    }
+
+    private static long timeAutomaton(String[] opinions) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String o : opinions) {
+            checksum += WorkloadClassifier.classify(o);
+        }
+        blackhole(checksum);
+        return System.nanoTime() - start;
+    }
+
+    private static long timeContains(String[] opinions) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String o : opinions) {
+            checksum += classifyWithContains(o);
+        }
+        blackhole(checksum);
+        return System.nanoTime() - start;
+    }
+
+    private static int classifyWithContains(String text) {
+        String t = text.toLowerCase();
+        if (t.contains("énorme") || t.contains("beaucoup")) return 5;
+        if (t.contains("lourd") || t.contains("chargé")) return 4;
+        if (t.contains("moyen")) return 3;
+        if (t.contains("léger") || t.contains("facile")) return 2;
+        return 3;
+    }
+
+    private static void report(String name, int count, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-10s %7.0f ms  %10.0f avis/s%n", name, nanos / 1e6, count / seconds);
+    }
+
+    private static void blackhole(long value) {
+        if (value == 42) {
+            System.out.println(value);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.ProgramId;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.model.Sigle;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcademicIdentifiersTest {
+
+    @Test
+    void semesterIsTrimmedAndUppercased() {
+        Semester semester = Semester.parse(" h25 ");
+
+        assertEquals("H25", semester.getCode());
+        assertEquals('H', semester.getSeason());
+        assertEquals(25, semester.getYear());
+    }
+
+    @Test
+    void invalidSemestersAreRejected() {
+        assertNull(Semester.tryParse("X99"));
+        assertNull(Semester.tryParse("A2"));
+        assertNull(Semester.tryParse("Automne24"));
+        assertThrows(IllegalArgumentException.class, () -> Semester.parse("  "));
+    }
+
+    @Test
+    void programIdRequiresSixDigits() {
+        assertEquals("117510", ProgramId.parse("117510").getValue());
+        assertNull(ProgramId.tryParse("11751"));
+        assertNull(ProgramId.tryParse("11751A"));
+        assertThrows(IllegalArgumentException.class, () -> ProgramId.parse(null));
+    }
+
+    @Test
+    void sigleAcceptsLettersThenAtMostFourDigits() {
+        assertEquals("IFT2255", Sigle.parse("ift2255").getCode());
+        assertEquals("IFT", Sigle.parse("IFT").getCode());
+        assertNull(Sigle.tryParse("IF2255"));
+        assertNull(Sigle.tryParse("IFT22555"));
+        assertNull(Sigle.tryParse("IFT-2255"));
+    }
+
+    @Test
+    void levelIsReadFromTrailingDigits() {
+        assertEquals(2, Sigle.levelOf("IFT2255"));
+        assertEquals(3, Sigle.levelOf("IFT3913"));
+        assertEquals(-1, Sigle.levelOf("IFT225"));
+        assertEquals(-1, Sigle.levelOf("IFT2255A"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.Course;
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.service.CourseCatalogIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseCatalogIndexTest {
+
+    private final CourseCatalogIndex index = CourseCatalogIndex.build(List.of(
+            details("IFT2255", "Génie logiciel", "Processus de développement et modélisation."),
+            details("IFT2015", "Structures de données", "Listes, arbres et algorithmes."),
+            details("IFT1015", "Programmation 1", "Introduction aux algorithmes."),
+            details("MAT1400", "Calcul 1", "Dérivées et intégrales.")
+    ));
+
+    @Test
+    void siglePrefixReturnsSortedMatches() {
+        List<Course> courses = index.search("ift2", null, null);
+
+        assertEquals(List.of("IFT2015", "IFT2255"), ids(courses));
+    }
+
+    @Test
+    void nameWordsMatchByPrefix() {
+        List<Course> courses = index.search(null, "struct don", null);
+
+        assertEquals(List.of("IFT2015"), ids(courses));
+    }
+
+    @Test
+    void criteriaAreCombined() {
+        List<Course> courses = index.search("IFT", null, "algorithmes");
+
+        assertEquals(List.of("IFT1015", "IFT2015"), ids(courses));
+    }
+
+    @Test
+    void unknownWordReturnsEmptyList() {
+        assertTrue(index.search(null, "chimie", null).isEmpty());
+    }
+
+    @Test
+    void getFindsCourseCaseInsensitively() {
+        assertEquals("MAT1400", index.get("mat1400").getId());
+        assertNull(index.get("ZZZ9999"));
+    }
+
+    @Test
+    void eachSnapshotHasNewGeneration() {
+        CourseCatalogIndex next = CourseCatalogIndex.build(index.all());
+
+        assertTrue(index.generation() > 0);
+        assertTrue(next.generation() > index.generation());
+    }
+
+    private static List<String> ids(List<Course> courses) {
+        return courses.stream().map(Course::getId).toList();
+    }
+
+    private static CourseDetails details(String id, String name, String description) {
+        return new CourseDetails(
+                id, name, 3, description, List.of(), "",
+                true, true, false, true, false, ""
+        );
+    }
+}
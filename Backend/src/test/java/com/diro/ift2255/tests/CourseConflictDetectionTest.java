@@ -0,0 +1,113 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.CourseConflict;
+import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.service.CourseScheduleWithCourse;
+import com.diro.ift2255.service.CourseSetService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseConflictDetectionTest {
+
+    private final CourseSetService service = new CourseSetService();
+
+    @Test
+    void overlapIsReportedOncePerCoursePairAndDay() {
+        List<CourseScheduleWithCourse> schedules = List.of(
+                entry("IFT1015", "A", "Lundi", "08:30", "10:30"),
+                entry("IFT2255", "A", "Lundi", "09:30", "11:30"),
+                entry("IFT2255", "A1", "Lundi", "10:00", "12:00"),
+                entry("IFT1015", "A", "Mardi", "08:30", "10:30"),
+                entry("IFT2255", "A", "Mardi", "10:30", "11:30")
+        );
+
+        List<CourseConflict> conflicts = service.detectConflicts(schedules);
+
+        assertEquals(1, conflicts.size());
+        CourseConflict c = conflicts.get(0);
+        assertEquals("IFT1015", c.getCourseA());
+        assertEquals("IFT2255", c.getCourseB());
+        assertEquals("Lundi", c.getDay());
+        assertEquals("09:30", c.getStartTime());
+        assertEquals("10:30", c.getEndTime());
+    }
+
+    @Test
+    void adjacentActivitiesDoNotConflict() {
+        List<CourseScheduleWithCourse> schedules = List.of(
+                entry("IFT1015", "A", "Lundi", "08:30", "10:29"),
+                entry("IFT2255", "A", "Lundi", "10:30", "12:30"),
+                entry("IFT2255", "A", "Jeudi", "08:30", "10:30")
+        );
+
+        assertTrue(service.detectConflicts(schedules).isEmpty());
+        assertEquals(schedules.get(0), entry("IFT1015", "A", "Lundi", "08:30", "10:29"));
+    }
+
+    @Test
+    void sweepMatchesPairwiseComparison() {
+        String[] courses = {"IFT1015", "IFT1025", "IFT2255", "MAT1400"};
+        String[] days = {"Lundi", "Mardi", "Mercredi"};
+        Random random = new Random(3);
+
+        for (int round = 0; round < 300; round++) {
+            List<CourseScheduleWithCourse> schedules = new ArrayList<>();
+            for (int i = random.nextInt(30); i >= 0; i--) {
+                int start = 8 * 60 + random.nextInt(20) * 30;
+                int length = random.nextInt(5) * 30;
+                schedules.add(entry(
+                        courses[random.nextInt(courses.length)],
+                        "S" + random.nextInt(3),
+                        days[random.nextInt(days.length)],
+                        LocalTime.ofSecondOfDay(start * 60L).toString(),
+                        LocalTime.ofSecondOfDay((start + length) * 60L).toString()
+                ));
+            }
+
+            assertEquals(describe(pairwise(schedules)), describe(service.detectConflicts(schedules)));
+        }
+    }
+
+    private static List<CourseConflict> pairwise(List<CourseScheduleWithCourse> schedules) {
+        List<CourseConflict> conflicts = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < schedules.size(); i++) {
+            for (int j = i + 1; j < schedules.size(); j++) {
+                CourseScheduleWithCourse a = schedules.get(i);
+                CourseScheduleWithCourse b = schedules.get(j);
+                if (a.getCourseId().equals(b.getCourseId())) continue;
+                if (!a.getDay().equals(b.getDay())) continue;
+                LocalTime startA = LocalTime.parse(a.getStartTime());
+                LocalTime endA = LocalTime.parse(a.getEndTime());
+                LocalTime startB = LocalTime.parse(b.getStartTime());
+                LocalTime endB = LocalTime.parse(b.getEndTime());
+                if (!(startA.isBefore(endB) && startB.isBefore(endA))) continue;
+                if (!seen.add(a.getCourseId() + b.getCourseId() + a.getDay())) continue;
+                conflicts.add(new CourseConflict(a.getCourseId(), b.getCourseId(), a.getDay(),
+                        (startA.isAfter(startB) ? startA : startB).toString(),
+                        (endA.isBefore(endB) ? endA : endB).toString()));
+            }
+        }
+        return conflicts;
+    }
+
+    private static List<String> describe(List<CourseConflict> conflicts) {
+        return conflicts.stream()
+                .map(c -> String.join(" ", c.getCourseA(), c.getCourseB(), c.getDay(),
+                        c.getStartTime(), c.getEndTime()))
+                .toList();
+    }
+
+    private static CourseScheduleWithCourse entry(
+            String course, String section, String day, String start, String end) {
+        return new CourseScheduleWithCourse(course, new CourseSchedule(section, "TH", day, start, end));
+    }
+}
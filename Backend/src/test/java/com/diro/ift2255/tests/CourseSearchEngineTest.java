@@ -0,0 +1,67 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.CourseSearchResult;
+import com.diro.ift2255.service.CourseSearchEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchEngineTest {
+
+    private final CourseSearchEngine engine = new CourseSearchEngine(new CourseDetails[]{
+            details("IFT1015", "Programmation 1", "Introduction aux algorithmes."),
+            details("IFT2015", "Structures de données", "Listes, arbres et algorithmes."),
+            details("IFT2255", "Génie logiciel", "Processus de développement et modélisation."),
+            details("MAT1400", "Calcul 1", "Dérivées et intégrales.")
+    });
+
+    @Test
+    void accentsAndCaseAreIgnored() {
+        List<CourseSearchResult> results = engine.search("GENIE developpement", 10);
+
+        assertEquals("IFT2255", results.get(0).getId());
+    }
+
+    @Test
+    void smallTyposAreTolerated() {
+        List<CourseSearchResult> results = engine.search("algoritmes", 10);
+
+        assertEquals(List.of("IFT1015", "IFT2015"), ids(results).stream().sorted().toList());
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches() {
+        List<CourseSearchResult> results = engine.search("structures algorithmes", 10);
+
+        assertEquals("IFT2015", results.get(0).getId());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+    }
+
+    @Test
+    void sigleMatchRanksFirstAndLimitIsApplied() {
+        List<CourseSearchResult> results = engine.search("ift2", 1);
+
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getId().startsWith("IFT2"));
+        assertEquals("MAT1400", engine.search("mat1400", 5).get(0).getId());
+    }
+
+    @Test
+    void unknownWordReturnsEmptyList() {
+        assertTrue(engine.search("chimie", 10).isEmpty());
+    }
+
+    private static List<String> ids(List<CourseSearchResult> results) {
+        return results.stream().map(CourseSearchResult::getId).toList();
+    }
+
+    private static CourseDetails details(String id, String name, String description) {
+        return new CourseDetails(
+                id, name, 3, description, List.of(), "",
+                true, true, false, true, false, ""
+        );
+    }
+}
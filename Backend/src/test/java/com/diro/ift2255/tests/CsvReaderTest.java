@@ -0,0 +1,90 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.repository.ProgramRepository;
+import com.diro.ift2255.util.CsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndNewlines() {
+        CsvReader csv = CsvReader.of("a,b,c\r\n\"x, y\",\"il a dit \"\"oui\"\"\",\"deux\nlignes\"\n");
+        csv.readHeader();
+
+        assertTrue(csv.next());
+        assertEquals("x, y", csv.getString(0));
+        assertEquals("il a dit \"oui\"", csv.getString(1));
+        assertEquals("deux\nlignes", csv.getString(2));
+        assertFalse(csv.next());
+    }
+
+    @Test
+    void numbersAreParsedAndSpacesTrimmed() {
+        CsvReader csv = CsvReader.of("score,n\n 3.58 , -42\n\n1e3,7");
+        csv.readHeader();
+
+        assertTrue(csv.next());
+        assertEquals(3.58, csv.getDouble(csv.column("score")));
+        assertEquals(-42, csv.getInt(csv.column("n")));
+
+        assertTrue(csv.next());
+        assertEquals(1000.0, csv.getDouble(0));
+        assertEquals(7, csv.getInt(1));
+        assertFalse(csv.next());
+    }
+
+    @Test
+    void emptyFieldsAndInvalidNumbers() {
+        CsvReader csv = CsvReader.of(",abc,\n");
+
+        assertTrue(csv.next());
+        assertEquals(3, csv.fieldCount());
+        assertTrue(csv.isEmpty(0));
+        assertTrue(csv.isEmpty(2));
+        assertThrows(NumberFormatException.class, () -> csv.getInt(1));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        CsvReader csv = CsvReader.of("\"abc\n");
+
+        assertThrows(IllegalStateException.class, csv::next);
+    }
+
+    @Test
+    void programsAreLoadedFromResources() {
+        ProgramRepository repository = new ProgramRepository();
+
+        assertEquals(List.of("IFT1015", "IFT1025", "IFT2255"), repository.findCourseIds("ift"));
+        assertEquals(List.of("IFT", "LOG"), repository.findProgramIds());
+        assertTrue(repository.findCourseIds("XYZ").isEmpty());
+    }
+
+    @Test
+    void mappedFileIsDecodedAcrossWindows(@TempDir Path dir) throws Exception {
+        StringBuilder text = new StringBuilder("nom,note\n");
+        for (int i = 0; i < 20_000; i++) {
+            text.append("\"élève \"\"").append(i).append("\"\"\",").append(i).append("\r\n");
+        }
+        Path file = dir.resolve("notes.csv");
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+
+        CsvReader csv = CsvReader.open(file);
+        csv.readHeader();
+        int count = 0;
+        while (csv.next()) {
+            assertEquals("élève \"" + count + "\"", csv.getString(0));
+            assertEquals(count, csv.getInt(1));
+            count++;
+        }
+        assertEquals(20_000, count);
+    }
+}
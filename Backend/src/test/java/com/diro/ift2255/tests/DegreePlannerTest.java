@@ -0,0 +1,82 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.Course;
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.model.Semester;
+import com.diro.ift2255.service.CourseCatalogIndex;
+import com.diro.ift2255.service.DegreePlan;
+import com.diro.ift2255.service.DegreePlanner;
+import com.diro.ift2255.service.PlannedSemester;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DegreePlannerTest {
+
+    private final CourseCatalogIndex catalog = CourseCatalogIndex.build(List.of(
+            course("IFT1015", "", true, true),
+            course("IFT1025", "IFT1015", true, true),
+            course("IFT2015", "IFT1025", true, true),
+            course("IFT2255", "IFT1025 et (MAT1400 ou MAT1978)", false, true),
+            course("MAT1400", "", true, true),
+            course("MAT1978", "", true, false),
+            course("IFT2035", "IFT9999", true, true),
+            course("IFT3911", "", true, true)
+    ));
+
+    @Test
+    void longestChainIsPlacedFirstUnderCreditCap() {
+        DegreePlan plan = DegreePlanner.plan(catalog,
+                List.of("MAT1400", "IFT2015", "IFT1015", "IFT1025"),
+                List.of(), 2, Semester.parse("A25"), 6, false);
+
+        assertEquals(List.of("A25", "H26", "A26"),
+                plan.getSemesters().stream().map(PlannedSemester::getSemester).toList());
+        assertEquals(List.of("IFT1015", "MAT1400"), ids(plan.getSemesters().get(0)));
+        assertEquals(List.of("IFT1025"), ids(plan.getSemesters().get(1)));
+        assertEquals(List.of("IFT2015"), ids(plan.getSemesters().get(2)));
+        assertEquals(12, plan.getTotalCredits());
+        assertTrue(plan.getUnplannedCourses().isEmpty());
+    }
+
+    @Test
+    void seasonsAlternativesAndCompletedCoursesAreRespected() {
+        DegreePlan plan = DegreePlanner.plan(catalog,
+                List.of("IFT1015", "IFT1025", "IFT2255", "MAT1978"),
+                List.of(" ift1015 "), 2, Semester.parse("E25"), 15, false);
+
+        assertEquals("A25", plan.getSemesters().get(0).getSemester());
+        assertEquals(List.of("IFT1025", "MAT1978"), ids(plan.getSemesters().get(0)));
+        assertEquals("H26", plan.getSemesters().get(1).getSemester());
+        assertEquals(List.of("IFT2255"), ids(plan.getSemesters().get(1)));
+    }
+
+    @Test
+    void unreachableCoursesAreReported() {
+        DegreePlan plan = DegreePlanner.plan(catalog,
+                List.of("IFT1015", "IFT2035", "IFT3911", "XYZ1000"),
+                List.of(), 2, Semester.parse("A25"), 15, true);
+
+        assertEquals(List.of("IFT2035", "IFT3911", "XYZ1000"), plan.getUnplannedCourses());
+        assertEquals(1, plan.getSemesters().size());
+    }
+
+    @Test
+    void semestersFollowTheAcademicYear() {
+        assertEquals("H25", Semester.parse("A24").next().getCode());
+        assertEquals("E25", Semester.parse("H25").next().getCode());
+        assertEquals("A25", Semester.parse("E25").next().getCode());
+        assertEquals("H00", Semester.parse("A99").next().getCode());
+    }
+
+    private static List<String> ids(PlannedSemester semester) {
+        return semester.getCourses().stream().map(Course::getId).toList();
+    }
+
+    private static CourseDetails course(String id, String requirementText, boolean autumn, boolean winter) {
+        return new CourseDetails(id, id, 3, "", List.of(), requirementText,
+                autumn, winter, false, true, false, "");
+    }
+}
@@ -0,0 +1,201 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.util.ExpiringCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+    @Test
+    void secondGetIsServedFromCache() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("IFT2255", k -> "v" + loads.incrementAndGet());
+        String value = cache.get("IFT2255", k -> "v" + loads.incrementAndGet());
+
+        assertEquals("v1", value);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void expiredEntryIsReloaded() {
+        AtomicLong now = new AtomicLong();
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofNanos(100), now::get);
+
+        cache.put("IFT2255", "old");
+        now.set(100);
+
+        assertNull(cache.getIfPresent("IFT2255"));
+        assertEquals("new", cache.get("IFT2255", k -> "new"));
+        assertEquals(1L, cache.stats().get("expirations"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(2, Duration.ofMinutes(1));
+
+        cache.put("A", "a");
+        cache.put("B", "b");
+        cache.getIfPresent("A");
+        cache.put("C", "c");
+
+        assertEquals("a", cache.getIfPresent("A"));
+        assertNull(cache.getIfPresent("B"));
+        assertEquals("c", cache.getIfPresent("C"));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    void heaviestOverflowIsEvictedByRecency() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(100, 10, String::length, Duration.ofMinutes(1), System::nanoTime);
+
+        cache.put("A", "aaaa");
+        cache.put("B", "bbbb");
+        cache.getIfPresent("A");
+        cache.put("C", "cccc");
+
+        assertEquals("aaaa", cache.getIfPresent("A"));
+        assertNull(cache.getIfPresent("B"));
+        assertEquals(8L, cache.weight());
+
+        cache.put("A", "a");
+        assertEquals(5L, cache.weight());
+    }
+
+    @Test
+    void entriesAreInvalidatedByCondition() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(100, 100, String::length, Duration.ofMinutes(1), System::nanoTime);
+
+        cache.put("IFT2255|A", "xx");
+        cache.put("IFT2255|B", "xx");
+        cache.put("IFT1015|A", "xxx");
+
+        assertEquals(2, cache.invalidateIf(k -> k.startsWith("IFT2255")));
+        assertEquals(1, cache.size());
+        assertEquals(3L, cache.weight());
+    }
+
+    @Test
+    void loadStartedBeforeInvalidationIsNotKept() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        assertEquals("stale", cache.get("IFT2255", k -> {
+            cache.invalidateIf(key -> key.startsWith("IFT"));
+            return "stale";
+        }));
+        assertNull(cache.getIfPresent("IFT2255"));
+
+        assertEquals("fresh", cache.get("IFT2255", k -> "fresh"));
+        assertEquals("fresh", cache.getIfPresent("IFT2255"));
+    }
+
+    @Test
+    void concurrentMissesTriggerSingleLoad() throws Exception {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = pool.submit(() -> cache.get("IFT2255", k -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "value";
+                }));
+            }
+
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<?> f : futures) {
+                assertEquals("value", f.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () ->
+                cache.get("IFT2255", k -> {
+                    throw new IllegalStateException("upstream");
+                })
+        );
+        assertEquals("ok", cache.get("IFT2255", k -> "ok"));
+    }
+
+    @Test
+    void errorInLoaderReleasesWaitingCallers() {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+        List<CompletableFuture<String>> joined = new ArrayList<>();
+
+        assertThrows(AssertionError.class, () ->
+                cache.get("IFT2255", k -> {
+                    joined.add(cache.getAsync(k, x -> CompletableFuture.completedFuture("other")));
+                    throw new AssertionError("loader");
+                })
+        );
+        assertTrue(joined.get(0).isCompletedExceptionally());
+
+        assertThrows(AssertionError.class, () ->
+                cache.getAsync("IFT2255", k -> {
+                    throw new AssertionError("loader");
+                })
+        );
+        assertEquals("ok", cache.get("IFT2255", k -> "ok"));
+    }
+
+    @Test
+    void joinedLoadIsCountedAsCoalesced() throws Exception {
+        ExpiringCache<String, String> cache =
+                new ExpiringCache<>(10, Duration.ofMinutes(1));
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.getAsync("IFT2255", k -> pending);
+        CompletableFuture<String> second = cache.getAsync("IFT2255", k -> CompletableFuture.completedFuture("other"));
+        pending.completeExceptionally(new AssertionError("upstream"));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(0L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+        assertEquals(1L, cache.stats().get("coalesced"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.util.FanOutExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+
+    @Test
+    void resultsKeepInputOrder() {
+        List<Integer> results = FanOutExecutor.map(
+                List.of(3, 1, 2),
+                n -> {
+                    sleep(n * 20L);
+                    return n * 10;
+                },
+                3
+        );
+
+        assertEquals(List.of(30, 10, 20), results);
+    }
+
+    @Test
+    void concurrencyIsBoundedPerCall() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        FanOutExecutor.map(
+                List.of(1, 2, 3, 4, 5, 6),
+                n -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(30);
+                    running.decrementAndGet();
+                    return n;
+                },
+                2
+        );
+
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    void deadlineIsPropagatedToTasks() {
+        List<Duration> remaining = FanOutExecutor.map(
+                List.of("IFT2255"),
+                id -> FanOutExecutor.remainingTime(),
+                1,
+                Duration.ofSeconds(5)
+        );
+
+        assertNotNull(remaining.get(0));
+        assertTrue(remaining.get(0).compareTo(Duration.ofSeconds(5)) <= 0);
+        assertNull(FanOutExecutor.remainingTime());
+    }
+
+    @Test
+    void slowTasksFailWhenDeadlineIsExceeded() {
+        assertThrows(RuntimeException.class, () ->
+                FanOutExecutor.map(
+                        List.of(1, 2),
+                        n -> {
+                            sleep(2000);
+                            return n;
+                        },
+                        2,
+                        Duration.ofMillis(100)
+                )
+        );
+    }
+
+    @Test
+    void taskExceptionIsRethrown() {
+        assertThrows(IllegalArgumentException.class, () ->
+                FanOutExecutor.map(
+                        List.of("A24", "Automne24"),
+                        s -> {
+                            if (s.length() > 3) {
+                                throw new IllegalArgumentException("Format de trimestre invalide");
+                            }
+                            return s;
+                        },
+                        2
+                )
+        );
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.util.KeywordAutomaton;
+import com.diro.ift2255.util.WorkloadClassifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void overlappingKeywordsAreAllFound() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("he", 1)
+                .add("she", 2)
+                .add("hers", 3)
+                .build();
+
+        assertEquals(2, automaton.maxWeight("ushe", 0));
+        assertEquals(3, automaton.maxWeight("USHERS", 0));
+        assertEquals(1, automaton.maxWeight("the", 0));
+        assertEquals(0, automaton.maxWeight("abc", 0));
+        assertFalse(automaton.matches(null));
+    }
+
+    @Test
+    void accentsAreFoldedUnlessExact() {
+        KeywordAutomaton automaton = KeywordAutomaton.builder()
+                .add("léger", 1)
+                .addExact("chargé", 2)
+                .build();
+
+        assertEquals(1, automaton.maxWeight("Plutot LEGER", 0));
+        assertEquals(2, automaton.maxWeight("Très CHARGÉ", 0));
+        assertEquals(0, automaton.maxWeight("La charge est normale", 0));
+    }
+
+    @Test
+    void emptyKeywordIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.builder().add("", 1));
+    }
+
+    @Test
+    void workloadMatchesFormerContainsChain() {
+        String[] words = {"énorme", "beaucoup", "lourd", "chargé", "charge", "moyen",
+                "léger", "facile", "cours", "TP", "Énorme", "LOURD", " ", "x"};
+        Random random = new Random(7);
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(6); w >= 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            assertEquals(reference(text.toString()), WorkloadClassifier.classify(text.toString()),
+                    text.toString());
+        }
+
+        assertEquals(5, WorkloadClassifier.classify("enorme"));
+        assertEquals(2, WorkloadClassifier.classify("leger"));
+    }
+
+    private static int reference(String text) {
+        String t = text.toLowerCase();
+        if (t.contains("énorme") || t.contains("beaucoup")) return 5;
+        if (t.contains("lourd") || t.contains("chargé")) return 4;
+        if (t.contains("moyen")) return 3;
+        if (t.contains("léger") || t.contains("facile")) return 2;
+        return 3;
+    }
+}
@@ -0,0 +1,68 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.OpinionImportResult;
+import com.diro.ift2255.repository.OpinionRepository;
+import com.diro.ift2255.service.OpinionService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpinionImportTest {
+
+    private final OpinionRepository repository = new OpinionRepository();
+    private final OpinionService service = new OpinionService(repository);
+
+    @Test
+    void jsonArrayIsValidatedAndDeduplicated() {
+        OpinionImportResult result = service.importOpinions(body("""
+                [
+                  {"message_id": "1", "course_code": "IFT2255", "text": "Bon cours"},
+                  {"message_id": "1", "course_code": "IFT2255", "text": "Doublon"},
+                  {"message_id": "2", "course_code": "", "text": "Sans cours"},
+                  {"message_id": "3", "course_code": "IFT2015", "text": " "},
+                  {"message_id": "4", "course_code": "IFT2015", "text": "Difficile", "extra": true},
+                  42
+                ]
+                """));
+
+        assertNull(result.getFatalError());
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(3, result.getRejected());
+        assertEquals(1, result.getErrors().get("course_code requis"));
+        assertEquals(1, result.getErrors().get("texte de l avis requis"));
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void ndjsonIsAcceptedAndKnownMessagesAreSkipped() {
+        service.importOpinions(body("{\"message_id\": \"7\", \"course_code\": \"IFT1015\", \"text\": \"A\"}"));
+
+        OpinionImportResult result = service.importOpinions(body("""
+                {"message_id": "7", "course_code": "IFT1015", "text": "A"}
+                {"message_id": "8", "course_code": "IFT1015", "text": "B"}
+                """));
+
+        assertEquals(1, result.getInserted());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(2, service.getOpinions("IFT1015").size());
+    }
+
+    @Test
+    void malformedJsonKeepsPreviousRecords() {
+        OpinionImportResult result = service.importOpinions(body(
+                "[{\"course_code\": \"IFT1015\", \"text\": \"A\"}, {\"course_code\": "));
+
+        assertNotNull(result.getFatalError());
+        assertEquals(1, result.getInserted());
+        assertEquals(1, repository.findAll().size());
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,62 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.repository.OpinionRepository;
+import com.diro.ift2255.service.OpinionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpinionIndexTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final OpinionRepository repository = new OpinionRepository();
+    private final OpinionService service = new OpinionService(repository);
+
+    @Test
+    void indexesNormalizeKeys() {
+        repository.add(opinion("ift2255 ", "Pierre Lévesque", "42", "Bon cours"));
+        repository.add(opinion("IFT2015", "pierre levesque", "7", "Difficile"));
+
+        assertEquals(1, repository.findByCourseCode("IFT2255").size());
+        assertEquals(2, repository.findByProfessor("PIERRE LEVESQUE").size());
+        assertEquals(1, repository.findByAuthor("7").size());
+        assertTrue(repository.findByAuthor("99").isEmpty());
+    }
+
+    @Test
+    void criteriaAreCombined() {
+        repository.add(opinion("IFT2255", "Dupont", "1", "A"));
+        repository.add(opinion("IFT2255", "Martin", "1", "B"));
+        repository.add(opinion("IFT2015", "Dupont", "2", "C"));
+
+        List<Opinion> result = service.findOpinions("ift2255", "dupont", null);
+
+        assertEquals(List.of("A"), result.stream().map(Opinion::getText).toList());
+        assertEquals(2, service.findOpinions(null, null, "1").size());
+        assertTrue(service.findOpinions(null, null, null).isEmpty());
+    }
+
+    @Test
+    void readersSeeOpinionsAddedLater() {
+        List<Opinion> before = repository.findByCourseCode("IFT2255");
+        repository.add(opinion("IFT2255", null, null, "Nouveau"));
+
+        assertTrue(before.isEmpty());
+        assertEquals(1, repository.findByCourseCode("IFT2255").size());
+    }
+
+    private static Opinion opinion(String course, String professor, String author, String text) {
+        return MAPPER.convertValue(Map.of(
+                "course_code", course,
+                "professor_name", professor == null ? "" : professor,
+                "author_id", author == null ? "" : author,
+                "text", text
+        ), Opinion.class);
+    }
+}
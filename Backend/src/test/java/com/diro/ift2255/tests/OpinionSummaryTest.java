@@ -0,0 +1,74 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.model.OpinionSummary;
+import com.diro.ift2255.repository.OpinionRepository;
+import com.diro.ift2255.util.WorkloadClassifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpinionSummaryTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void classifierKeepsLexiconPriority() {
+        assertEquals(5, WorkloadClassifier.classify("Énorme charge, mais facile"));
+        assertEquals(4, WorkloadClassifier.classify("Cours très chargé"));
+        assertEquals(3, WorkloadClassifier.classify("Niveau moyen"));
+        assertEquals(2, WorkloadClassifier.classify("Plutôt léger"));
+        assertEquals(3, WorkloadClassifier.classify("Rien a signaler"));
+        assertEquals(3, WorkloadClassifier.classify(null));
+    }
+
+    @Test
+    void summaryIsUpdatedOnEachInsert() {
+        OpinionRepository repository = new OpinionRepository();
+
+        assertEquals(0, repository.summary("IFT2255").getCount());
+        assertEquals(3, repository.summary("IFT2255").estimatedWorkload());
+
+        repository.add(opinion("IFT2255", "beaucoup de travail"));
+        repository.add(opinion("ift2255", "facile"));
+        repository.add(opinion("IFT1015", "lourd"));
+
+        OpinionSummary summary = repository.summary("IFT2255 ");
+        assertEquals("IFT2255", summary.getCourseCode());
+        assertEquals(2, summary.getCount());
+        assertEquals(7, summary.getWorkloadSum());
+        assertEquals(3.5, summary.getAverageWorkload());
+        assertEquals(3, summary.estimatedWorkload());
+        assertArrayEquals(new int[]{0, 1, 0, 0, 1}, summary.getWorkloadHistogram());
+
+        assertEquals(List.of("IFT1015", "IFT2255"),
+                repository.summaries().stream().map(OpinionSummary::getCourseCode).toList());
+    }
+
+    @Test
+    void summaryIsRebuiltFromLog() throws Exception {
+        OpinionRepository repository = new OpinionRepository(dir);
+        repository.addAll(List.of(opinion("IFT2255", "lourd"), opinion("IFT2255", "moyen")));
+        repository.close();
+
+        OpinionRepository reopened = new OpinionRepository(dir);
+        OpinionSummary summary = reopened.summary("IFT2255");
+        reopened.close();
+
+        assertEquals(2, summary.getCount());
+        assertEquals(7, summary.getWorkloadSum());
+    }
+
+    private static Opinion opinion(String course, String text) {
+        return MAPPER.convertValue(Map.of("course_code", course, "text", text), Opinion.class);
+    }
+}
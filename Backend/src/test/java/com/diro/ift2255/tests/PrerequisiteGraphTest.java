@@ -0,0 +1,101 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.service.PrerequisiteGraph;
+import com.diro.ift2255.util.CompactBitSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrerequisiteGraphTest {
+
+    private final PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+            course("IFT1015"),
+            course("IFT1025", "IFT1015"),
+            course("IFT2015", "IFT1025", "MAT1978"),
+            course("IFT2255", "IFT1025"),
+            course("IFT3911", "IFT2255", "IFT2015")
+    ));
+
+    @Test
+    void directCheckKeepsCatalogOrder() {
+        assertEquals(List.of("IFT2255", "IFT2015"),
+                graph.missingPrerequisites("ift3911", List.of("IFT1015"), false));
+        assertEquals(List.of("IFT2015"),
+                graph.missingPrerequisites("IFT3911", List.of(" ift2255 "), false));
+    }
+
+    @Test
+    void transitiveClosureIsComputed() {
+        assertEquals(List.of("IFT1015", "IFT1025", "IFT2015", "IFT2255", "MAT1978"),
+                graph.allPrerequisites("IFT3911"));
+        assertEquals(List.of("IFT2015", "MAT1978"),
+                graph.missingPrerequisites("IFT3911", List.of("IFT2255"), true));
+        assertTrue(graph.missingPrerequisites("IFT1015", List.of(), true).isEmpty());
+        assertTrue(graph.contains("IFT2255"));
+        assertFalse(graph.contains("MAT1978"));
+        assertTrue(graph.getCyclicCourses().isEmpty());
+    }
+
+    @Test
+    void availableCoursesNeedAllDirectPrerequisites() {
+        assertEquals(List.of("IFT1015"), graph.availableCourses(List.of()).toList());
+        assertEquals(List.of("IFT2255"),
+                graph.availableCourses(List.of("IFT1015", "ift1025")).toList());
+        assertEquals(List.of("IFT2015", "IFT2255"),
+                graph.availableCourses(List.of("IFT1015", "IFT1025", "MAT1978")).toList());
+    }
+
+    @Test
+    void cyclesAreDetected() {
+        PrerequisiteGraph cyclic = PrerequisiteGraph.build(List.of(
+                course("A1000", "B1000"),
+                course("B1000", "C1000"),
+                course("C1000", "A1000"),
+                course("D1000", "D1000"),
+                course("E1000", "A1000")
+        ));
+
+        assertEquals(List.of("A1000", "B1000", "C1000", "D1000"), cyclic.getCyclicCourses());
+        assertEquals(List.of("B1000", "C1000"), cyclic.allPrerequisites("A1000"));
+        assertEquals(List.of("A1000", "B1000", "C1000"), cyclic.allPrerequisites("E1000"));
+    }
+
+    @Test
+    void longChainsDoNotOverflowTheStack() {
+        List<CourseDetails> chain = new ArrayList<>();
+        chain.add(course("C0"));
+        for (int i = 1; i < 20_000; i++) {
+            chain.add(course("C" + i, "C" + (i - 1)));
+        }
+
+        PrerequisiteGraph deep = PrerequisiteGraph.build(chain);
+
+        assertEquals(19_999, deep.allPrerequisites("C19999").size());
+        assertEquals(List.of("C0"), deep.missingPrerequisites("C1", List.of(), true));
+        assertTrue(deep.missingPrerequisites("C19999", List.of("C19998"), true).isEmpty());
+    }
+
+    @Test
+    void compactBitSetKeepsOnlyNonZeroRange() {
+        long[] dense = new long[10];
+        dense[3] = 1L << 5;
+        dense[5] = 1L;
+
+        CompactBitSet set = CompactBitSet.of(dense);
+
+        assertEquals(3, set.storedWords());
+        assertTrue(set.contains(3 * 64 + 5));
+        assertFalse(set.contains(4));
+        assertArrayEquals(new int[]{5 * 64}, set.andNot(new long[]{0, 0, 0, 1L << 5}));
+        assertSame(CompactBitSet.EMPTY, CompactBitSet.of(new long[4]));
+    }
+
+    private static CourseDetails course(String id, String... prereqs) {
+        return new CourseDetails(id, id, 3, "", List.of(prereqs), "",
+                true, true, false, true, false, "");
+    }
+}
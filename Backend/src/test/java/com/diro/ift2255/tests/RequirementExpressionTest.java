@@ -0,0 +1,104 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.CourseDetails;
+import com.diro.ift2255.service.PrerequisiteGraph;
+import com.diro.ift2255.service.RequirementExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequirementExpressionTest {
+
+    private static final Map<String, Integer> IDS =
+            Map.of("IFT1015", 0, "IFT1016", 1, "MAT1400", 2, "MAT1600", 3, "IFT1025", 4);
+
+    @Test
+    void alternativesAreEvaluated() {
+        RequirementExpression e = compile("Préalable : (IFT1015 ou IFT1016) et MAT1400");
+
+        assertFalse(e.isSatisfied(bits("IFT1015")));
+        assertTrue(e.isSatisfied(bits("IFT1016", "MAT1400")));
+        assertTrue(e.isSatisfied(bits("IFT1015", "MAT1400")));
+        assertArrayEquals(new int[]{0, 2}, e.missing(bits()));
+        assertArrayEquals(new int[]{2}, e.missing(bits("IFT1016")));
+    }
+
+    @Test
+    void separatorsAndPrecedenceAreTolerated() {
+        RequirementExpression e = compile("IFT1015 ou IFT1016, MAT1400");
+        assertTrue(e.isSatisfied(bits("IFT1015")));
+        assertTrue(e.isSatisfied(bits("IFT1016", "MAT1400")));
+        assertFalse(e.isSatisfied(bits("MAT1400")));
+
+        RequirementExpression implicit = compile("ift 1015 MAT1400 / IFT1025");
+        assertTrue(implicit.isSatisfied(bits("IFT1025")));
+        assertFalse(implicit.isSatisfied(bits("IFT1015")));
+    }
+
+    @Test
+    void concomitantCoursesAreNotRequired() {
+        RequirementExpression e = compile("Préalable: MAT1400; Concomitant: MAT1600");
+        assertTrue(e.isSatisfied(bits("MAT1400")));
+        assertEquals(Set.of("MAT1400"), RequirementExpression.sigles("MAT1400; Concomitant: MAT1600"));
+    }
+
+    @Test
+    void unreadableTextsAreRejected() {
+        assertNull(compile(null));
+        assertNull(compile("Avoir complété 24 crédits"));
+        assertNull(compile("(IFT1015 ou IFT1016 et MAT1400"));
+        assertNull(compile("IFT1015) et MAT1400"));
+    }
+
+    @Test
+    void onlyAsciiSiglesAreRecognized() {
+        assertEquals(Set.of(), RequirementExpression.sigles("Offert à l'été 2024 et en 2025"));
+        assertEquals(Set.of("IFT1015", "MAT1400"), RequirementExpression.sigles("IFT 1015 and 2024, mat1400"));
+        assertNull(compile("Avoir réussi ÉTÉ2024"));
+    }
+
+    @Test
+    void spacedSiglesShareTheirCourseId() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                course("IFT1025", "IFT 1015 et MAT 1400", "IFT 1015", "MAT1400")
+        ));
+
+        assertEquals(List.of("MAT1400"), graph.missingPrerequisites("IFT1025", List.of("ift 1015"), false));
+        assertEquals(List.of("IFT1015", "MAT1400"), graph.missingPrerequisites("IFT1025", List.of(), true));
+    }
+
+    @Test
+    void graphUsesRequirementText() {
+        PrerequisiteGraph graph = PrerequisiteGraph.build(List.of(
+                course("IFT1025", "(IFT1015 ou IFT1016) et MAT1400", "IFT1015", "MAT1400"),
+                course("IFT2015", null, "IFT1025")
+        ));
+
+        assertEquals(List.of(), graph.missingPrerequisites("IFT1025", List.of("IFT1016", "MAT1400"), false));
+        assertEquals(List.of("MAT1400"), graph.missingPrerequisites("IFT1025", List.of("IFT1016"), false));
+        assertEquals(List.of("IFT1025"),
+                graph.availableCourses(List.of("IFT1016", "MAT1400")).toList());
+        assertEquals(List.of("IFT1025"), graph.missingPrerequisites("IFT2015", List.of(), false));
+    }
+
+    private static RequirementExpression compile(String text) {
+        return RequirementExpression.compile(text, s -> IDS.getOrDefault(s, -1));
+    }
+
+    private static long[] bits(String... completed) {
+        long[] bits = new long[1];
+        for (String c : completed) {
+            bits[0] |= 1L << IDS.get(c);
+        }
+        return bits;
+    }
+
+    private static CourseDetails course(String id, String requirementText, String... prereqs) {
+        return new CourseDetails(id, id, 3, "", List.of(prereqs), requirementText,
+                true, true, false, true, false, "");
+    }
+}
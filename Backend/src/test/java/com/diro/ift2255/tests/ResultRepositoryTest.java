@@ -0,0 +1,59 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.repository.ResultRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultRepositoryTest {
+
+    private static final String HEADER = "sigle,nom,moyenne,score,participants,trimestres\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lookupIsCaseInsensitiveAndHandlesQuotedFields() throws Exception {
+        Path file = write("IFT2255,\"Génie logiciel, avancé\",B+,3.9,120,4\n");
+        ResultRepository repository = new ResultRepository(file, 0);
+
+        assertEquals("Génie logiciel, avancé", repository.findBySigle("ift2255").getNom());
+        assertEquals(3.9, repository.findBySigle("IFT2255").getScore());
+        assertNull(repository.findBySigle("MAT1400"));
+    }
+
+    @Test
+    void firstRowWinsForDuplicateSigles() throws Exception {
+        Path file = write("IFT1015,Programmation 1,B,3.2,50,3\nift1015,Doublon,C,2.0,5,1\n");
+        ResultRepository repository = new ResultRepository(file, 0);
+
+        assertEquals("Programmation 1", repository.findBySigle("IFT1015").getNom());
+        assertEquals(2, repository.loadAll().size());
+    }
+
+    @Test
+    void modifiedFileIsReloaded() throws Exception {
+        Path file = write("IFT1015,Programmation 1,B,3.2,50,3\n");
+        ResultRepository repository = new ResultRepository(file, 1);
+
+        assertNotNull(repository.findBySigle("IFT1015"));
+
+        Files.writeString(file, HEADER + "MAT1400,Calcul 1,C+,2.6,200,6\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        Thread.sleep(5);
+
+        assertNotNull(repository.findBySigle("MAT1400"));
+        assertNull(repository.findBySigle("IFT1015"));
+    }
+
+    private Path write(String rows) throws Exception {
+        Path file = dir.resolve("results.csv");
+        Files.writeString(file, HEADER + rows);
+        return file;
+    }
+}
@@ -0,0 +1,61 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.ResultStats;
+import com.diro.ift2255.repository.ResultRepository;
+import com.diro.ift2255.service.ResultService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultStatsTest {
+
+    @TempDir
+    Path dir;
+
+    private ResultService service() throws Exception {
+        Path file = dir.resolve("results.csv");
+        Files.writeString(file, "sigle,nom,moyenne,score,participants,trimestres\n"
+                + "IFT2255,Génie logiciel,B,4.0,100,4\n"
+                + "IFT1015,Programmation 1,C,2.0,300,6\n"
+                + "IFT3911,Analyse,B+,3.0,100,1\n"
+                + "MAT1400,Calcul 1,C+,2.5,50,5\n");
+        return new ResultService(new ResultRepository(file, 0));
+    }
+
+    @Test
+    void statsAreGroupedByDepartment() throws Exception {
+        List<ResultStats> stats = service().getStatsByDepartment(null, 0);
+
+        assertEquals(List.of("IFT", "MAT"), stats.stream().map(ResultStats::getGroup).toList());
+
+        ResultStats ift = stats.get(0);
+        assertEquals(3, ift.getCourses());
+        assertEquals(500, ift.getParticipants());
+        assertEquals(3.0, ift.getMeanScore(), 1e-9);
+        assertEquals(2.6, ift.getWeightedMeanScore(), 1e-9);
+        assertEquals(2.0, ift.getMinScore());
+        assertEquals(3.0, ift.getMedianScore(), 1e-9);
+        assertEquals(4.0, ift.getMaxScore());
+    }
+
+    @Test
+    void overallStatsAndTrimestreFilter() throws Exception {
+        ResultService service = service();
+
+        ResultStats all = service.getOverallStats(null, 0);
+        assertEquals(4, all.getCourses());
+        assertEquals(2.75, all.getMedianScore(), 1e-9);
+
+        ResultStats filtered = service.getOverallStats("ift", 4);
+        assertEquals(2, filtered.getCourses());
+        assertEquals(3.0, filtered.getMeanScore(), 1e-9);
+
+        assertTrue(service.getStatsByDepartment("CHM", 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.getOverallStats(null, -1));
+    }
+}
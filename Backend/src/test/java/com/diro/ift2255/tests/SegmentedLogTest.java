@@ -0,0 +1,177 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.Opinion;
+import com.diro.ift2255.repository.OpinionRepository;
+import com.diro.ift2255.util.SegmentedLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsSurviveReopenAcrossSegments() throws Exception {
+        try (SegmentedLog log = SegmentedLog.open(dir, 64, 0)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(("record-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1);
+        }
+
+        try (SegmentedLog log = SegmentedLog.open(dir, 64, 0)) {
+            assertEquals(20, log.size());
+            assertEquals("record-0", new String(log.read(0), StandardCharsets.UTF_8));
+            assertEquals("record-19", new String(log.read(19), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedOnOpen() throws Exception {
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 10)) {
+            log.appendAll(List.of("a".getBytes(), "bb".getBytes()));
+        }
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        long validSize = Files.size(segment);
+        Files.write(segment, new byte[]{0, 0, 0, 9, 1, 2}, StandardOpenOption.APPEND);
+
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 10)) {
+            assertEquals(2, log.size());
+            assertEquals(validSize, Files.size(segment));
+
+            log.append("ccc".getBytes());
+            assertEquals("ccc", new String(log.read(2)));
+        }
+    }
+
+    @Test
+    void corruptedRecordIsNotReturned() throws Exception {
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 0)) {
+            log.append("intact".getBytes());
+            log.append("altere".getBytes());
+        }
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segment, bytes);
+
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 0)) {
+            assertEquals(1, log.size());
+        }
+    }
+
+    @Test
+    void partialWriteIsDiscarded() throws Exception {
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 0)) {
+            log.append("avant".getBytes());
+
+            Field field = SegmentedLog.class.getDeclaredField("active");
+            field.setAccessible(true);
+            FileChannel real = (FileChannel) field.get(log);
+            field.set(log, new FailingChannel(real));
+
+            assertThrows(IOException.class,
+                    () -> log.appendAll(List.of("perdu-1".getBytes(), "perdu-2".getBytes())));
+            assertEquals(1, log.size());
+
+            field.set(log, real);
+            log.append("apres".getBytes());
+            assertEquals("apres", new String(log.read(1)));
+        }
+
+        try (SegmentedLog log = SegmentedLog.open(dir, 1 << 20, 0)) {
+            assertEquals(2, log.size());
+            assertEquals("avant", new String(log.read(0)));
+            assertEquals("apres", new String(log.read(1)));
+        }
+    }
+
+    @Test
+    void opinionsArePersisted() {
+        OpinionRepository repository = new OpinionRepository(dir);
+        repository.add(opinion("IFT2255", "Très bon cours"));
+        repository.addAll(List.of(opinion("IFT2015", "Charge élevée"), opinion("ift2255", "Projet long")));
+        repository.close();
+
+        OpinionRepository reopened = new OpinionRepository(dir);
+        assertEquals(3, reopened.findAll().size());
+        assertEquals(2, reopened.findByCourseCode("IFT2255").size());
+        assertEquals("Très bon cours", reopened.findAll().get(0).getText());
+        reopened.close();
+    }
+
+    /**
+     * Canal qui ecrit les premiers octets dun tampon puis echoue, comme lors
+     * dun disque plein.
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            ByteBuffer head = src.duplicate();
+            head.limit(head.position() + Math.min(5, head.remaining()));
+            int written = delegate.write(head);
+            src.position(src.position() + written);
+            throw new IOException("disque plein");
+        }
+
+        @Override public int read(ByteBuffer dst) throws IOException { return delegate.read(dst); }
+        @Override public long read(ByteBuffer[] dsts, int offset, int length) throws IOException { return delegate.read(dsts, offset, length); }
+        @Override public long write(ByteBuffer[] srcs, int offset, int length) throws IOException { return delegate.write(srcs, offset, length); }
+        @Override public long position() throws IOException { return delegate.position(); }
+        @Override public FileChannel position(long newPosition) throws IOException { delegate.position(newPosition); return this; }
+        @Override public long size() throws IOException { return delegate.size(); }
+        @Override public FileChannel truncate(long size) throws IOException { delegate.truncate(size); return this; }
+        @Override public void force(boolean metaData) throws IOException { delegate.force(metaData); }
+        @Override public long transferTo(long position, long count, WritableByteChannel target) throws IOException { return delegate.transferTo(position, count, target); }
+        @Override public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException { return delegate.transferFrom(src, position, count); }
+        @Override public int read(ByteBuffer dst, long position) throws IOException { return delegate.read(dst, position); }
+        @Override public int write(ByteBuffer src, long position) throws IOException { return delegate.write(src, position); }
+        @Override public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException { return delegate.map(mode, position, size); }
+        @Override public FileLock lock(long position, long size, boolean shared) throws IOException { return delegate.lock(position, size, shared); }
+        @Override public FileLock tryLock(long position, long size, boolean shared) throws IOException { return delegate.tryLock(position, size, shared); }
+        @Override protected void implCloseChannel() throws IOException { delegate.close(); }
+    }
+
+    private static Opinion opinion(String course, String text) {
+        Opinion o = new Opinion();
+        o.course_code = course;
+        o.text = text;
+        return o;
+    }
+}
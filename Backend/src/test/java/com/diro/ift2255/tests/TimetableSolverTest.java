@@ -0,0 +1,206 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.model.CourseSchedule;
+import com.diro.ift2255.service.CourseScheduleWithCourse;
+import com.diro.ift2255.service.CourseSetService;
+import com.diro.ift2255.service.Timetable;
+import com.diro.ift2255.service.TimetableSearchResult;
+import com.diro.ift2255.service.TimetableSolver;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimetableSolverTest {
+
+    private static final String[] DAYS = {"Lundi", "Mardi", "Mercredi", "Jeudi", "Vendredi"};
+
+    @Test
+    void picksOneSectionPerVoletAndPrefersFewerDays() {
+        List<CourseScheduleWithCourse> schedules = List.of(
+                slot("IFT1015", "A", "TH", "Lundi", "08:30", "10:30"),
+                slot("IFT1015", "B", "TH", "Mardi", "08:30", "10:30"),
+                slot("IFT1015", "A101", "TP", "Mardi", "13:30", "15:30"),
+                slot("IFT2255", "A", "TH", "Mardi", "10:30", "12:30"),
+                slot("IFT2255", "B", "TH", "Mardi", "08:30", "10:30")
+        );
+
+        TimetableSearchResult result = new TimetableSolver(schedules).solve(5, 1000);
+
+        assertTrue(result.isComplete());
+        assertEquals(3, result.getTimetables().size());
+
+        Timetable best = result.getTimetables().get(0);
+        assertEquals(1, best.getDaysOnCampus());
+        assertEquals(60, best.getGapMinutes());
+        assertEquals(List.of("B", "A101", "A"),
+                best.getSchedules().stream().map(CourseScheduleWithCourse::getSection).toList());
+    }
+
+    @Test
+    void rankingMatchesExhaustiveEnumeration() {
+        Random random = new Random(11);
+        CourseSetService conflicts = new CourseSetService();
+
+        for (int round = 0; round < 50; round++) {
+            List<CourseScheduleWithCourse> schedules = randomInstance(random);
+
+            List<List<Integer>> expected = bruteForce(schedules);
+            TimetableSearchResult result = new TimetableSolver(schedules).solve(8, 5000);
+
+            List<List<Integer>> actual = result.getTimetables().stream()
+                    .map(t -> List.of(t.getDaysOnCampus(), t.getEveningMinutes(), t.getGapMinutes()))
+                    .toList();
+
+            assertTrue(result.isComplete());
+            assertEquals(expected.subList(0, Math.min(8, expected.size())), actual);
+            for (Timetable t : result.getTimetables()) {
+                assertTrue(conflicts.detectConflicts(t.getSchedules()).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void searchStopsWhenBudgetIsSpent() {
+        List<CourseScheduleWithCourse> schedules = new ArrayList<>();
+        for (int c = 0; c < 6; c++) {
+            for (int s = 0; s < 12; s++) {
+                schedules.add(slot("C" + c, "S" + s, "TH", DAYS[s % 5],
+                        time(8 * 60 + c * 60), time(8 * 60 + c * 60 + 50)));
+            }
+        }
+
+        TimetableSearchResult result = new TimetableSolver(schedules).solve(1, 0);
+
+        assertFalse(result.isComplete());
+        assertEquals(1, result.getTimetables().size());
+    }
+
+    @Test
+    void sectionsSeparatedByLessThanOneSlotAreCompatible() {
+        List<CourseScheduleWithCourse> schedules = List.of(
+                slot("IFT1015", "A", "TH", "Jeudi", "10:00", "10:52"),
+                slot("IFT2255", "A", "TH", "Jeudi", "10:53", "11:40"),
+                slot("IFT2255", "B", "TH", "Jeudi", "10:30", "11:30")
+        );
+
+        TimetableSearchResult result = new TimetableSolver(schedules).solve(5, 1000);
+
+        assertTrue(result.isComplete());
+        assertEquals(1, result.getTimetables().size());
+        assertEquals(List.of("A", "A"), result.getTimetables().get(0).getSchedules().stream()
+                .map(CourseScheduleWithCourse::getSection).toList());
+    }
+
+    private static List<CourseScheduleWithCourse> randomInstance(Random random) {
+        List<CourseScheduleWithCourse> schedules = new ArrayList<>();
+        for (int c = random.nextInt(3) + 2; c > 0; c--) {
+            for (String volet : List.of("TH", "TP")) {
+                for (int s = random.nextInt(3) + 1; s > 0; s--) {
+                    for (int a = random.nextInt(2) + 1; a > 0; a--) {
+                        int start = 8 * 60 + random.nextInt(26) * 30;
+                        schedules.add(slot("C" + c, volet + s, volet, DAYS[random.nextInt(5)],
+                                time(start), time(start + 60 + random.nextInt(3) * 30)));
+                    }
+                }
+            }
+        }
+        return schedules;
+    }
+
+    private static List<List<Integer>> bruteForce(List<CourseScheduleWithCourse> schedules) {
+
+        Map<String, Map<String, List<CourseScheduleWithCourse>>> groups = new LinkedHashMap<>();
+        for (CourseScheduleWithCourse s : schedules) {
+            groups.computeIfAbsent(s.getCourseId() + "/" + s.getActivityType(), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(s.getSection(), k -> new ArrayList<>())
+                    .add(s);
+        }
+
+        List<List<List<CourseScheduleWithCourse>>> domains = new ArrayList<>();
+        for (Map<String, List<CourseScheduleWithCourse>> g : groups.values()) {
+            domains.add(new ArrayList<>(g.values()));
+        }
+
+        List<List<Integer>> scores = new ArrayList<>();
+        enumerate(domains, 0, new ArrayList<>(), scores);
+        scores.sort(Comparator.<List<Integer>>comparingInt(l -> l.get(0))
+                .thenComparingInt(l -> l.get(1))
+                .thenComparingInt(l -> l.get(2)));
+        return scores;
+    }
+
+    private static void enumerate(
+            List<List<List<CourseScheduleWithCourse>>> domains,
+            int depth,
+            List<CourseScheduleWithCourse> chosen,
+            List<List<Integer>> scores
+    ) {
+        if (depth == domains.size()) {
+            scores.add(score(chosen));
+            return;
+        }
+        for (List<CourseScheduleWithCourse> option : domains.get(depth)) {
+            if (option.stream().anyMatch(a -> chosen.stream().anyMatch(b -> overlaps(a, b)))) continue;
+            List<CourseScheduleWithCourse> next = new ArrayList<>(chosen);
+            next.addAll(option);
+            enumerate(domains, depth + 1, next, scores);
+        }
+    }
+
+    private static boolean overlaps(CourseScheduleWithCourse a, CourseScheduleWithCourse b) {
+        return a.getDay().equals(b.getDay())
+                && minutes(a.getStartTime()) < minutes(b.getEndTime())
+                && minutes(b.getStartTime()) < minutes(a.getEndTime());
+    }
+
+    private static List<Integer> score(List<CourseScheduleWithCourse> slots) {
+        int days = 0;
+        int evening = 0;
+        int gaps = 0;
+        for (String day : DAYS) {
+            boolean[] minute = new boolean[24 * 60];
+            for (CourseScheduleWithCourse s : slots) {
+                if (!s.getDay().equals(day)) continue;
+                for (int m = minutes(s.getStartTime()); m < minutes(s.getEndTime()); m++) {
+                    minute[m] = true;
+                }
+            }
+            int first = -1;
+            int last = -1;
+            int busy = 0;
+            for (int m = 0; m < minute.length; m++) {
+                if (!minute[m]) continue;
+                if (first < 0) first = m;
+                last = m;
+                busy++;
+                if (m >= 18 * 60) evening++;
+            }
+            if (first >= 0) {
+                days++;
+                gaps += last - first + 1 - busy;
+            }
+        }
+        return List.of(days, evening, gaps);
+    }
+
+    private static int minutes(String time) {
+        return LocalTime.parse(time).toSecondOfDay() / 60;
+    }
+
+    private static String time(int minutes) {
+        return LocalTime.ofSecondOfDay(minutes * 60L).toString();
+    }
+
+    private static CourseScheduleWithCourse slot(
+            String course, String section, String volet, String day, String start, String end) {
+        return new CourseScheduleWithCourse(course, new CourseSchedule(section, volet, day, start, end));
+    }
+}
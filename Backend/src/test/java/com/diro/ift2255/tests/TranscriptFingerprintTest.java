@@ -0,0 +1,38 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.util.TranscriptFingerprint;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranscriptFingerprintTest {
+
+    @Test
+    void equivalentTranscriptsShareFingerprint() {
+        TranscriptFingerprint a = TranscriptFingerprint.of(List.of("IFT1015", " mat1400 ", "IFT1015"));
+        TranscriptFingerprint b = TranscriptFingerprint.parse("MAT1400, ift 1015,,");
+
+        assertEquals(List.of("IFT1015", "MAT1400"), a.getCourses());
+        assertEquals(a.getCourses(), b.getCourses());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertSame(a.getCourses().get(0), b.getCourses().get(0));
+    }
+
+    @Test
+    void differentTranscriptsDiffer() {
+        assertNotEquals(TranscriptFingerprint.parse("IFT1015"), TranscriptFingerprint.parse("IFT1016"));
+        assertNotEquals(TranscriptFingerprint.parse("IFT10,15"), TranscriptFingerprint.parse("IFT1015"));
+        assertEquals(TranscriptFingerprint.EMPTY, TranscriptFingerprint.parse(" , "));
+
+        Set<TranscriptFingerprint> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            seen.add(TranscriptFingerprint.of(List.of("IFT" + i, "MAT" + (i % 97))));
+        }
+        assertEquals(10_000, seen.size());
+    }
+}
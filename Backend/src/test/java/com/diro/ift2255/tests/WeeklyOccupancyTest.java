@@ -0,0 +1,51 @@
+package com.diro.ift2255.tests;
+
+import com.diro.ift2255.util.WeeklyOccupancy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeeklyOccupancyTest {
+
+    @Test
+    void dayNamesAreRecognized() {
+        assertEquals(0, WeeklyOccupancy.dayIndex("Lundi"));
+        assertEquals(1, WeeklyOccupancy.dayIndex("ma"));
+        assertEquals(2, WeeklyOccupancy.dayIndex("Wednesday"));
+        assertEquals(6, WeeklyOccupancy.dayIndex("DIM"));
+        assertEquals(-1, WeeklyOccupancy.dayIndex("x"));
+        assertEquals(-1, WeeklyOccupancy.dayIndex(null));
+    }
+
+    @Test
+    void touchingSlotsAreOccupied() {
+        WeeklyOccupancy a = new WeeklyOccupancy();
+        a.add(0, 8 * 60 + 30, 10 * 60 + 29);
+
+        assertEquals(24, a.slotCount());
+
+        WeeklyOccupancy b = new WeeklyOccupancy();
+        b.add(0, 10 * 60 + 30, 11 * 60);
+        assertFalse(a.intersects(b));
+
+        b.add(0, 10 * 60 + 26, 10 * 60 + 27);
+        assertTrue(a.intersects(b));
+    }
+
+    @Test
+    void rangesSpanningWordsAreComplete() {
+        WeeklyOccupancy week = new WeeklyOccupancy();
+        week.add(6, 0, 24 * 60);
+        week.add(0, 0, 24 * 60);
+
+        assertEquals(2 * WeeklyOccupancy.SLOTS_PER_DAY, week.slotCount());
+
+        WeeklyOccupancy lastSlot = new WeeklyOccupancy();
+        lastSlot.add(6, 24 * 60 - 1, 24 * 60);
+        assertTrue(week.intersects(lastSlot));
+
+        week.andNot(week);
+        assertTrue(week.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> week.add(7, 0, 10));
+    }
+}